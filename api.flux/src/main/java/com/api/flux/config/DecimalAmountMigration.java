@@ -0,0 +1,53 @@
+package com.api.flux.config;
+
+import com.api.flux.entity.Expense;
+import com.api.flux.entity.Income;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class DecimalAmountMigration {
+    private static final Logger logger = LoggerFactory.getLogger(DecimalAmountMigration.class);
+    private static final List<Document> TO_DECIMAL = List.of(
+            new Document("$set", new Document("amount", new Document("$toDecimal", "$amount"))));
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${flux.mongo.migrate-decimal-amounts:true}")
+    private boolean enabled;
+
+    public DecimalAmountMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateAmounts() {
+        if (!enabled) {
+            return;
+        }
+
+        for (Class<?> entityType : List.of(Expense.class, Income.class)) {
+            String collection = mongoTemplate.getCollectionName(entityType);
+            try {
+                UpdateResult result = mongoTemplate.getCollection(collection)
+                        .updateMany(Filters.type("amount", BsonType.STRING), TO_DECIMAL);
+                if (result.getModifiedCount() > 0) {
+                    logger.info("Converted {} string amounts on {} to Decimal128", result.getModifiedCount(), collection);
+                }
+            } catch (Exception exception) {
+                logger.error("Could not convert string amounts on {} to Decimal128: {}", collection, exception.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.api.flux.config;
+
+import com.api.flux.utils.MetricsSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutionConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    private final Map<String, ThreadPoolExecutor> bulkheads = new ConcurrentHashMap<>();
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService geminiExecutor(@Value("${flux.execution.gemini-pool-size:16}") int poolSize,
+                                          @Value("${flux.execution.gemini-queue-capacity:64}") int queueCapacity) {
+        return newBulkhead("gemini", poolSize, queueCapacity);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService calendarExecutor(@Value("${flux.execution.calendar-pool-size:8}") int poolSize,
+                                            @Value("${flux.execution.calendar-queue-capacity:32}") int queueCapacity) {
+        return newBulkhead("calendar", poolSize, queueCapacity);
+    }
+
+    // Fan-out tasks block on Mongo and need no bulkhead, so with virtual threads each gets its own thread instead
+    // of a pooled one. The bulkheads stay pooled: their pool size is the concurrency limit.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService fanOutExecutor(@Value("${flux.execution.fan-out-pool-size:16}") int poolSize,
+                                          ObjectProvider<VirtualThreadExecutors> virtualThreadExecutors) {
+        VirtualThreadExecutors virtualThreads = virtualThreadExecutors.getIfAvailable();
+        if (virtualThreads != null) {
+            logger.info("fan-out tasks run on virtual threads");
+            return new DelegatingSecurityContextExecutorService(virtualThreads.newThreadPerTaskExecutor("fan-out"));
+        }
+        return newExecutor("fan-out", poolSize);
+    }
+
+    @Bean
+    public MetricsSource bulkheadMetrics() {
+        return new MetricsSource() {
+            @Override
+            public String metricsName() {
+                return "bulkheads";
+            }
+
+            @Override
+            public Map<String, Object> metrics() {
+                Map<String, Object> metrics = new HashMap<>();
+                bulkheads.forEach((name, executor) -> metrics.put(name, Map.of(
+                        "poolSize", executor.getMaximumPoolSize(),
+                        "active", executor.getActiveCount(),
+                        "queued", executor.getQueue().size(),
+                        "queueRemaining", executor.getQueue().remainingCapacity(),
+                        "completed", executor.getCompletedTaskCount()
+                )));
+                return metrics;
+            }
+        };
+    }
+
+    private ExecutorService newBulkhead(String name, int poolSize, int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(name), new ThreadPoolExecutor.AbortPolicy());
+        bulkheads.put(name, executor);
+
+        logger.info("{} bulkhead allows {} concurrent tasks and {} queued", name, poolSize, queueCapacity);
+        return new DelegatingSecurityContextExecutorService(executor);
+    }
+
+    private ExecutorService newExecutor(String name, int poolSize) {
+        logger.info("{} tasks run on a pool of {} platform threads", name, poolSize);
+        return new DelegatingSecurityContextExecutorService(Executors.newFixedThreadPool(poolSize, threadFactory(name)));
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.api.flux.config;
+
+import com.api.flux.utils.IdGenerator;
+import org.springframework.core.Ordered;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+public class GeneratedIdCallback implements BeforeConvertCallback<Object>, Ordered {
+    private final IdGenerator idGenerator;
+    private final MongoMappingContext mappingContext;
+
+    public GeneratedIdCallback(IdGenerator idGenerator, MongoMappingContext mappingContext) {
+        this.idGenerator = idGenerator;
+        this.mappingContext = mappingContext;
+    }
+
+    @Override
+    public Object onBeforeConvert(Object entity, String collection) {
+        MongoPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entity.getClass());
+        if (persistentEntity == null || !persistentEntity.hasIdProperty()) {
+            return entity;
+        }
+
+        MongoPersistentProperty idProperty = persistentEntity.getRequiredIdProperty();
+        if (!UUID.class.equals(idProperty.getType())) {
+            return entity;
+        }
+
+        PersistentPropertyAccessor<Object> accessor = persistentEntity.getPropertyAccessor(entity);
+        if (accessor.getProperty(idProperty) == null) {
+            accessor.setProperty(idProperty, idGenerator.next());
+        }
+        return entity;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
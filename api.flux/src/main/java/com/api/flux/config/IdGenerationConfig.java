@@ -0,0 +1,115 @@
+package com.api.flux.config;
+
+import com.api.flux.utils.IdGenerator;
+import com.api.flux.utils.UuidV7Generator;
+import org.bson.UuidRepresentation;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Ids come from the IdGenerator bean (flux.ids.strategy) and are assigned by GeneratedIdCallback on first save.
+// uuidv7 ids only keep their index locality when stored with spring.data.mongodb.uuid-representation=standard,
+// which is the default; java-legacy byte-swaps them. UuidRepresentationMigration rewrites stored subtype 3 UUIDs
+// (ids and references such as userId) to subtype 4 first, and startup refuses STANDARD if any are left.
+@Configuration
+public class IdGenerationConfig {
+    private static final Logger logger = LoggerFactory.getLogger(IdGenerationConfig.class);
+    private static final byte LEGACY_UUID_SUBTYPE = 3;
+    private static final byte STANDARD_UUID_SUBTYPE = 4;
+    private static final int UUID_LENGTH = 16;
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final UuidRepresentation uuidRepresentation;
+    private final boolean allowLegacyIds;
+
+    public IdGenerationConfig(MongoTemplate mongoTemplate,
+                              MongoMappingContext mappingContext,
+                              MongoProperties mongoProperties,
+                              @Value("${flux.ids.allow-legacy-ids:false}") boolean allowLegacyIds) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.uuidRepresentation = mongoProperties.getUuidRepresentation();
+        this.allowLegacyIds = allowLegacyIds;
+    }
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${flux.ids.strategy:uuidv7}") String strategy) {
+        logger.info("Generating document ids with the {} strategy ({} UUID representation)", strategy, uuidRepresentation);
+        return switch (strategy) {
+            case "uuidv7" -> new UuidV7Generator();
+            case "random" -> IdGenerator.RANDOM;
+            default -> throw new IllegalArgumentException("Unknown flux.ids.strategy: " + strategy);
+        };
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkUuidRepresentation() {
+        if (uuidRepresentation != UuidRepresentation.STANDARD) {
+            logger.warn("UUIDs are stored with the {} representation, which byte-swaps ids; "
+                    + "time-ordered ids only keep their index locality with the STANDARD representation", uuidRepresentation);
+            return;
+        }
+
+        List<String> fieldsWithLegacyIds = new ArrayList<>();
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+
+            for (String field : uuidFields(entity)) {
+                if (mongoTemplate.exists(legacyUuids(field), entity.getCollection())) {
+                    fieldsWithLegacyIds.add(entity.getCollection() + "." + field);
+                }
+            }
+        }
+
+        if (fieldsWithLegacyIds.isEmpty()) {
+            return;
+        }
+
+        String message = "Fields " + fieldsWithLegacyIds + " still hold legacy (subtype 3) UUIDs, "
+                + "which cannot be matched with the STANDARD representation; migrate them first";
+        if (!allowLegacyIds) {
+            throw new IllegalStateException(message);
+        }
+        logger.error(message);
+    }
+
+    static List<String> uuidFields(MongoPersistentEntity<?> entity) {
+        List<String> fields = new ArrayList<>();
+        entity.doWithProperties((PropertyHandler<MongoPersistentProperty>) property -> {
+            if (UUID.class.equals(property.getActualType())) {
+                fields.add(property.getFieldName());
+            }
+        });
+        return fields;
+    }
+
+    static Query legacyUuids(String field) {
+        return Query.query(Criteria.where(field)
+                .gte(new Binary(LEGACY_UUID_SUBTYPE, new byte[UUID_LENGTH]))
+                .lt(new Binary(STANDARD_UUID_SUBTYPE, new byte[UUID_LENGTH])));
+    }
+}
@@ -0,0 +1,123 @@
+package com.api.flux.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Component
+public class MongoIndexInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final QueryPlanVerifier queryPlanVerifier;
+
+    @Value("${flux.mongo.indexes.ensure-on-startup:true}")
+    private boolean ensureOnStartup;
+
+    @Value("${flux.mongo.indexes.verify-query-plans:false}")
+    private boolean verifyQueryPlans;
+
+    @Value("${flux.mongo.indexes.fail-on-error:false}")
+    private boolean failOnError;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate, MongoMappingContext mappingContext,
+                                 QueryPlanVerifier queryPlanVerifier) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.queryPlanVerifier = queryPlanVerifier;
+    }
+
+    // Unique indexes back invariants the code relies on (one LucAI document per user, unique history bucket
+    // sequence numbers for appendTurn, case-insensitive unique emails), so startup fails without them regardless
+    // of fail-on-error.
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            if (ensureOnStartup) {
+                reconcile(entity, resolver);
+            } else {
+                requireUniqueIndexes(entity, resolver);
+            }
+        }
+
+        if (verifyQueryPlans) {
+            Set<String> violations = queryPlanVerifier.findUnindexedQueries();
+            if (violations.isEmpty()) {
+                logger.info("All verified repository queries are served by an index");
+            } else {
+                violations.forEach(violation -> logger.error("Query falls back to a collection scan or in-memory sort: {}", violation));
+                if (failOnError) {
+                    throw new IllegalStateException("Repository queries fall back to COLLSCAN or SORT: " + violations);
+                }
+            }
+        }
+    }
+
+    private void reconcile(MongoPersistentEntity<?> entity, IndexResolver resolver) {
+        IndexOperations indexOperations = mongoTemplate.indexOps(entity.getCollection());
+        Set<String> declared = new HashSet<>();
+
+        resolver.resolveIndexFor(entity.getTypeInformation()).forEach(indexDefinition -> {
+            String name = indexDefinition.getIndexOptions().getString("name");
+            declared.add(name);
+            try {
+                indexOperations.createIndex(indexDefinition);
+            } catch (Exception exception) {
+                logger.error("Could not create index {} on {}: {}", name, entity.getCollection(), exception.getMessage());
+                if (isUnique(indexDefinition)) {
+                    throw new IllegalStateException("Could not create unique index " + name + " on "
+                            + entity.getCollection(), exception);
+                }
+                if (failOnError) {
+                    throw exception;
+                }
+            }
+        });
+
+        for (IndexInfo indexInfo : indexOperations.getIndexInfo()) {
+            if (!"_id_".equals(indexInfo.getName()) && !declared.contains(indexInfo.getName())) {
+                logger.warn("Index {} on {} is not declared by {}", indexInfo.getName(), entity.getCollection(),
+                        entity.getType().getSimpleName());
+            }
+        }
+
+        logger.info("Reconciled {} declared indexes on {}", declared.size(), entity.getCollection());
+    }
+
+    private void requireUniqueIndexes(MongoPersistentEntity<?> entity, IndexResolver resolver) {
+        Set<String> existing = new HashSet<>();
+        mongoTemplate.indexOps(entity.getCollection()).getIndexInfo().forEach(indexInfo -> existing.add(indexInfo.getName()));
+
+        resolver.resolveIndexFor(entity.getTypeInformation()).forEach(indexDefinition -> {
+            String name = indexDefinition.getIndexOptions().getString("name");
+            if (isUnique(indexDefinition) && !existing.contains(name)) {
+                throw new IllegalStateException("Unique index " + name + " is missing on " + entity.getCollection()
+                        + "; create it or enable flux.mongo.indexes.ensure-on-startup");
+            }
+        });
+    }
+
+    private static boolean isUnique(IndexDefinition indexDefinition) {
+        return indexDefinition.getIndexOptions().getBoolean("unique", false);
+    }
+}
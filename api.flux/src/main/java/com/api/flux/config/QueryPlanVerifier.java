@@ -0,0 +1,125 @@
+package com.api.flux.config;
+
+import com.api.flux.entity.Balance;
+import com.api.flux.entity.Expense;
+import com.api.flux.entity.Income;
+import com.api.flux.entity.LucAI;
+import com.api.flux.entity.LucAIHistoryBucket;
+import com.api.flux.entity.User;
+import com.api.flux.repository.UserRepository;
+import com.mongodb.client.FindIterable;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Component
+public class QueryPlanVerifier {
+    private static final Set<String> UNINDEXED_STAGES = Set.of("COLLSCAN", "SORT");
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final QueryMapper queryMapper;
+
+    public QueryPlanVerifier(MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    public Set<String> findUnindexedQueries() {
+        UUID userId = UUID.randomUUID();
+        Instant end = Instant.now();
+        Instant start = end.minus(30, ChronoUnit.DAYS);
+
+        Map<String, QueryCase> cases = new LinkedHashMap<>();
+        for (Class<?> transactionType : List.of(Expense.class, Income.class)) {
+            String name = transactionType.getSimpleName();
+            cases.put(name + ".findByUserId", new QueryCase(transactionType,
+                    Query.query(Criteria.where("userId").is(userId)).with(Sort.by(Sort.Direction.DESC, "transactionDate"))));
+            cases.put(name + ".findByUserIdAndTransactionDateBetween", new QueryCase(transactionType,
+                    Query.query(Criteria.where("userId").is(userId).and("transactionDate").gte(start).lte(end))));
+            cases.put(name + ".sumAmountByCategory", new QueryCase(transactionType,
+                    Query.query(Criteria.where("userId").is(userId).and("transactionDate").gte(start).lt(end))));
+            for (String sortBy : List.of("transactionDate", "amount", "title", "category")) {
+                cases.put(name + ".findSliceByUserId(" + sortBy + ")", new QueryCase(transactionType,
+                        Query.query(Criteria.where("userId").is(userId).and("transactionDate").gte(start).lte(end))
+                                .with(Sort.by(Sort.Direction.DESC, sortBy, "id"))));
+            }
+        }
+        cases.put("User.findByEmail", new QueryCase(User.class,
+                Query.query(Criteria.where("email").is("someone@example.com"))
+                        .collation(Collation.parse(UserRepository.EMAIL_COLLATION))));
+        cases.put("Balance.findByUserId", new QueryCase(Balance.class,
+                Query.query(Criteria.where("userId").is(userId)).with(Sort.by(Sort.Direction.DESC, "calculatedAt"))));
+        cases.put("LucAI.findByUserId", new QueryCase(LucAI.class,
+                Query.query(Criteria.where("userId").is(userId))));
+        cases.put("LucAIHistoryBucket.findRecentTurns", new QueryCase(LucAIHistoryBucket.class,
+                Query.query(Criteria.where("userId").is(userId)).with(Sort.by(Sort.Direction.DESC, "seq", "lastTurnAt"))));
+
+        Set<String> violations = new LinkedHashSet<>();
+        cases.forEach((name, queryCase) -> {
+            if (usesUnindexedStage(queryCase)) {
+                violations.add(name);
+            }
+        });
+        return violations;
+    }
+
+    private boolean usesUnindexedStage(QueryCase queryCase) {
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(queryCase.entityType());
+        Document filter = queryMapper.getMappedObject(queryCase.query().getQueryObject(), entity);
+        Document sort = queryMapper.getMappedSort(queryCase.query().getSortObject(), entity);
+
+        FindIterable<Document> find = mongoTemplate.getCollection(entity.getCollection()).find(filter).sort(sort);
+        queryCase.query().getCollation().ifPresent(collation -> find.collation(collation.toMongoCollation()));
+
+        List<Object> winningPlans = new ArrayList<>();
+        collectWinningPlans(find.explain(), winningPlans);
+        return winningPlans.stream().anyMatch(QueryPlanVerifier::containsUnindexedStage);
+    }
+
+    static void collectWinningPlans(Object node, List<Object> winningPlans) {
+        if (node instanceof Document document) {
+            document.forEach((key, value) -> {
+                if ("winningPlan".equals(key)) {
+                    winningPlans.add(value);
+                } else {
+                    collectWinningPlans(value, winningPlans);
+                }
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectWinningPlans(value, winningPlans));
+        }
+    }
+
+    static boolean containsUnindexedStage(Object node) {
+        if (node instanceof Document document) {
+            return document.get("stage") instanceof String stage && UNINDEXED_STAGES.contains(stage)
+                    || document.values().stream().anyMatch(QueryPlanVerifier::containsUnindexedStage);
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(QueryPlanVerifier::containsUnindexedStage);
+        }
+        return false;
+    }
+
+    private record QueryCase(Class<?> entityType, Query query) {
+    }
+}
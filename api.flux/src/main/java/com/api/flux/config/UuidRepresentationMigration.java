@@ -0,0 +1,131 @@
+package com.api.flux.config;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import org.bson.BsonArray;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.UuidRepresentation;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Rewrites java-legacy (subtype 3) UUIDs to standard (subtype 4) so that time-ordered ids keep their byte order,
+// and with it their index locality. Runs before IdGenerationConfig checks that no legacy UUIDs are left.
+@Component
+public class UuidRepresentationMigration {
+    private static final Logger logger = LoggerFactory.getLogger(UuidRepresentationMigration.class);
+    private static final String ID_FIELD = "_id";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final UuidRepresentation uuidRepresentation;
+
+    @Value("${flux.mongo.migrate-uuid-representation:true}")
+    private boolean enabled;
+
+    public UuidRepresentationMigration(MongoTemplate mongoTemplate, MongoMappingContext mappingContext,
+                                       MongoProperties mongoProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.uuidRepresentation = mongoProperties.getUuidRepresentation();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateUuids() {
+        if (!enabled || uuidRepresentation != UuidRepresentation.STANDARD) {
+            return;
+        }
+
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+
+            List<String> fields = IdGenerationConfig.uuidFields(entity);
+            if (!fields.isEmpty()) {
+                migrateCollection(entity.getCollection(), fields);
+            }
+        }
+    }
+
+    private void migrateCollection(String collection, List<String> fields) {
+        MongoCollection<BsonDocument> documents = mongoTemplate.getCollection(collection).withDocumentClass(BsonDocument.class);
+        Bson legacy = Filters.or(fields.stream().<Bson>map(field -> IdGenerationConfig.legacyUuids(field).getQueryObject()).toList());
+        long migrated = 0;
+
+        try (MongoCursor<BsonDocument> cursor = documents.find(legacy).iterator()) {
+            while (cursor.hasNext()) {
+                BsonDocument original = cursor.next();
+                BsonDocument converted = toStandard(original, fields);
+                if (converted.equals(original)) {
+                    continue;
+                }
+
+                if (converted.get(ID_FIELD).equals(original.get(ID_FIELD))) {
+                    documents.replaceOne(Filters.eq(ID_FIELD, original.get(ID_FIELD)), converted);
+                } else {
+                    replaceId(documents, original, converted);
+                }
+                migrated++;
+            }
+        } catch (Exception exception) {
+            throw new IllegalStateException("Could not migrate legacy UUIDs on " + collection + ": " + exception.getMessage(), exception);
+        }
+
+        if (migrated > 0) {
+            logger.info("Converted legacy UUIDs to the standard representation on {} documents of {}", migrated, collection);
+        }
+    }
+
+    // _id is immutable, so the document is re-inserted under its converted id. Unique secondary indexes (such as
+    // users.email_ci) would reject the copy while the original exists, so the original goes first and is restored
+    // if the insert fails.
+    private static void replaceId(MongoCollection<BsonDocument> documents, BsonDocument original, BsonDocument converted) {
+        documents.deleteOne(Filters.eq(ID_FIELD, original.get(ID_FIELD)));
+        try {
+            documents.insertOne(converted);
+        } catch (RuntimeException exception) {
+            documents.insertOne(original);
+            throw exception;
+        }
+    }
+
+    static BsonDocument toStandard(BsonDocument document, List<String> fields) {
+        BsonDocument converted = document.clone();
+        for (String field : fields) {
+            if (converted.containsKey(field)) {
+                converted.put(field, toStandard(converted.get(field)));
+            }
+        }
+        return converted;
+    }
+
+    static BsonValue toStandard(BsonValue value) {
+        if (value instanceof BsonArray array) {
+            return new BsonArray(array.getValues().stream().map(UuidRepresentationMigration::toStandard).toList());
+        }
+        if (value instanceof BsonBinary binary && binary.getType() == BsonBinarySubType.UUID_LEGACY.getValue()
+                && binary.getData().length == 16) {
+            return new BsonBinary(binary.asUuid(UuidRepresentation.JAVA_LEGACY), UuidRepresentation.STANDARD);
+        }
+        return value;
+    }
+}
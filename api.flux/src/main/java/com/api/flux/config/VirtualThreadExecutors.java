@@ -0,0 +1,9 @@
+package com.api.flux.config;
+
+import java.util.concurrent.ExecutorService;
+
+// Implemented in src/main/java21, which only the virtual-threads Maven profile compiles; Java 17 builds have no
+// implementation and ExecutionConfig stays on platform threads.
+interface VirtualThreadExecutors {
+    ExecutorService newThreadPerTaskExecutor(String name);
+}
@@ -10,6 +10,7 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -33,7 +34,8 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<LogoutAuthResponseDTO> logout() {
-        return authService.logout();
+    public ResponseEntity<LogoutAuthResponseDTO> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        return authService.logout(authorization);
     }
 }
@@ -1,12 +1,15 @@
 package com.api.flux.controller;
 
 import com.api.flux.dto.response.balance.*;
+import com.api.flux.enums.ExpenseCategory;
+import com.api.flux.enums.IncomeCategory;
 import com.api.flux.service.BalanceService;
 import com.api.flux.utils.GetUserIdFromAuth;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -30,9 +33,11 @@ public class BalanceController {
     public ResponseEntity<PaginatedBalanceResponseDTO<DataBalanceResponseDTO>> getBalanceHistory(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
             Authentication authentication) {
         UUID authenticatedUserId = GetUserIdFromAuth.getId(authentication);
-        return balanceService.getBalanceHistory(authenticatedUserId, page, size);
+        return balanceService.getBalanceHistory(authenticatedUserId, page, size, cursor, includeTotal);
     }
 
     @GetMapping("/history/period")
@@ -41,9 +46,11 @@ public class BalanceController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
             Authentication authentication) {
         UUID authenticatedUserId = GetUserIdFromAuth.getId(authentication);
-        return balanceService.getBalanceHistoryByPeriod(authenticatedUserId, startDate, endDate, page, size);
+        return balanceService.getBalanceHistoryByPeriod(authenticatedUserId, startDate, endDate, page, size, cursor, includeTotal);
     }
 
     @GetMapping("/expenses-incomes")
@@ -52,6 +59,18 @@ public class BalanceController {
         return balanceService.getExpensesAndIncomeHistoryByUserId(authenticatedUserId);
     }
 
+    @GetMapping(value = "/expenses-incomes/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamExpensesAndIncomeHistoryByUserId(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false) ExpenseCategory expenseCategory,
+            @RequestParam(required = false) IncomeCategory incomeCategory,
+            Authentication authentication) {
+        UUID authenticatedUserId = GetUserIdFromAuth.getId(authentication);
+        return balanceService.streamExpensesAndIncomeHistoryByUserId(
+                authenticatedUserId, startDate, endDate, expenseCategory, incomeCategory);
+    }
+
     @PostMapping("/calculate")
     public ResponseEntity<BalanceResponseDTO> calculateBalance(Authentication authentication) {
         UUID authenticatedUserId = GetUserIdFromAuth.getId(authentication);
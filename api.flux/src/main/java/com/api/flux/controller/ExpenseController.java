@@ -49,9 +49,11 @@ public class ExpenseController {
             @RequestParam(defaultValue = "transactionDate") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDirection,
             @RequestParam(defaultValue = "false") boolean lastMonth,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
             Authentication authentication) {
         UUID authenticatedUserId = GetUserIdFromAuth.getId(authentication);
-        return expenseService.listExpensesByUserPaginated(authenticatedUserId, page, size, sortBy, sortDirection, lastMonth);
+        return expenseService.listExpensesByUserPaginated(authenticatedUserId, page, size, sortBy, sortDirection, lastMonth, cursor, includeTotal);
     }
 
 
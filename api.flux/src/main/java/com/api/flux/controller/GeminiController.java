@@ -2,31 +2,100 @@ package com.api.flux.controller;
 
 import com.api.flux.dto.request.gemini.PromptRequestDTO;
 import com.api.flux.dto.response.gemini.PromptResponseDTO;
+import com.api.flux.service.GeminiRateLimiter;
 import com.api.flux.service.GeminiService;
+import com.api.flux.utils.Deadline;
 import com.api.flux.utils.GetUserIdFromAuth;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/v1/api/gemini")
 public class GeminiController {
+    private static final String RATE_LIMITED_MESSAGE = "You're sending messages too quickly, please wait a moment.";
+    private static final String BULKHEAD_FULL_MESSAGE = "LucAI is handling too many conversations, please try again shortly.";
+    private static final Duration BULKHEAD_RETRY_AFTER = Duration.ofSeconds(5);
+
     private final GeminiService geminiService;
+    private final GeminiRateLimiter rateLimiter;
+    private final ExecutorService geminiExecutor;
+
+    @Value("${gemini.stream.timeout:PT2M}")
+    private Duration streamTimeout;
+
+    @Value("${gemini.request.timeout:PT30S}")
+    private Duration requestTimeout;
 
-    public GeminiController(GeminiService geminiService) {
+    public GeminiController(GeminiService geminiService,
+                            GeminiRateLimiter rateLimiter,
+                            @Qualifier("geminiExecutor") ExecutorService geminiExecutor) {
         this.geminiService = geminiService;
+        this.rateLimiter = rateLimiter;
+        this.geminiExecutor = geminiExecutor;
     }
 
     @PostMapping
-    public ResponseEntity<PromptResponseDTO> generateText(
+    public CompletableFuture<ResponseEntity<PromptResponseDTO>> generateText(
+            @RequestBody PromptRequestDTO request,
+            @RequestHeader(value = Deadline.TIMEOUT_HEADER, required = false) String timeoutMillis,
+            Authentication authentication) {
+        Deadline deadline = Deadline.fromHeader(timeoutMillis, requestTimeout);
+        UUID authenticatedUserId = GetUserIdFromAuth.getId(authentication);
+        Duration retryAfter = rateLimiter.tryAcquire(authenticatedUserId);
+        if (!retryAfter.isZero()) {
+            return CompletableFuture.completedFuture(GeminiService.tooManyRequests(RATE_LIMITED_MESSAGE, retryAfter));
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> geminiService.generatePrompt(request.prompt(), authenticatedUserId, deadline), geminiExecutor);
+        } catch (RejectedExecutionException exception) {
+            return CompletableFuture.completedFuture(
+                    GeminiService.serviceUnavailable(BULKHEAD_FULL_MESSAGE, BULKHEAD_RETRY_AFTER));
+        }
+    }
+
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamText(
             @RequestBody PromptRequestDTO request,
+            @RequestHeader(value = Deadline.TIMEOUT_HEADER, required = false) String timeoutMillis,
             Authentication authentication) {
+        Deadline deadline = Deadline.fromHeader(timeoutMillis, streamTimeout);
         UUID authenticatedUserId = GetUserIdFromAuth.getId(authentication);
-        return geminiService.generatePrompt(request.prompt(), authenticatedUserId);
+        Duration retryAfter = rateLimiter.tryAcquire(authenticatedUserId);
+        if (!retryAfter.isZero()) {
+            return rejected(HttpStatus.TOO_MANY_REQUESTS, retryAfter);
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        try {
+            geminiExecutor.execute(() -> geminiService.streamPrompt(request.prompt(), authenticatedUserId, deadline, emitter));
+        } catch (RejectedExecutionException exception) {
+            return rejected(HttpStatus.SERVICE_UNAVAILABLE, BULKHEAD_RETRY_AFTER);
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    private static ResponseEntity<SseEmitter> rejected(HttpStatus status, Duration retryAfter) {
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)))
+                .build();
     }
 }
\ No newline at end of file
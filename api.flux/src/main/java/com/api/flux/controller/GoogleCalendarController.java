@@ -2,94 +2,151 @@ package com.api.flux.controller;
 
 import com.api.flux.dto.request.calendar.EventDateTimeDTO;
 import com.api.flux.dto.request.calendar.EventRequestDTO;
+import com.api.flux.service.DependencyUnavailableException;
 import com.api.flux.service.GoogleCalendarService;
+import com.api.flux.utils.Deadline;
 import com.google.api.client.util.DateTime;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.EventDateTime;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/v1/api/calendar")
 public class GoogleCalendarController {
+    private static final Duration BULKHEAD_RETRY_AFTER = Duration.ofSeconds(5);
+
     private final GoogleCalendarService googleCalendarService;
+    private final ExecutorService calendarExecutor;
+
+    @Value("${google.calendar.request-timeout:PT10S}")
+    private Duration requestTimeout;
 
-    public GoogleCalendarController(GoogleCalendarService googleCalendarService) {
+    public GoogleCalendarController(GoogleCalendarService googleCalendarService,
+                                    @Qualifier("calendarExecutor") ExecutorService calendarExecutor) {
         this.googleCalendarService = googleCalendarService;
+        this.calendarExecutor = calendarExecutor;
     }
 
     @GetMapping("/events")
-    public ResponseEntity<List<Event>> getEvents(
+    public CompletableFuture<ResponseEntity<List<Event>>> getEvents(
             @RequestHeader("X-Google-Token") String googleToken,
+            @RequestHeader(value = Deadline.TIMEOUT_HEADER, required = false) String timeoutMillis,
             @RequestParam String timeMin,
             @RequestParam String timeMax) {
-        try {
-            return ResponseEntity.ok(googleCalendarService.getEvents(googleToken, timeMin, timeMax));
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(500).build();
-        }
+        Deadline deadline = Deadline.fromHeader(timeoutMillis, requestTimeout);
+        return submit(() -> {
+            try {
+                return ResponseEntity.ok(googleCalendarService.getEvents(googleToken, timeMin, timeMax, deadline));
+            } catch (DependencyUnavailableException e) {
+                return unavailable(e.getRetryAfter()).<List<Event>>build();
+            } catch (Exception e) {
+                e.printStackTrace();
+                return ResponseEntity.status(500).<List<Event>>build();
+            }
+        });
     }
 
     @PostMapping("/events")
-    public ResponseEntity<?> createEvent(
+    public CompletableFuture<ResponseEntity<?>> createEvent(
             @RequestHeader("X-Google-Token") String googleToken,
+            @RequestHeader(value = Deadline.TIMEOUT_HEADER, required = false) String timeoutMillis,
             @RequestBody EventRequestDTO eventRequest) {
-        try {
-            Event event = new Event()
-                    .setSummary(eventRequest.summary())
-                    .setDescription(eventRequest.description())
-                    .setLocation(eventRequest.location())
-                    .setStart(toGoogleEventDateTime(eventRequest.start()))
-                    .setEnd(toGoogleEventDateTime(eventRequest.end()));
-
-            Event createdEvent = googleCalendarService.createEvent(googleToken, event);
-            return ResponseEntity.ok(createdEvent);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(500)
-                    .body(Map.of("error", e.getMessage()));
-        }
+        Deadline deadline = Deadline.fromHeader(timeoutMillis, requestTimeout);
+        return submit(() -> {
+            try {
+                Event event = new Event()
+                        .setSummary(eventRequest.summary())
+                        .setDescription(eventRequest.description())
+                        .setLocation(eventRequest.location())
+                        .setStart(toGoogleEventDateTime(eventRequest.start()))
+                        .setEnd(toGoogleEventDateTime(eventRequest.end()));
+
+                Event createdEvent = googleCalendarService.createEvent(googleToken, event, deadline);
+                return ResponseEntity.ok(createdEvent);
+            } catch (DependencyUnavailableException e) {
+                return unavailable(e.getRetryAfter()).body(Map.of("error", e.getMessage()));
+            } catch (Exception e) {
+                e.printStackTrace();
+                return ResponseEntity.status(500)
+                        .body(Map.of("error", e.getMessage()));
+            }
+        });
     }
 
     @PutMapping("/events/{eventId}")
-    public ResponseEntity<?> updateEvent(
+    public CompletableFuture<ResponseEntity<?>> updateEvent(
             @RequestHeader("X-Google-Token") String googleToken,
+            @RequestHeader(value = Deadline.TIMEOUT_HEADER, required = false) String timeoutMillis,
             @PathVariable String eventId,
             @RequestBody EventRequestDTO eventRequest) {
-        try {
-            Event event = new Event()
-                    .setSummary(eventRequest.summary())
-                    .setDescription(eventRequest.description())
-                    .setLocation(eventRequest.location())
-                    .setStart(toGoogleEventDateTime(eventRequest.start()))
-                    .setEnd(toGoogleEventDateTime(eventRequest.end()));
-
-            Event updatedEvent = googleCalendarService.updateEvent(googleToken, eventId, event);
-            return ResponseEntity.ok(updatedEvent);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(500)
-                    .body(Map.of("error", e.getMessage()));
-        }
+        Deadline deadline = Deadline.fromHeader(timeoutMillis, requestTimeout);
+        return submit(() -> {
+            try {
+                Event event = new Event()
+                        .setSummary(eventRequest.summary())
+                        .setDescription(eventRequest.description())
+                        .setLocation(eventRequest.location())
+                        .setStart(toGoogleEventDateTime(eventRequest.start()))
+                        .setEnd(toGoogleEventDateTime(eventRequest.end()));
+
+                Event updatedEvent = googleCalendarService.updateEvent(googleToken, eventId, event, deadline);
+                return ResponseEntity.ok(updatedEvent);
+            } catch (DependencyUnavailableException e) {
+                return unavailable(e.getRetryAfter()).body(Map.of("error", e.getMessage()));
+            } catch (Exception e) {
+                e.printStackTrace();
+                return ResponseEntity.status(500)
+                        .body(Map.of("error", e.getMessage()));
+            }
+        });
     }
 
     @DeleteMapping("/events/{eventId}")
-    public ResponseEntity<Void> deleteEvent(
+    public CompletableFuture<ResponseEntity<Void>> deleteEvent(
             @RequestHeader("X-Google-Token") String googleToken,
+            @RequestHeader(value = Deadline.TIMEOUT_HEADER, required = false) String timeoutMillis,
             @PathVariable String eventId) {
+        Deadline deadline = Deadline.fromHeader(timeoutMillis, requestTimeout);
+        return submit(() -> {
+            try {
+                googleCalendarService.deleteEvent(googleToken, eventId, deadline);
+                return ResponseEntity.noContent().<Void>build();
+            } catch (DependencyUnavailableException e) {
+                return unavailable(e.getRetryAfter()).<Void>build();
+            } catch (Exception e) {
+                e.printStackTrace();
+                return ResponseEntity.status(500).<Void>build();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R extends ResponseEntity<?>> CompletableFuture<R> submit(Supplier<R> request) {
         try {
-            googleCalendarService.deleteEvent(googleToken, eventId);
-            return ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(500).build();
+            return CompletableFuture.supplyAsync(request, calendarExecutor);
+        } catch (RejectedExecutionException exception) {
+            return CompletableFuture.completedFuture((R) unavailable(BULKHEAD_RETRY_AFTER).build());
         }
     }
 
+    private static ResponseEntity.BodyBuilder unavailable(Duration retryAfter) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)));
+    }
+
     private EventDateTime toGoogleEventDateTime(EventDateTimeDTO dto) {
         if (dto == null) return null;
 
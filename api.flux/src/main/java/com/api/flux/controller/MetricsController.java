@@ -0,0 +1,28 @@
+package com.api.flux.controller;
+
+import com.api.flux.utils.MetricsSource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/v1/metrics")
+public class MetricsController {
+    private final List<MetricsSource> metricsSources;
+
+    public MetricsController(List<MetricsSource> metricsSources) {
+        this.metricsSources = metricsSources;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Map<String, Object>>> getMetrics() {
+        Map<String, Map<String, Object>> metrics = new TreeMap<>();
+        metricsSources.forEach(source -> metrics.put(source.metricsName(), new TreeMap<>(source.metrics())));
+        return ResponseEntity.ok(metrics);
+    }
+}
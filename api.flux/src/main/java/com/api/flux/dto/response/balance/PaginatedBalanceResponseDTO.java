@@ -1,18 +1,24 @@
 package com.api.flux.dto.response.balance;
 
+import com.api.flux.utils.CursorSlice;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.domain.Page;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record PaginatedBalanceResponseDTO<T>(
         String message,
-        Page<T> data
+        Page<T> data,
+        CursorSlice<T> slice
 ) {
     public static <T> PaginatedBalanceResponseDTO<T> success(String message, Page<T> data) {
-        return new PaginatedBalanceResponseDTO<>(message, data);
+        return new PaginatedBalanceResponseDTO<>(message, data, null);
+    }
+
+    public static <T> PaginatedBalanceResponseDTO<T> success(String message, CursorSlice<T> slice) {
+        return new PaginatedBalanceResponseDTO<>(message, null, slice);
     }
 
     public static <T> PaginatedBalanceResponseDTO<T> error(String message) {
-        return new PaginatedBalanceResponseDTO<>(message, null);
+        return new PaginatedBalanceResponseDTO<>(message, null, null);
     }
 }
\ No newline at end of file
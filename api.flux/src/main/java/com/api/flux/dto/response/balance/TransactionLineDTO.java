@@ -0,0 +1,16 @@
+package com.api.flux.dto.response.balance;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record TransactionLineDTO(String type,
+                                 UUID id,
+                                 UUID userId,
+                                 String title,
+                                 String description,
+                                 String category,
+                                 BigDecimal amount,
+                                 Instant transactionDate
+) {
+}
@@ -1,6 +1,9 @@
 package com.api.flux.dto.response.income;
 
+import com.api.flux.utils.CursorInfo;
+import com.api.flux.utils.CursorSlice;
 import com.api.flux.utils.PaginationInfo;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.domain.Page;
 
 import java.time.Instant;
@@ -11,6 +14,7 @@ public record PaginatedIncomeResponseDTO<T>(
         String message,
         List<T> content,
         PaginationInfo pagination,
+        @JsonInclude(JsonInclude.Include.NON_NULL) CursorInfo cursor,
         String timestamp
 ) {
     public static <T> PaginatedIncomeResponseDTO<T> success(String message, Page<T> page) {
@@ -28,6 +32,18 @@ public record PaginatedIncomeResponseDTO<T>(
                         page.hasNext(),
                         page.hasPrevious()
                 ),
+                null,
+                Instant.now().toString()
+        );
+    }
+
+    public static <T> PaginatedIncomeResponseDTO<T> success(String message, CursorSlice<T> slice) {
+        return new PaginatedIncomeResponseDTO<>(
+                true,
+                message,
+                slice.content(),
+                null,
+                slice.cursor(),
                 Instant.now().toString()
         );
     }
@@ -38,6 +54,7 @@ public record PaginatedIncomeResponseDTO<T>(
                 message,
                 null,
                 null,
+                null,
                 Instant.now().toString()
         );
     }
@@ -16,7 +16,8 @@ import java.util.UUID;
 @Getter
 @Document(collection = "balances")
 @CompoundIndexes({
-        @CompoundIndex(name = "userId_calculatedAt", def = "{'userId': 1, 'calculatedAt': -1}")
+        @CompoundIndex(name = "userId_calculatedAt_id", def = "{'userId': 1, 'calculatedAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_totalsVersion_calculatedAt", def = "{'userId': 1, 'totalsVersion': -1, 'calculatedAt': -1}")
 })
 public class Balance {
     @Id
@@ -27,21 +28,25 @@ public class Balance {
     private BigDecimal totalExpense;
     private BigDecimal currentBalance;
     private Instant calculatedAt;
+    private Long totalsVersion;
     @CreatedDate
     private Instant createdAt;
 
     public Balance() {
-        this.id = UUID.randomUUID();
         this.calculatedAt = Instant.now();
         this.createdAt = Instant.now();
     }
 
     public Balance(UUID userId, BigDecimal totalIncome, BigDecimal totalExpense) {
-        this.id = UUID.randomUUID();
         this.userId = userId;
         this.totalIncome = totalIncome;
         this.totalExpense = totalExpense;
         this.currentBalance = totalIncome.subtract(totalExpense);
         this.calculatedAt = Instant.now();
     }
+
+    public Balance(BalanceTotals totals) {
+        this(totals.getUserId(), totals.getTotalIncome(), totals.getTotalExpense());
+        this.totalsVersion = totals.getVersion();
+    }
 }
\ No newline at end of file
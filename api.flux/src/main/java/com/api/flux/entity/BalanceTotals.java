@@ -0,0 +1,39 @@
+package com.api.flux.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Setter
+@Getter
+@Document(collection = "balance_totals")
+public class BalanceTotals {
+    @Id
+    private UUID userId;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal totalIncome;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal totalExpense;
+
+    private long version;
+    private Instant updatedAt;
+    private Instant reconciledAt;
+
+    public BalanceTotals() {}
+
+    public BalanceTotals(UUID userId, BigDecimal totalIncome, BigDecimal totalExpense) {
+        this.userId = userId;
+        this.totalIncome = totalIncome;
+        this.totalExpense = totalExpense;
+        this.updatedAt = Instant.now();
+    }
+}
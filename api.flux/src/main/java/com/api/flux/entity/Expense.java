@@ -4,7 +4,11 @@ import com.api.flux.enums.ExpenseCategory;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -13,6 +17,13 @@ import java.util.UUID;
 @Setter
 @Getter
 @Document(collection = "expenses")
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_transactionDate_id", def = "{'userId': 1, 'transactionDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_amount_id", def = "{'userId': 1, 'amount': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_title_id", def = "{'userId': 1, 'title': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_category_id", def = "{'userId': 1, 'category': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_category_transactionDate", def = "{'userId': 1, 'category': 1, 'transactionDate': -1}")
+})
 public class Expense {
     @Id
     private UUID id;
@@ -21,11 +32,11 @@ public class Expense {
     private String title;
     private String description;
     private ExpenseCategory category;
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal amount;
     private Instant transactionDate;
 
     public Expense() {
-        this.id = UUID.randomUUID();
         this.transactionDate = Instant.now();
     }
 
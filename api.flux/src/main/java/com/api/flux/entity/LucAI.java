@@ -5,6 +5,7 @@ import lombok.Setter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -20,10 +21,18 @@ public class LucAI {
     @Id
     private UUID id;
 
+    @Indexed(name = "userId_unique", unique = true)
     private UUID userId;
     private List<LucAIPrompt> conversationHistory;
     private Map<String, Object> longTermContext;
 
+    private String conversationSummary;
+    private Instant summarizedThrough;
+    private int summarizedLegacyTurns;
+    private Instant summaryUpdatedAt;
+    private UUID summaryClaimId;
+    private Instant summaryClaimExpiresAt;
+
     @CreatedDate
     private Instant createdAt;
 
@@ -31,13 +40,11 @@ public class LucAI {
     private Instant updatedAt;
 
     public LucAI() {
-        this.id = UUID.randomUUID();
         this.createdAt = Instant.now();
         this.updatedAt = Instant.now();
     }
 
     public LucAI(UUID userId, List<LucAIPrompt> conversationHistory, Map<String, Object> longTermContext) {
-        this.id = UUID.randomUUID();
         this.userId = userId;
         this.conversationHistory = conversationHistory;
         this.longTermContext = longTermContext;
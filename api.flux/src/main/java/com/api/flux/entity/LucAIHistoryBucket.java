@@ -0,0 +1,34 @@
+package com.api.flux.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Setter
+@Getter
+@Document(collection = "lucai_history_buckets")
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_seq_unique", def = "{'userId': 1, 'seq': 1}", unique = true,
+                partialFilter = "{'seq': {'$exists': true}}"),
+        @CompoundIndex(name = "userId_seq_lastTurnAt", def = "{'userId': 1, 'seq': -1, 'lastTurnAt': -1}")
+})
+public class LucAIHistoryBucket {
+    @Id
+    private UUID id;
+
+    private UUID userId;
+    private Long seq;
+    private int count;
+    private List<LucAIPrompt> turns;
+    private Instant firstTurnAt;
+    private Instant lastTurnAt;
+
+    public LucAIHistoryBucket() {}
+}
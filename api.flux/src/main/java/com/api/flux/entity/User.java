@@ -3,6 +3,7 @@ package com.api.flux.entity;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -18,16 +19,16 @@ public class User {
     private String name;
     private String lastName;
     private LocalDate dateOfBirth;
+    @Indexed(name = "email_ci", unique = true, collation = "{ 'locale': 'en', 'strength': 2 }")
     private String email;
     private String password;
     private String profileImageUrl;
+    private long tokenVersion;
 
     public User() {
-        this.id = UUID.randomUUID();
     }
 
     public User(String name, String lastName, LocalDate dateOfBirth, String email, String password, String profileImageUrl) {
-        this.id = UUID.randomUUID();
         this.name = name;
         this.lastName = lastName;
         this.dateOfBirth = dateOfBirth;
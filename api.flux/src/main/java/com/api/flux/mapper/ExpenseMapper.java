@@ -1,5 +1,6 @@
 package com.api.flux.mapper;
 
+import com.api.flux.dto.response.balance.TransactionLineDTO;
 import com.api.flux.dto.response.expense.DataExpenseResponseDTO;
 import com.api.flux.entity.Expense;
 
@@ -17,4 +18,17 @@ public final class ExpenseMapper {
                 expense.getTransactionDate()
         );
     }
+
+    public static TransactionLineDTO toTransactionLine(Expense expense) {
+        return new TransactionLineDTO(
+                "expense",
+                expense.getId(),
+                expense.getUserId(),
+                expense.getTitle(),
+                expense.getDescription(),
+                expense.getCategory() != null ? expense.getCategory().name() : null,
+                expense.getAmount(),
+                expense.getTransactionDate()
+        );
+    }
 }
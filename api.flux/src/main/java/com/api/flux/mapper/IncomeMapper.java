@@ -1,5 +1,6 @@
 package com.api.flux.mapper;
 
+import com.api.flux.dto.response.balance.TransactionLineDTO;
 import com.api.flux.dto.response.income.DataIncomeResponseDTO;
 import com.api.flux.entity.Income;
 
@@ -17,4 +18,17 @@ public final class IncomeMapper {
                 income.getTransactionDate()
         );
     }
+
+    public static TransactionLineDTO toTransactionLine(Income income) {
+        return new TransactionLineDTO(
+                "income",
+                income.getId(),
+                income.getUserId(),
+                income.getTitle(),
+                income.getDescription(),
+                income.getCategory() != null ? income.getCategory().name() : null,
+                income.getAmount(),
+                income.getTransactionDate()
+        );
+    }
 }
@@ -11,8 +11,8 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface BalanceRepository extends MongoRepository<Balance, UUID> {
-    Optional<Balance> findFirstByUserIdOrderByCalculatedAtDesc(UUID userId);
+public interface BalanceRepository extends MongoRepository<Balance, UUID>, BalanceRepositoryCustom {
+    Optional<Balance> findFirstByUserIdOrderByTotalsVersionDescCalculatedAtDesc(UUID userId);
 
     Page<Balance> findByUserIdOrderByCalculatedAtDesc(UUID userId, Pageable pageable);
 
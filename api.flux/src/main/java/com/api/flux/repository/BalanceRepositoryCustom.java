@@ -0,0 +1,12 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.Balance;
+import com.api.flux.utils.CursorSlice;
+import com.api.flux.utils.KeysetCursor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface BalanceRepositoryCustom {
+    CursorSlice<Balance> findSliceByUserId(UUID userId, Instant startDate, Instant endDate, KeysetCursor after, int size);
+}
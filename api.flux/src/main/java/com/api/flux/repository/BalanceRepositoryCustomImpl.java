@@ -0,0 +1,35 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.Balance;
+import com.api.flux.utils.CursorSlice;
+import com.api.flux.utils.KeysetCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class BalanceRepositoryCustomImpl implements BalanceRepositoryCustom {
+    private static final String SORT_FIELD = "calculatedAt";
+
+    private final MongoTemplate mongoTemplate;
+
+    public BalanceRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public CursorSlice<Balance> findSliceByUserId(UUID userId, Instant startDate, Instant endDate, KeysetCursor after, int size) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (startDate != null && endDate != null) {
+            criteria = criteria.and(SORT_FIELD).gte(startDate).lte(endDate);
+        }
+
+        if (after != null && (!SORT_FIELD.equals(after.sortBy()) || after.direction() != Sort.Direction.DESC)) {
+            throw new IllegalArgumentException("Invalid pagination cursor");
+        }
+
+        return KeysetQueries.findSlice(mongoTemplate, Balance.class, criteria, SORT_FIELD, Sort.Direction.DESC, after, size);
+    }
+}
@@ -0,0 +1,11 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.BalanceTotals;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface BalanceTotalsRepository extends MongoRepository<BalanceTotals, UUID>, BalanceTotalsRepositoryCustom {
+}
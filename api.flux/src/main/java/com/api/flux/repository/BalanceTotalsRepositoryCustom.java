@@ -0,0 +1,12 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.BalanceTotals;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface BalanceTotalsRepositoryCustom {
+    BalanceTotals applyDelta(UUID userId, BigDecimal incomeDelta, BigDecimal expenseDelta);
+
+    BalanceTotals replaceTotals(UUID userId, BigDecimal totalIncome, BigDecimal totalExpense, Long expectedVersion);
+}
@@ -0,0 +1,53 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.BalanceTotals;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public class BalanceTotalsRepositoryCustomImpl implements BalanceTotalsRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public BalanceTotalsRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public BalanceTotals applyDelta(UUID userId, BigDecimal incomeDelta, BigDecimal expenseDelta) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        Update update = new Update()
+                .inc("totalIncome", new Decimal128(incomeDelta))
+                .inc("totalExpense", new Decimal128(expenseDelta))
+                .inc("version", 1)
+                .set("updatedAt", Instant.now());
+
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), BalanceTotals.class);
+    }
+
+    @Override
+    public BalanceTotals replaceTotals(UUID userId, BigDecimal totalIncome, BigDecimal totalExpense, Long expectedVersion) {
+        Criteria criteria = Criteria.where("_id").is(userId);
+        if (expectedVersion != null) {
+            criteria = criteria.and("version").is(expectedVersion);
+        }
+
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("totalIncome", new Decimal128(totalIncome))
+                .set("totalExpense", new Decimal128(totalExpense))
+                .inc("version", 1)
+                .set("updatedAt", now)
+                .set("reconciledAt", now);
+
+        return mongoTemplate.findAndModify(Query.query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true).upsert(expectedVersion == null), BalanceTotals.class);
+    }
+}
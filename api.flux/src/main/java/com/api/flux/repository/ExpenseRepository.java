@@ -8,15 +8,20 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ExpenseRepository extends MongoRepository<Expense, UUID> {
+public interface ExpenseRepository extends MongoRepository<Expense, UUID>, ExpenseRepositoryCustom {
     Page<Expense> findByUserIdAndTransactionDateBetween(UUID userId, LocalDate startDate, LocalDate endDate, Pageable pageable);
 
+    Optional<Expense> findByIdAndUserId(UUID id, UUID userId);
+
     Page<Expense> findByUserId(UUID userId, Pageable pageable);
 
     List<Expense> findByUserId(UUID userId);
 
+    List<Expense> findByUserIdOrderByTransactionDateDesc(UUID userId, Pageable pageable);
+
     void deleteByUserId(UUID userId);
 }
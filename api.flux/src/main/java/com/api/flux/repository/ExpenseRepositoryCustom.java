@@ -0,0 +1,35 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.Expense;
+import com.api.flux.enums.ExpenseCategory;
+import com.api.flux.utils.CursorSlice;
+import com.api.flux.utils.KeysetCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface ExpenseRepositoryCustom {
+    BigDecimal sumAmountByUserId(UUID userId);
+
+    Expense findAndUpdateByIdAndUserId(UUID id, UUID userId, Update update);
+
+    Expense findAndRemoveByIdAndUserId(UUID id, UUID userId);
+
+    Set<Integer> insertUnordered(List<Expense> expenses);
+
+    Stream<Expense> streamByUserId(UUID userId, Instant startDate, Instant endDate, ExpenseCategory category);
+
+    Map<ExpenseCategory, BigDecimal> sumAmountByCategory(UUID userId, Instant startDate, Instant endDate);
+
+    List<Expense> searchByText(UUID userId, String text, int limit);
+
+    CursorSlice<Expense> findSliceByUserId(UUID userId, Instant startDate, Instant endDate,
+                                          String sortBy, Sort.Direction direction, KeysetCursor after, int size);
+}
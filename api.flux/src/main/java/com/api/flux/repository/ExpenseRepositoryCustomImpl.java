@@ -0,0 +1,158 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.Expense;
+import com.api.flux.enums.ExpenseCategory;
+import com.api.flux.utils.CursorSlice;
+import com.api.flux.utils.KeysetCursor;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ExpenseRepositoryCustomImpl implements ExpenseRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public ExpenseRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public BigDecimal sumAmountByUserId(UUID userId) {
+        TypedAggregation<Expense> aggregation = Aggregation.newAggregation(Expense.class,
+                Aggregation.match(Criteria.where("userId").is(userId)),
+                Aggregation.group().sum(ConvertOperators.valueOf("amount").convertToDecimal()).as("total")
+        );
+
+        Document result = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+        return toBigDecimal(result);
+    }
+
+    @Override
+    public Expense findAndUpdateByIdAndUserId(UUID id, UUID userId, Update update) {
+        return mongoTemplate.findAndModify(ownedBy(id, userId), update, Expense.class);
+    }
+
+    @Override
+    public Expense findAndRemoveByIdAndUserId(UUID id, UUID userId) {
+        return mongoTemplate.findAndRemove(ownedBy(id, userId), Expense.class);
+    }
+
+    @Override
+    public Set<Integer> insertUnordered(List<Expense> expenses) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class)
+                    .insert(expenses)
+                    .execute();
+            return Set.of();
+        } catch (BulkOperationException bulkOperationException) {
+            return bulkOperationException.getErrors().stream()
+                    .map(BulkWriteError::getIndex)
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    @Override
+    public Stream<Expense> streamByUserId(UUID userId, Instant startDate, Instant endDate, ExpenseCategory category) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+
+        if (category != null) {
+            criteria = criteria.and("category").is(category);
+        }
+
+        if (startDate != null && endDate != null) {
+            criteria = criteria.and("transactionDate").gte(startDate).lte(endDate);
+        } else if (startDate != null) {
+            criteria = criteria.and("transactionDate").gte(startDate);
+        } else if (endDate != null) {
+            criteria = criteria.and("transactionDate").lte(endDate);
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "transactionDate"))
+                .allowDiskUse(true);
+
+        return mongoTemplate.stream(query, Expense.class);
+    }
+
+    @Override
+    public Map<ExpenseCategory, BigDecimal> sumAmountByCategory(UUID userId, Instant startDate, Instant endDate) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (startDate != null) {
+            criteria = criteria.and("transactionDate").gte(startDate).lt(endDate != null ? endDate : Instant.now());
+        }
+
+        TypedAggregation<Expense> aggregation = Aggregation.newAggregation(Expense.class,
+                Aggregation.match(criteria),
+                Aggregation.group("category").sum(ConvertOperators.valueOf("amount").convertToDecimal()).as("total")
+        );
+
+        Map<ExpenseCategory, BigDecimal> totals = new EnumMap<>(ExpenseCategory.class);
+        for (Document result : mongoTemplate.aggregate(aggregation, Document.class)) {
+            Object category = result.get("_id");
+            if (category != null) {
+                totals.put(ExpenseCategory.valueOf(category.toString()), toBigDecimal(result));
+            }
+        }
+        return totals;
+    }
+
+    @Override
+    public List<Expense> searchByText(UUID userId, String text, int limit) {
+        Pattern pattern = Pattern.compile(Pattern.quote(text), Pattern.CASE_INSENSITIVE);
+        Criteria criteria = Criteria.where("userId").is(userId)
+                .orOperator(Criteria.where("title").regex(pattern), Criteria.where("description").regex(pattern));
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "transactionDate"))
+                .limit(limit);
+
+        return mongoTemplate.find(query, Expense.class);
+    }
+
+    @Override
+    public CursorSlice<Expense> findSliceByUserId(UUID userId, Instant startDate, Instant endDate,
+                                                 String sortBy, Sort.Direction direction, KeysetCursor after, int size) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (startDate != null) {
+            criteria = criteria.and("transactionDate").gte(startDate).lte(endDate != null ? endDate : Instant.now());
+        }
+
+        return KeysetQueries.findSlice(mongoTemplate, Expense.class, criteria, sortBy, direction, after, size);
+    }
+
+    private static Query ownedBy(UUID id, UUID userId) {
+        return Query.query(Criteria.where("_id").is(id).and("userId").is(userId));
+    }
+
+    private static BigDecimal toBigDecimal(Document result) {
+        if (result == null || result.get("total") == null) {
+            return BigDecimal.ZERO;
+        }
+
+        Object total = result.get("total");
+        if (total instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        return new BigDecimal(total.toString());
+    }
+}
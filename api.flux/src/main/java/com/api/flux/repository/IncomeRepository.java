@@ -8,15 +8,20 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface IncomeRepository extends MongoRepository<Income, UUID> {
+public interface IncomeRepository extends MongoRepository<Income, UUID>, IncomeRepositoryCustom {
     Page<Income> findByUserIdAndTransactionDateBetween(UUID userId, LocalDate startDate, LocalDate endDate, Pageable pageable);
 
+    Optional<Income> findByIdAndUserId(UUID id, UUID userId);
+
     Page<Income> findByUserId(UUID userId, Pageable pageable);
 
     List<Income> findByUserId(UUID userId);
 
+    List<Income> findByUserIdOrderByTransactionDateDesc(UUID userId, Pageable pageable);
+
     void deleteByUserId(UUID userId);
 }
@@ -0,0 +1,35 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.Income;
+import com.api.flux.enums.IncomeCategory;
+import com.api.flux.utils.CursorSlice;
+import com.api.flux.utils.KeysetCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface IncomeRepositoryCustom {
+    BigDecimal sumAmountByUserId(UUID userId);
+
+    Income findAndUpdateByIdAndUserId(UUID id, UUID userId, Update update);
+
+    Income findAndRemoveByIdAndUserId(UUID id, UUID userId);
+
+    Set<Integer> insertUnordered(List<Income> incomes);
+
+    Stream<Income> streamByUserId(UUID userId, Instant startDate, Instant endDate, IncomeCategory category);
+
+    Map<IncomeCategory, BigDecimal> sumAmountByCategory(UUID userId, Instant startDate, Instant endDate);
+
+    List<Income> searchByText(UUID userId, String text, int limit);
+
+    CursorSlice<Income> findSliceByUserId(UUID userId, Instant startDate, Instant endDate,
+                                          String sortBy, Sort.Direction direction, KeysetCursor after, int size);
+}
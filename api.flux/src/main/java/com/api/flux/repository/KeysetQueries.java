@@ -0,0 +1,70 @@
+package com.api.flux.repository;
+
+import com.api.flux.utils.CursorInfo;
+import com.api.flux.utils.CursorSlice;
+import com.api.flux.utils.KeysetCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class KeysetQueries {
+    private static final String ID = "id";
+
+    private KeysetQueries() {}
+
+    static <T> CursorSlice<T> findSlice(MongoTemplate mongoTemplate, Class<T> type, Criteria criteria,
+                                        String sortBy, Sort.Direction direction, KeysetCursor after, int size) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(type);
+        MongoPersistentProperty sortProperty = entity.getRequiredPersistentProperty(sortBy);
+
+        Criteria filter = criteria;
+        if (after != null) {
+            filter = new Criteria().andOperator(criteria,
+                    seek(sortBy, direction, after.valueAs(sortProperty.getType()), after.id()));
+        }
+
+        Query query = Query.query(filter)
+                .with(Sort.by(direction, sortBy, ID))
+                .limit(size + 1);
+
+        List<T> results = new ArrayList<>(mongoTemplate.find(query, type));
+        boolean hasNext = results.size() > size;
+        if (hasNext) {
+            results.subList(size, results.size()).clear();
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            PersistentPropertyAccessor<T> accessor = entity.getPropertyAccessor(results.get(results.size() - 1));
+            UUID lastId = (UUID) accessor.getProperty(entity.getRequiredIdProperty());
+            nextCursor = KeysetCursor.of(sortBy, direction, lastId, accessor.getProperty(sortProperty)).encode();
+        }
+
+        return new CursorSlice<>(results, new CursorInfo(size, results.size(), hasNext, nextCursor));
+    }
+
+    private static Criteria seek(String sortBy, Sort.Direction direction, Object value, UUID id) {
+        boolean ascending = direction.isAscending();
+        Criteria sameValue = Criteria.where(sortBy).is(value);
+        sameValue = ascending ? sameValue.and(ID).gt(id) : sameValue.and(ID).lt(id);
+
+        if (value == null) {
+            return ascending ? new Criteria().orOperator(sameValue, Criteria.where(sortBy).ne(null)) : sameValue;
+        }
+
+        Criteria beyondValue = ascending ? Criteria.where(sortBy).gt(value) : Criteria.where(sortBy).lt(value);
+        if (ascending) {
+            return new Criteria().orOperator(beyondValue, sameValue);
+        }
+        return new Criteria().orOperator(beyondValue, sameValue, Criteria.where(sortBy).is(null));
+    }
+}
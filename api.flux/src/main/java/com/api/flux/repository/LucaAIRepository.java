@@ -6,6 +6,6 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface LucaAIRepository extends MongoRepository<LucAI, UUID> {
+public interface LucaAIRepository extends MongoRepository<LucAI, UUID>, LucaAIRepositoryCustom {
     Optional<LucAI> findByUserId(UUID userId);
 }
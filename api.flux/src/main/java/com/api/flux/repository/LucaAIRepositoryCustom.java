@@ -0,0 +1,29 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.LucAI;
+import com.api.flux.entity.LucAIPrompt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface LucaAIRepositoryCustom {
+    Optional<LucAI> findHeaderByUserId(UUID userId);
+
+    List<LucAIPrompt> findRecentTurns(UUID userId, int limit);
+
+    void appendTurn(UUID userId, LucAIPrompt turn, int bucketSize);
+
+    List<LucAI> findSummaryCandidates(UUID afterId, int limit);
+
+    List<LucAIPrompt> findLegacyTurns(UUID userId, int skip, int limit);
+
+    List<LucAIPrompt> findTurnsAfter(UUID userId, Instant after, int limit);
+
+    boolean claimSummary(UUID userId, Instant observedSummaryUpdatedAt, UUID claimId, Instant now, Duration lease);
+
+    boolean saveSummary(UUID userId, UUID claimId, String summary, Instant summarizedThrough, int summarizedLegacyTurns,
+                        Instant checkedAt);
+}
@@ -0,0 +1,237 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.LucAI;
+import com.api.flux.entity.LucAIHistoryBucket;
+import com.api.flux.entity.LucAIPrompt;
+import com.api.flux.utils.IdGenerator;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class LucaAIRepositoryCustomImpl implements LucaAIRepositoryCustom {
+    private static final int MAX_APPEND_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final IdGenerator idGenerator;
+
+    public LucaAIRepositoryCustomImpl(MongoTemplate mongoTemplate, IdGenerator idGenerator) {
+        this.mongoTemplate = mongoTemplate;
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public Optional<LucAI> findHeaderByUserId(UUID userId) {
+        Query query = Query.query(Criteria.where("userId").is(userId));
+        query.fields().exclude("conversationHistory");
+
+        return Optional.ofNullable(mongoTemplate.findOne(query, LucAI.class));
+    }
+
+    @Override
+    public List<LucAIPrompt> findRecentTurns(UUID userId, int limit) {
+        List<LucAIPrompt> recentTurns = new ArrayList<>();
+        if (limit <= 0) {
+            return recentTurns;
+        }
+
+        Query bucketQuery = Query.query(Criteria.where("userId").is(userId))
+                .with(Sort.by(Sort.Direction.DESC, "seq", "lastTurnAt"))
+                .limit(limit);
+
+        try (Stream<LucAIHistoryBucket> buckets = mongoTemplate.stream(bucketQuery, LucAIHistoryBucket.class)) {
+            Iterator<LucAIHistoryBucket> iterator = buckets.iterator();
+            while (recentTurns.size() < limit && iterator.hasNext()) {
+                addNewestFirst(recentTurns, iterator.next().getTurns(), limit);
+            }
+        }
+
+        if (recentTurns.size() < limit) {
+            Query legacyQuery = Query.query(Criteria.where("userId").is(userId));
+            legacyQuery.fields().include("conversationHistory")
+                    .slice("conversationHistory", -(limit - recentTurns.size()));
+
+            LucAI legacy = mongoTemplate.findOne(legacyQuery, LucAI.class);
+            if (legacy != null) {
+                addNewestFirst(recentTurns, legacy.getConversationHistory(), limit);
+            }
+        }
+
+        Collections.reverse(recentTurns);
+        return recentTurns;
+    }
+
+    @Override
+    public void appendTurn(UUID userId, LucAIPrompt turn, int bucketSize) {
+        Update bucketUpdate = new Update()
+                .push("turns", turn)
+                .inc("count", 1)
+                .min("firstTurnAt", turn.getTimestamp())
+                .max("lastTurnAt", turn.getTimestamp())
+                .setOnInsert("_id", idGenerator.next());
+
+        long seq = nextOpenSeq(userId, bucketSize);
+        for (int attempt = 1; ; attempt++) {
+            Query bucketQuery = Query.query(Criteria.where("userId").is(userId)
+                    .and("seq").is(seq)
+                    .and("count").lt(bucketSize));
+            try {
+                mongoTemplate.upsert(bucketQuery, bucketUpdate, LucAIHistoryBucket.class);
+                break;
+            } catch (DuplicateKeyException exception) {
+                // Bucket seq filled up or was opened by a concurrent append; userId_seq_unique keeps a single open bucket.
+                if (attempt >= MAX_APPEND_ATTEMPTS) {
+                    throw exception;
+                }
+                seq = nextOpenSeq(userId, bucketSize);
+            }
+        }
+
+        Instant now = Instant.now();
+        Update headerUpdate = new Update()
+                .set("updatedAt", now)
+                .setOnInsert("_id", idGenerator.next())
+                .setOnInsert("createdAt", now);
+        Query headerQuery = Query.query(Criteria.where("userId").is(userId));
+
+        try {
+            mongoTemplate.upsert(headerQuery, headerUpdate, LucAI.class);
+        } catch (DuplicateKeyException exception) {
+            mongoTemplate.upsert(headerQuery, headerUpdate, LucAI.class);
+        }
+    }
+
+    private long nextOpenSeq(UUID userId, int bucketSize) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("seq").exists(true))
+                .with(Sort.by(Sort.Direction.DESC, "seq"));
+        query.fields().include("seq", "count");
+
+        LucAIHistoryBucket latest = mongoTemplate.findOne(query, LucAIHistoryBucket.class);
+        if (latest == null) {
+            return 0;
+        }
+        return latest.getCount() < bucketSize ? latest.getSeq() : latest.getSeq() + 1;
+    }
+
+    @Override
+    public List<LucAI> findSummaryCandidates(UUID afterId, int limit) {
+        Criteria pending = new Criteria().orOperator(
+                Criteria.where("summaryUpdatedAt").exists(false),
+                Criteria.expr(ComparisonOperators.valueOf("updatedAt").greaterThan("summaryUpdatedAt"))
+        );
+
+        Criteria criteria = afterId == null
+                ? pending
+                : new Criteria().andOperator(Criteria.where("_id").gt(afterId), pending);
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(limit);
+        query.fields().exclude("conversationHistory");
+
+        return mongoTemplate.find(query, LucAI.class);
+    }
+
+    @Override
+    public List<LucAIPrompt> findLegacyTurns(UUID userId, int skip, int limit) {
+        Query query = Query.query(Criteria.where("userId").is(userId));
+        query.fields().include("conversationHistory").slice("conversationHistory", skip, limit);
+
+        LucAI legacy = mongoTemplate.findOne(query, LucAI.class);
+        if (legacy == null || legacy.getConversationHistory() == null) {
+            return new ArrayList<>();
+        }
+        return legacy.getConversationHistory();
+    }
+
+    @Override
+    public List<LucAIPrompt> findTurnsAfter(UUID userId, Instant after, int limit) {
+        List<LucAIPrompt> turns = new ArrayList<>();
+        if (limit <= 0) {
+            return turns;
+        }
+
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (after != null) {
+            criteria = criteria.and("lastTurnAt").gt(after);
+        }
+
+        Query query = Query.query(criteria).with(Sort.by(Sort.Direction.ASC, "seq", "lastTurnAt"));
+
+        try (Stream<LucAIHistoryBucket> buckets = mongoTemplate.stream(query, LucAIHistoryBucket.class)) {
+            Iterator<LucAIHistoryBucket> iterator = buckets.iterator();
+            while (turns.size() < limit && iterator.hasNext()) {
+                List<LucAIPrompt> bucketTurns = iterator.next().getTurns();
+                if (bucketTurns == null) {
+                    continue;
+                }
+
+                for (LucAIPrompt turn : bucketTurns) {
+                    if (turns.size() >= limit) {
+                        break;
+                    }
+                    if (after == null || turn.getTimestamp().isAfter(after)) {
+                        turns.add(turn);
+                    }
+                }
+            }
+        }
+
+        return turns;
+    }
+
+    @Override
+    public boolean claimSummary(UUID userId, Instant observedSummaryUpdatedAt, UUID claimId, Instant now, Duration lease) {
+        Query query = Query.query(new Criteria().andOperator(
+                Criteria.where("userId").is(userId),
+                Criteria.where("summaryUpdatedAt").is(observedSummaryUpdatedAt),
+                new Criteria().orOperator(
+                        Criteria.where("summaryClaimExpiresAt").exists(false),
+                        Criteria.where("summaryClaimExpiresAt").lt(now)
+                )
+        ));
+        Update update = new Update()
+                .set("summaryClaimId", claimId)
+                .set("summaryClaimExpiresAt", now.plus(lease));
+
+        return mongoTemplate.updateFirst(query, update, LucAI.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public boolean saveSummary(UUID userId, UUID claimId, String summary, Instant summarizedThrough,
+                               int summarizedLegacyTurns, Instant checkedAt) {
+        Update update = new Update()
+                .set("conversationSummary", summary)
+                .set("summarizedThrough", summarizedThrough)
+                .set("summarizedLegacyTurns", summarizedLegacyTurns)
+                .set("summaryUpdatedAt", checkedAt)
+                .unset("summaryClaimId")
+                .unset("summaryClaimExpiresAt");
+
+        Query query = Query.query(Criteria.where("userId").is(userId).and("summaryClaimId").is(claimId));
+        return mongoTemplate.updateFirst(query, update, LucAI.class).getModifiedCount() > 0;
+    }
+
+    private static void addNewestFirst(List<LucAIPrompt> target, List<LucAIPrompt> turns, int limit) {
+        if (turns == null) {
+            return;
+        }
+
+        for (int i = turns.size() - 1; i >= 0 && target.size() < limit; i--) {
+            target.add(turns.get(i));
+        }
+    }
+}
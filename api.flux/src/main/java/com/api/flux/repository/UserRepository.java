@@ -1,6 +1,7 @@
 package com.api.flux.repository;
 
 import com.api.flux.entity.User;
+import org.springframework.data.mongodb.core.annotation.Collation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,7 +9,12 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, UUID> {
+public interface UserRepository extends MongoRepository<User, UUID>, UserRepositoryCustom {
+    String EMAIL_COLLATION = "{ 'locale': 'en', 'strength': 2 }";
+
+    @Collation(EMAIL_COLLATION)
     Optional<User> findByEmail(String email);
+
+    @Collation(EMAIL_COLLATION)
     Boolean existsByEmail(String email);
 }
@@ -0,0 +1,7 @@
+package com.api.flux.repository;
+
+import java.util.UUID;
+
+public interface UserRepositoryCustom {
+    boolean incrementTokenVersion(UUID userId, long expectedVersion);
+}
@@ -0,0 +1,24 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.User;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.UUID;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public UserRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Only bumps a version the caller has seen, so a token that is already revoked cannot revoke newer sessions.
+    @Override
+    public boolean incrementTokenVersion(UUID userId, long expectedVersion) {
+        Query query = Query.query(Criteria.where("_id").is(userId).and("tokenVersion").is(expectedVersion));
+        return mongoTemplate.updateFirst(query, new Update().inc("tokenVersion", 1), User.class).getModifiedCount() > 0;
+    }
+}
@@ -6,13 +6,27 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 public class CustomUserDetails implements UserDetails {
     private final User user;
+    private final List<GrantedAuthority> authorities;
 
     public CustomUserDetails(User user) {
+        this(user, Collections.emptyList());
+    }
+
+    public CustomUserDetails(User user, List<GrantedAuthority> authorities) {
         this.user = user;
+        this.authorities = authorities;
+    }
+
+    public static CustomUserDetails fromClaims(UUID id, String email, List<GrantedAuthority> authorities) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return new CustomUserDetails(user, authorities);
     }
 
     public UUID getId() {
@@ -31,7 +45,7 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.emptyList();
+        return authorities;
     }
 
     @Override
@@ -0,0 +1,139 @@
+package com.api.flux.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+@Component
+public class JwtKeyRing {
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    public static final String DEFAULT_KEY_ID = "default";
+    public static final String ISSUER = "flux";
+
+    private final String defaultSecret;
+    private final Path keysFile;
+    private volatile KeySet keySet;
+    private volatile FileTime keysFileModifiedAt;
+
+    public JwtKeyRing(@Value("${auth.token}") String defaultSecret,
+                      @Value("${auth.keys:}") String configuredKeys,
+                      @Value("${auth.active-key-id:}") String activeKeyId,
+                      @Value("${auth.keys.file:}") String keysFile) {
+        this.defaultSecret = defaultSecret;
+        this.keysFile = keysFile.isBlank() ? null : Path.of(keysFile);
+
+        if (this.keysFile != null && Files.exists(this.keysFile)) {
+            reloadKeysFile();
+        } else {
+            rotate(parseKeys(configuredKeys), activeKeyId);
+        }
+    }
+
+    // Signers must read the key id and algorithm from one snapshot; separate reads can straddle a rotation and
+    // label a token with a key id it was not signed with.
+    public KeySet current() {
+        return keySet;
+    }
+
+    public JWTVerifier verifierFor(String keyId) {
+        KeySet current = keySet;
+        return current.verifiers().get(keyId == null ? DEFAULT_KEY_ID : keyId);
+    }
+
+    public void rotate(Map<String, String> secrets, String activeKeyId) {
+        Map<String, String> allSecrets = new LinkedHashMap<>(secrets);
+        if (defaultSecret != null && !defaultSecret.isBlank()) {
+            allSecrets.putIfAbsent(DEFAULT_KEY_ID, defaultSecret);
+        }
+
+        if (allSecrets.isEmpty()) {
+            throw new IllegalStateException("At least one JWT signing key must be configured");
+        }
+
+        String active = activeKeyId == null || activeKeyId.isBlank() ? DEFAULT_KEY_ID : activeKeyId;
+        if (!allSecrets.containsKey(active)) {
+            throw new IllegalStateException("Active JWT key id '" + active + "' is not configured");
+        }
+
+        Map<String, JWTVerifier> verifiers = new LinkedHashMap<>();
+        Map<String, Algorithm> algorithms = new LinkedHashMap<>();
+        allSecrets.forEach((keyId, secret) -> {
+            Algorithm algorithm = Algorithm.HMAC256(secret);
+            algorithms.put(keyId, algorithm);
+            verifiers.put(keyId, JWT.require(algorithm).withIssuer(ISSUER).build());
+        });
+
+        this.keySet = new KeySet(active, algorithms.get(active), Collections.unmodifiableMap(verifiers));
+        logger.info("JWT key ring loaded with {} key(s), active key id '{}'", verifiers.size(), active);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.keys.reload-interval:PT1M}")
+    public void reloadKeysFileIfChanged() {
+        if (keysFile == null || !Files.exists(keysFile)) {
+            return;
+        }
+
+        try {
+            FileTime modifiedAt = Files.getLastModifiedTime(keysFile);
+            if (!modifiedAt.equals(keysFileModifiedAt)) {
+                reloadKeysFile();
+            }
+        } catch (Exception exception) {
+            logger.error("Error reloading JWT keys from {}, keeping current keys: ", keysFile, exception);
+        }
+    }
+
+    private void reloadKeysFile() {
+        try (InputStream inputStream = Files.newInputStream(keysFile)) {
+            FileTime modifiedAt = Files.getLastModifiedTime(keysFile);
+            Properties properties = new Properties();
+            properties.load(inputStream);
+
+            Map<String, String> secrets = new LinkedHashMap<>();
+            properties.stringPropertyNames().stream()
+                    .filter(name -> name.startsWith("key."))
+                    .sorted()
+                    .forEach(name -> secrets.put(name.substring(4), properties.getProperty(name)));
+
+            rotate(secrets, properties.getProperty("active"));
+            keysFileModifiedAt = modifiedAt;
+        } catch (IOException exception) {
+            throw new IllegalStateException("Unable to read JWT keys file " + keysFile, exception);
+        }
+    }
+
+    private static Map<String, String> parseKeys(String configuredKeys) {
+        Map<String, String> secrets = new LinkedHashMap<>();
+        if (configuredKeys == null || configuredKeys.isBlank()) {
+            return secrets;
+        }
+
+        for (String entry : configuredKeys.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator <= 0 || separator == entry.length() - 1) {
+                throw new IllegalStateException("Invalid JWT key entry, expected <keyId>:<secret>");
+            }
+            secrets.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+        }
+        return secrets;
+    }
+
+    public record KeySet(String activeKeyId, Algorithm signingAlgorithm, Map<String, JWTVerifier> verifiers) {
+    }
+}
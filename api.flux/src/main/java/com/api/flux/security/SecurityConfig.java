@@ -52,6 +52,7 @@ public class SecurityConfig {
                         .requestMatchers(
                                 "/v1/auth/**"
                         ).permitAll()
+                        .requestMatchers("/v1/metrics/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -1,5 +1,7 @@
 package com.api.flux.security;
 
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,16 +10,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
@@ -27,13 +34,21 @@ public class SecurityFilter extends OncePerRequestFilter {
     private static final List<String> SKIP_FILTER_URLS = Arrays.asList(
             "/v1/auth/**"
     );
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
 
     private final TokenService tokenService;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final TokenVersionCache tokenVersionCache;
+    private final Set<UUID> adminUserIds;
 
-    public SecurityFilter(TokenService tokenService, CustomUserDetailsService customUserDetailsService) {
+    public SecurityFilter(TokenService tokenService, TokenVersionCache tokenVersionCache,
+                          @Value("${security.admin-user-ids:}") String adminUserIds) {
         this.tokenService = tokenService;
-        this.customUserDetailsService = customUserDetailsService;
+        this.tokenVersionCache = tokenVersionCache;
+        this.adminUserIds = StringUtils.commaDelimitedListToSet(adminUserIds).stream()
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(UUID::fromString)
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     @Override
@@ -61,19 +76,22 @@ public class SecurityFilter extends OncePerRequestFilter {
 
         if (token != null && !token.trim().isEmpty()) {
             try {
-                String login = tokenService.validateToken(token);
+                DecodedJWT decodedJWT = tokenService.verifyToken(token);
+                String login = decodedJWT != null ? decodedJWT.getSubject() : null;
 
                 if (login != null && !login.trim().isEmpty()) {
-                    UserDetails userDetails = customUserDetailsService.loadUserByUsername(login);
+                    UserDetails userDetails = resolvePrincipal(decodedJWT);
 
-                    var authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
+                    if (userDetails != null) {
+                        var authentication = new UsernamePasswordAuthenticationToken(
+                                userDetails, null, userDetails.getAuthorities());
 
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    logger.debug("Authentication set for user: {}", login);
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        logger.debug("Authentication set for user: {}", login);
+                    } else {
+                        logger.warn("Rejected revoked token for user: {}", login);
+                    }
                 }
-            } catch (UsernameNotFoundException e) {
-                logger.warn("User not found for token: {}", e.getMessage());
             } catch (Exception e) {
                 logger.error("Error during token validation for URI: {}", requestURI, e);
             }
@@ -82,6 +100,31 @@ public class SecurityFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(DecodedJWT decodedJWT) {
+        Claim userIdClaim = decodedJWT.getClaim(TokenService.USER_ID_CLAIM);
+
+        if (userIdClaim.isMissing() || userIdClaim.isNull()) {
+            logger.warn("Rejected token without {} claim for user: {}", TokenService.USER_ID_CLAIM, decodedJWT.getSubject());
+            return null;
+        }
+
+        UUID userId = UUID.fromString(userIdClaim.asString());
+        Long claimedVersion = decodedJWT.getClaim(TokenService.TOKEN_VERSION_CLAIM).asLong();
+        long tokenVersion = claimedVersion != null ? claimedVersion : 0L;
+
+        Long currentVersion = tokenVersionCache.currentVersion(userId);
+        if (currentVersion != null && tokenVersion > currentVersion) {
+            currentVersion = tokenVersionCache.refresh(userId);
+        }
+
+        if (currentVersion == null || tokenVersion != currentVersion) {
+            return null;
+        }
+
+        return CustomUserDetails.fromClaims(userId, decodedJWT.getSubject(),
+                adminUserIds.contains(userId) ? ADMIN_AUTHORITIES : List.of());
+    }
+
     private boolean shouldSkipFilter(String requestURI) {
         boolean shouldSkip = SKIP_FILTER_URLS.stream()
                 .anyMatch(pattern -> pathMatcher.match(pattern, requestURI));
@@ -1,11 +1,10 @@
 package com.api.flux.security;
 
 import com.api.flux.entity.User;
-import com.api.flux.repository.UserRepository;
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.exceptions.JWTVerificationException;
-import org.springframework.beans.factory.annotation.Value;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -16,58 +15,64 @@ import java.util.UUID;
 
 @Service
 public class TokenService {
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
 
-    @Value("${auth.token}")
-    private String secretKey;
+    private final JwtKeyRing keyRing;
 
-    private final UserRepository userRepository;
-
-    public TokenService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public TokenService(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
     }
 
     public String generateToken(User user) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secretKey);
+            JwtKeyRing.KeySet keySet = keyRing.current();
             return JWT.create()
-                    .withIssuer("flux")
+                    .withKeyId(keySet.activeKeyId())
+                    .withIssuer(JwtKeyRing.ISSUER)
                     .withSubject(user.getEmail())
+                    .withClaim(USER_ID_CLAIM, user.getId().toString())
+                    .withClaim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
                     .withExpiresAt(generateExpirationDate())
-                    .sign(algorithm);
+                    .sign(keySet.signingAlgorithm());
         } catch (Exception e) {
             throw new RuntimeException("Error while generating token: " + e);
         }
     }
 
-    public String validateToken(String token) {
+    public DecodedJWT verifyToken(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secretKey);
-            return JWT.require(algorithm)
-                    .withIssuer("flux")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            DecodedJWT decodedJWT = JWT.decode(token);
+            JWTVerifier verifier = keyRing.verifierFor(decodedJWT.getKeyId());
+
+            if (verifier == null) {
+                return null;
+            }
+
+            return verifier.verify(decodedJWT);
         } catch (JWTVerificationException e) {
             return null;
         }
     }
 
+    public String validateToken(String token) {
+        DecodedJWT decodedJWT = verifyToken(token);
+        return decodedJWT != null ? decodedJWT.getSubject() : null;
+    }
+
     public Date generateExpirationDate() {
         return Date.from(LocalDateTime.now().plusHours(24).toInstant(ZoneOffset.UTC));
     }
 
     public UUID getAuthenticatedUserId() {
         try {
-            String email = (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
-            if (email == null) {
-                throw new IllegalStateException("Authenticated principal is null");
+            if (!(principal instanceof CustomUserDetails userDetails)) {
+                throw new IllegalStateException("Authenticated principal is not a Flux user");
             }
 
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new IllegalStateException("User not found for email: " + email));
-
-            return user.getId();
+            return userDetails.getId();
 
         } catch (Exception e) {
             throw new IllegalStateException("Unable to retrieve authenticated user ID", e);
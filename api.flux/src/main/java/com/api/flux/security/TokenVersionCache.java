@@ -0,0 +1,52 @@
+package com.api.flux.security;
+
+import com.api.flux.entity.User;
+import com.api.flux.repository.UserRepository;
+import com.api.flux.utils.BoundedTtlCache;
+import com.api.flux.utils.MetricsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class TokenVersionCache implements MetricsSource {
+    private final BoundedTtlCache<UUID, Long> cache;
+    private final UserRepository userRepository;
+
+    public TokenVersionCache(UserRepository userRepository,
+                             @Value("${security.token-version-cache.max-size:10000}") int maxSize,
+                             @Value("${security.token-version-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = new BoundedTtlCache<>(maxSize, ttl);
+    }
+
+    public Long currentVersion(UUID userId) {
+        return cache.getOrLoad(userId, id -> userRepository.findById(id)
+                .map(User::getTokenVersion)
+                .orElse(null));
+    }
+
+    public Long refresh(UUID userId) {
+        cache.invalidate(userId);
+        return currentVersion(userId);
+    }
+
+    public void evict(UUID userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "tokenVersionCache";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        return cache.stats();
+    }
+}
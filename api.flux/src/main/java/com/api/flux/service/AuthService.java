@@ -9,9 +9,11 @@ import com.api.flux.dto.response.user.DataUserDTO;
 import com.api.flux.entity.User;
 import com.api.flux.mapper.UserMapper;
 import com.api.flux.repository.UserRepository;
+import com.api.flux.security.TokenVersionCache;
 import com.api.flux.security.TokenService;
 import com.api.flux.utils.TextUtils;
 import com.api.flux.utils.ValidationUtils;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class AuthService {
@@ -28,11 +31,14 @@ public class AuthService {
     private final UserRepository userRepository;
     private final TokenService tokenService;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionCache tokenVersionCache;
 
-    public AuthService(UserRepository userRepository, TokenService tokenService, PasswordEncoder passwordEncoder) {
+    public AuthService(UserRepository userRepository, TokenService tokenService, PasswordEncoder passwordEncoder,
+                       TokenVersionCache tokenVersionCache) {
         this.userRepository = userRepository;
         this.tokenService = tokenService;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionCache = tokenVersionCache;
     }
 
     @Transactional
@@ -132,8 +138,20 @@ public class AuthService {
         }
     }
 
-    public ResponseEntity<LogoutAuthResponseDTO> logout() {
+    public ResponseEntity<LogoutAuthResponseDTO> logout(String authorization) {
         try {
+            if (authorization != null && authorization.startsWith("Bearer ") && authorization.length() > 7) {
+                DecodedJWT decodedJWT = tokenService.verifyToken(authorization.substring(7));
+                if (decodedJWT != null && !decodedJWT.getClaim(TokenService.USER_ID_CLAIM).isMissing()
+                        && !decodedJWT.getClaim(TokenService.TOKEN_VERSION_CLAIM).isMissing()) {
+                    UUID userId = UUID.fromString(decodedJWT.getClaim(TokenService.USER_ID_CLAIM).asString());
+                    if (userRepository.incrementTokenVersion(userId, decodedJWT.getClaim(TokenService.TOKEN_VERSION_CLAIM).asLong())) {
+                        logger.info("Revoked tokens of user {} on logout", userId);
+                    }
+                    tokenVersionCache.evict(userId);
+                }
+            }
+
             logger.info("User logged out successfully");
             return ResponseEntity.ok().body(LogoutAuthResponseDTO.success("User logged out successfully.", null));
         } catch (Exception e) {
@@ -0,0 +1,58 @@
+package com.api.flux.service;
+
+import com.api.flux.entity.BalanceTotals;
+import com.api.flux.repository.BalanceTotalsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class BalanceReconciliationService {
+    private static final Logger logger = LoggerFactory.getLogger(BalanceReconciliationService.class);
+
+    private final BalanceTotalsRepository balanceTotalsRepository;
+    private final BalanceService balanceService;
+
+    @Value("${balance.reconciliation.batch-size:100}")
+    private int batchSize;
+
+    public BalanceReconciliationService(BalanceTotalsRepository balanceTotalsRepository, BalanceService balanceService) {
+        this.balanceTotalsRepository = balanceTotalsRepository;
+        this.balanceService = balanceService;
+    }
+
+    @Scheduled(initialDelayString = "${balance.reconciliation.initial-delay:PT10M}",
+            fixedDelayString = "${balance.reconciliation.interval:PT6H}")
+    public void reconcileAllBalances() {
+        logger.info("Starting running balance reconciliation");
+
+        int checked = 0;
+        int failed = 0;
+        Pageable pageable = PageRequest.of(0, batchSize, Sort.by("_id"));
+        Page<BalanceTotals> totalsPage;
+
+        do {
+            totalsPage = balanceTotalsRepository.findAll(pageable);
+
+            for (BalanceTotals totals : totalsPage) {
+                try {
+                    balanceService.reconcileTotals(totals.getUserId());
+                    checked++;
+                } catch (Exception exception) {
+                    failed++;
+                    logger.error("Error reconciling balance for user {}: ", totals.getUserId(), exception);
+                }
+            }
+
+            pageable = totalsPage.nextPageable();
+        } while (totalsPage.hasNext());
+
+        logger.info("Running balance reconciliation finished: {} users checked, {} failed", checked, failed);
+    }
+}
@@ -2,47 +2,89 @@ package com.api.flux.service;
 
 import com.api.flux.dto.response.balance.*;
 import com.api.flux.entity.Balance;
+import com.api.flux.entity.BalanceTotals;
 import com.api.flux.entity.Expense;
 import com.api.flux.entity.Income;
+import com.api.flux.enums.ExpenseCategory;
+import com.api.flux.enums.IncomeCategory;
 import com.api.flux.mapper.BalanceMapper;
+import com.api.flux.mapper.ExpenseMapper;
+import com.api.flux.mapper.IncomeMapper;
 import com.api.flux.repository.BalanceRepository;
+import com.api.flux.repository.BalanceTotalsRepository;
 import com.api.flux.repository.ExpenseRepository;
 import com.api.flux.repository.IncomeRepository;
 import com.api.flux.repository.UserRepository;
+import com.api.flux.utils.CursorSlice;
+import com.api.flux.utils.KeysetCursor;
+import com.api.flux.utils.StripedLocks;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 @Service
 public class BalanceService {
     private static final Logger logger = LoggerFactory.getLogger(BalanceService.class);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     private final BalanceRepository balanceRepository;
+    private final BalanceTotalsRepository balanceTotalsRepository;
     private final IncomeRepository incomeRepository;
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
+    private final ObjectWriter lineWriter;
+    private final StripedLocks userLocks;
+    private final int maxReconcileAttempts;
 
     public BalanceService(BalanceRepository balanceRepository,
+                          BalanceTotalsRepository balanceTotalsRepository,
                           IncomeRepository incomeRepository,
                           ExpenseRepository expenseRepository,
-                          UserRepository userRepository) {
+                          UserRepository userRepository,
+                          ObjectMapper objectMapper,
+                          @Value("${balance.write-lock-stripes:64}") int writeLockStripes,
+                          @Value("${balance.reconciliation.max-attempts:3}") int maxReconcileAttempts) {
         this.balanceRepository = balanceRepository;
+        this.balanceTotalsRepository = balanceTotalsRepository;
         this.incomeRepository = incomeRepository;
         this.expenseRepository = expenseRepository;
         this.userRepository = userRepository;
+        this.lineWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        this.userLocks = new StripedLocks(writeLockStripes);
+        this.maxReconcileAttempts = maxReconcileAttempts;
+    }
+
+    // Writers hold this from the expense/income write through applyTransactionDelta so a reconcile
+    // cannot observe the new document before its delta lands. It only serializes writers on this node;
+    // cross-node interleavings are corrected by the scheduled BalanceReconciliationService.
+    public ReentrantLock writeLockFor(UUID userId) {
+        return userLocks.lockFor(userId);
     }
 
     public ResponseEntity<BalanceResponseDTO> getCurrentBalance(UUID authenticatedUserId) {
@@ -52,13 +94,23 @@ public class BalanceService {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(BalanceResponseDTO.userNotFound("User not found"));
             }
+        } catch (Exception exception) {
+            logger.error("Error retrieving current balance for user {}: ", authenticatedUserId, exception);
+            return ResponseEntity.internalServerError()
+                    .body(BalanceResponseDTO.error("Internal server error occurred while retrieving balance"));
+        }
 
+        return getCurrentBalanceOfExistingUser(authenticatedUserId);
+    }
+
+    public ResponseEntity<BalanceResponseDTO> getCurrentBalanceOfExistingUser(UUID authenticatedUserId) {
+        try {
             Optional<Balance> optionalBalance = balanceRepository
-                    .findFirstByUserIdOrderByCalculatedAtDesc(authenticatedUserId);
+                    .findFirstByUserIdOrderByTotalsVersionDescCalculatedAtDesc(authenticatedUserId);
 
             if (optionalBalance.isEmpty()) {
                 logger.info("No balance found for user {}, calculating new one", authenticatedUserId);
-                return calculateAndSaveBalance(authenticatedUserId);
+                return saveBalanceSnapshot(authenticatedUserId);
             }
 
             Balance balance = optionalBalance.get();
@@ -93,8 +145,46 @@ public class BalanceService {
         }
     }
 
+    public ResponseEntity<StreamingResponseBody> streamExpensesAndIncomeHistoryByUserId(
+            UUID authenticatedUserId, Instant startDate, Instant endDate,
+            ExpenseCategory expenseCategory, IncomeCategory incomeCategory) {
+        if (!userRepository.existsById(authenticatedUserId)) {
+            logger.warn("User not found with ID: {}, please check user ID.", authenticatedUserId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            logger.warn("Invalid date range: startDate is after endDate");
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter sequenceWriter = lineWriter.writeValues(outputStream)) {
+                try (Stream<Expense> expenses = expenseRepository
+                        .streamByUserId(authenticatedUserId, startDate, endDate, expenseCategory)) {
+                    for (Expense expense : (Iterable<Expense>) expenses::iterator) {
+                        sequenceWriter.write(ExpenseMapper.toTransactionLine(expense));
+                    }
+                }
+
+                try (Stream<Income> incomes = incomeRepository
+                        .streamByUserId(authenticatedUserId, startDate, endDate, incomeCategory)) {
+                    for (Income income : (Iterable<Income>) incomes::iterator) {
+                        sequenceWriter.write(IncomeMapper.toTransactionLine(income));
+                    }
+                }
+            } catch (Exception exception) {
+                logger.error("Error streaming expenses and incomes for user {}: ", authenticatedUserId, exception);
+                throw exception;
+            }
+        };
+
+        logger.info("Streaming expenses and incomes for user {}", authenticatedUserId);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
     public ResponseEntity<PaginatedBalanceResponseDTO<DataBalanceResponseDTO>> getBalanceHistory(
-            UUID authenticatedUserId, int page, int size) {
+            UUID authenticatedUserId, int page, int size, String cursor, boolean includeTotal) {
         try {
             if (!userRepository.existsById(authenticatedUserId)) {
                 logger.warn("User not found with ID: {}", authenticatedUserId);
@@ -105,6 +195,16 @@ public class BalanceService {
             if (page < 0) page = 0;
             if (size <= 0 || size > 100) size = 10;
 
+            if (cursor != null && !cursor.isBlank() || !includeTotal) {
+                KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+                CursorSlice<DataBalanceResponseDTO> slice = balanceRepository
+                        .findSliceByUserId(authenticatedUserId, null, null, after, size)
+                        .map(BalanceMapper::toDataDTO);
+
+                logger.info("Balance history retrieved for user {}", authenticatedUserId);
+                return ResponseEntity.ok(PaginatedBalanceResponseDTO.success("Balance history retrieved successfully", slice));
+            }
+
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "calculatedAt"));
             Page<Balance> balancesPage = balanceRepository.findByUserIdOrderByCalculatedAtDesc(authenticatedUserId, pageable);
 
@@ -113,6 +213,10 @@ public class BalanceService {
             logger.info("Balance history retrieved for user {}", authenticatedUserId);
             return ResponseEntity.ok(PaginatedBalanceResponseDTO.success("Balance history retrieved successfully", balanceDTOsPage));
 
+        } catch (IllegalArgumentException exception) {
+            logger.warn("Rejected balance history request for user {}: {}", authenticatedUserId, exception.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(PaginatedBalanceResponseDTO.error(exception.getMessage()));
         } catch (Exception exception) {
             logger.error("Error listing balance history for user {}: ", authenticatedUserId, exception);
             return ResponseEntity.internalServerError()
@@ -121,7 +225,8 @@ public class BalanceService {
     }
 
     public ResponseEntity<PaginatedBalanceResponseDTO<DataBalanceResponseDTO>> getBalanceHistoryByPeriod(
-            UUID authenticatedUserId, Instant startDate, Instant endDate, int page, int size) {
+            UUID authenticatedUserId, Instant startDate, Instant endDate, int page, int size,
+            String cursor, boolean includeTotal) {
         try {
             if (!userRepository.existsById(authenticatedUserId)) {
                 logger.warn("User not found with ID: {}", authenticatedUserId);
@@ -138,6 +243,16 @@ public class BalanceService {
             if (page < 0) page = 0;
             if (size <= 0 || size > 100) size = 10;
 
+            if (cursor != null && !cursor.isBlank() || !includeTotal) {
+                KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+                CursorSlice<DataBalanceResponseDTO> slice = balanceRepository
+                        .findSliceByUserId(authenticatedUserId, startDate, endDate, after, size)
+                        .map(BalanceMapper::toDataDTO);
+
+                logger.info("Balance history by period retrieved for user {}", authenticatedUserId);
+                return ResponseEntity.ok(PaginatedBalanceResponseDTO.success("Balance history retrieved successfully", slice));
+            }
+
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "calculatedAt"));
             Page<Balance> balancesPage = balanceRepository
                     .findByUserIdAndCalculatedAtBetweenOrderByCalculatedAtDesc(authenticatedUserId, startDate, endDate, pageable);
@@ -147,6 +262,10 @@ public class BalanceService {
             logger.info("Balance history by period retrieved for user {}", authenticatedUserId);
             return ResponseEntity.ok(PaginatedBalanceResponseDTO.success("Balance history retrieved successfully", balanceDTOsPage));
 
+        } catch (IllegalArgumentException exception) {
+            logger.warn("Rejected balance history request for user {}: {}", authenticatedUserId, exception.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(PaginatedBalanceResponseDTO.error(exception.getMessage()));
         } catch (Exception exception) {
             logger.error("Error listing balance history by period for user {}: ", authenticatedUserId, exception);
             return ResponseEntity.internalServerError()
@@ -162,19 +281,21 @@ public class BalanceService {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(BalanceResponseDTO.userNotFound("User not found"));
             }
+        } catch (Exception exception) {
+            logger.error("Error calculating balance for user {}: ", authenticatedUserId, exception);
+            return ResponseEntity.internalServerError()
+                    .body(BalanceResponseDTO.error("Internal server error occurred while calculating balance"));
+        }
 
-            BigDecimal totalIncome = incomeRepository.findByUserId(authenticatedUserId)
-                    .stream()
-                    .map(Income::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal totalExpense = expenseRepository.findByUserId(authenticatedUserId)
-                    .stream()
-                    .map(Expense::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return saveBalanceSnapshot(authenticatedUserId);
+    }
 
-            Balance balance = new Balance(authenticatedUserId, totalIncome, totalExpense);
-            Balance savedBalance = balanceRepository.save(balance);
+    private ResponseEntity<BalanceResponseDTO> saveBalanceSnapshot(UUID authenticatedUserId) {
+        ReentrantLock lock = userLocks.lockFor(authenticatedUserId);
+        lock.lock();
+        try {
+            BalanceTotals totals = reconcileTotals(authenticatedUserId);
+            Balance savedBalance = balanceRepository.save(new Balance(totals));
 
             DataBalanceResponseDTO dataBalanceResponseDTO = BalanceMapper.toDataDTO(savedBalance);
 
@@ -186,6 +307,8 @@ public class BalanceService {
             logger.error("Error calculating balance for user {}: ", authenticatedUserId, exception);
             return ResponseEntity.internalServerError()
                     .body(BalanceResponseDTO.error("Internal server error occurred while calculating balance"));
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -210,24 +333,87 @@ public class BalanceService {
     }
 
     @Transactional
-    public void recalculateBalanceAfterTransaction(UUID userId) {
+    public void applyTransactionDelta(UUID userId, BigDecimal incomeDelta, BigDecimal expenseDelta) {
+        ReentrantLock lock = userLocks.lockFor(userId);
+        lock.lock();
         try {
-            BigDecimal totalIncome = incomeRepository.findByUserId(userId)
-                    .stream()
-                    .map(Income::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            boolean amountsChanged = incomeDelta.signum() != 0 || expenseDelta.signum() != 0;
+            BalanceTotals totals = balanceTotalsRepository.applyDelta(userId, incomeDelta, expenseDelta);
+
+            if (!amountsChanged) {
+                return;
+            }
+
+            if (totals == null) {
+                logger.info("No running totals found for user {}, rebuilding from history", userId);
+                totals = reconcileTotals(userId);
+            }
 
-            BigDecimal totalExpense = expenseRepository.findByUserId(userId)
-                    .stream()
-                    .map(Expense::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            balanceRepository.save(new Balance(totals));
 
-            Balance balance = new Balance(userId, totalIncome, totalExpense);
-            balanceRepository.save(balance);
+            logger.info("Balance updated incrementally for user {} after transaction", userId);
+        } catch (Exception exception) {
+            logger.error("Error applying balance delta for user {}: ", userId, exception);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Transactional
+    public void recalculateBalanceAfterTransaction(UUID userId) {
+        ReentrantLock lock = userLocks.lockFor(userId);
+        lock.lock();
+        try {
+            BalanceTotals totals = reconcileTotals(userId);
+            balanceRepository.save(new Balance(totals));
 
             logger.info("Balance recalculated for user {} after transaction", userId);
         } catch (Exception exception) {
             logger.error("Error recalculating balance for user {}: ", userId, exception);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public BalanceTotals reconcileTotals(UUID userId) {
+        ReentrantLock lock = userLocks.lockFor(userId);
+        lock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                Optional<BalanceTotals> optionalTotals = balanceTotalsRepository.findById(userId);
+
+                BigDecimal totalIncome = incomeRepository.sumAmountByUserId(userId);
+                BigDecimal totalExpense = expenseRepository.sumAmountByUserId(userId);
+
+                if (optionalTotals.isPresent()) {
+                    BalanceTotals current = optionalTotals.get();
+
+                    if (current.getTotalIncome().compareTo(totalIncome) == 0
+                            && current.getTotalExpense().compareTo(totalExpense) == 0) {
+                        return current;
+                    }
+
+                    logger.warn("Balance drift detected for user {}: stored income {} / expense {}, actual income {} / expense {}",
+                            userId, current.getTotalIncome(), current.getTotalExpense(), totalIncome, totalExpense);
+                }
+
+                Long expectedVersion = optionalTotals.map(BalanceTotals::getVersion).orElse(null);
+                BalanceTotals repaired = balanceTotalsRepository.replaceTotals(userId, totalIncome, totalExpense, expectedVersion);
+
+                if (repaired != null) {
+                    return repaired;
+                }
+
+                if (attempt >= maxReconcileAttempts) {
+                    logger.warn("Running totals for user {} kept changing during reconciliation, keeping concurrent update", userId);
+                    return balanceTotalsRepository.findById(userId)
+                            .orElseGet(() -> new BalanceTotals(userId, totalIncome, totalExpense));
+                }
+
+                logger.info("Running totals for user {} changed during reconciliation, retrying (attempt {})", userId, attempt);
+            }
+        } finally {
+            lock.unlock();
         }
     }
-}
\ No newline at end of file
+}
@@ -10,21 +10,32 @@ import com.api.flux.entity.Expense;
 import com.api.flux.mapper.ExpenseMapper;
 import com.api.flux.repository.ExpenseRepository;
 import com.api.flux.repository.UserRepository;
+import com.api.flux.utils.CursorSlice;
+import com.api.flux.utils.KeysetCursor;
 import com.api.flux.utils.TextUtils;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class ExpenseService {
@@ -34,39 +45,38 @@ public class ExpenseService {
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
     private final BalanceService balanceService;
+    private final Validator validator;
 
     public ExpenseService(ExpenseRepository expenseRepository,
                           UserRepository userRepository,
-                          BalanceService balanceService) {
+                          BalanceService balanceService,
+                          Validator validator) {
         this.expenseRepository = expenseRepository;
         this.userRepository = userRepository;
         this.balanceService = balanceService;
+        this.validator = validator;
     }
 
     public ResponseEntity<ExpenseResponseDTO> findExpenseByIdAndValidateOwnership(UUID expenseId, UUID authenticatedUserId) {
         try {
-            Optional<Expense> optionalExpense = expenseRepository.findById(expenseId);
+            Optional<Expense> optionalExpense = expenseRepository.findByIdAndUserId(expenseId, authenticatedUserId);
 
             if (optionalExpense.isEmpty()) {
-                logger.warn("Expense not found with ID: {}", expenseId);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(ExpenseResponseDTO.expenseNotFound("Expense not found."));
-            }
-
-            Expense expense = optionalExpense.get();
+                if (!expenseRepository.existsById(expenseId)) {
+                    logger.warn("Expense not found with ID: {}", expenseId);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(ExpenseResponseDTO.expenseNotFound("Expense not found."));
+                }
 
-            if (!expense.getUserId().equals(authenticatedUserId)) {
-                logger.warn("User {} attempted to access expense {} owned by user {}",
-                        authenticatedUserId, expenseId, expense.getUserId());
+                logger.warn("User {} attempted to access expense {} owned by another user", authenticatedUserId, expenseId);
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(ExpenseResponseDTO.error("You don't have permission to access this expense."));
             }
 
-            DataExpenseResponseDTO dataExpenseResponseDTO = ExpenseMapper.toDataDTO(expense);
+            DataExpenseResponseDTO dataExpenseResponseDTO = ExpenseMapper.toDataDTO(optionalExpense.get());
             logger.info("Expense with ID {} retrieved by user {}", expenseId, authenticatedUserId);
 
             return ResponseEntity.ok(ExpenseResponseDTO.success("Expense found successfully", dataExpenseResponseDTO));
-
         } catch (Exception exception) {
             logger.error("Error while finding expense {}: ", expenseId, exception);
             return ResponseEntity.internalServerError()
@@ -75,7 +85,8 @@ public class ExpenseService {
     }
 
     public ResponseEntity<PaginatedExpenseResponseDTO<DataExpenseResponseDTO>> listExpensesByUserPaginated(
-            UUID userId, int page, int size, String sortBy, String sortDirection, boolean lastMonth) {
+            UUID userId, int page, int size, String sortBy, String sortDirection, boolean lastMonth,
+            String cursor, boolean includeTotal) {
         try {
             if (!userRepository.existsById(userId)) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -94,6 +105,27 @@ public class ExpenseService {
                 direction = Sort.Direction.ASC;
             }
 
+            if (cursor != null && !cursor.isBlank() || !includeTotal) {
+                KeysetCursor after = null;
+                if (cursor != null && !cursor.isBlank()) {
+                    after = KeysetCursor.decode(cursor);
+                    if (!VALID_SORT_FIELDS.contains(after.sortBy())) {
+                        throw new IllegalArgumentException("Invalid pagination cursor");
+                    }
+                    sortBy = after.sortBy();
+                    direction = after.direction();
+                }
+
+                Instant endDate = lastMonth ? Instant.now() : null;
+                Instant startDate = lastMonth ? endDate.minus(30, ChronoUnit.DAYS) : null;
+
+                CursorSlice<DataExpenseResponseDTO> slice = expenseRepository
+                        .findSliceByUserId(userId, startDate, endDate, sortBy, direction, after, size)
+                        .map(ExpenseMapper::toDataDTO);
+
+                return ResponseEntity.ok(PaginatedExpenseResponseDTO.success("Expenses retrieved successfully", slice));
+            }
+
             Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
             Page<Expense> expensesPage;
@@ -121,6 +153,10 @@ public class ExpenseService {
 
             return ResponseEntity.ok(PaginatedExpenseResponseDTO.success("Expenses retrieved successfully", expenseDTOsPage));
 
+        } catch (IllegalArgumentException exception) {
+            logger.warn("Rejected expense listing for user {}: {}", userId, exception.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(PaginatedExpenseResponseDTO.error(exception.getMessage()));
         } catch (Exception exception) {
             logger.error("Error listing expenses for user {}: ", userId, exception);
             return ResponseEntity.internalServerError()
@@ -131,83 +167,136 @@ public class ExpenseService {
 
     @Transactional
     public ResponseEntity<List<ExpenseResponseDTO>> createExpenses(List<CreateExpenseRequestDTO> dtoList, UUID authenticatedUserId) {
+        ReentrantLock lock = balanceService.writeLockFor(authenticatedUserId);
+        lock.lock();
         try {
-            List<ExpenseResponseDTO> responses = new ArrayList<>();
+            TransactionBatch<ExpenseResponseDTO> batch = insertExpenses(dtoList, authenticatedUserId);
 
-            for (CreateExpenseRequestDTO dto : dtoList) {
-                if (!dto.userId().equals(authenticatedUserId)) {
-                    responses.add(ExpenseResponseDTO.error("Cannot create expense for another user"));
-                    continue;
-                }
+            balanceService.applyTransactionDelta(authenticatedUserId, BigDecimal.ZERO, batch.createdAmount());
 
-                Expense expense = new Expense();
-                expense.setUserId(authenticatedUserId);
-                expense.setTitle(TextUtils.capitalizeFirstLetters(dto.title()));
-                expense.setDescription(dto.description());
-                expense.setCategory(dto.category());
-                expense.setAmount(dto.amount());
-                expense.setTransactionDate(dto.transactionDate());
-
-                Expense savedExpense = expenseRepository.save(expense);
-                DataExpenseResponseDTO dataExpenseResponseDTO = ExpenseMapper.toDataDTO(savedExpense);
-                responses.add(ExpenseResponseDTO.success("Expense created successfully!", dataExpenseResponseDTO));
-
-                logger.info("Expense with ID {} created successfully!", savedExpense.getId());
-            }
-
-            balanceService.recalculateBalanceAfterTransaction(authenticatedUserId);
-
-            return ResponseEntity.status(HttpStatus.CREATED).body(responses);
+            return ResponseEntity.status(HttpStatus.CREATED).body(batch.responses());
         } catch (Exception exception) {
             logger.error("Unexpected error during batch expense creation: ", exception);
             return ResponseEntity.internalServerError()
                     .body(List.of(ExpenseResponseDTO.error("An unexpected error occurred during expense creation.")));
+        } finally {
+            lock.unlock();
         }
     }
 
-    @Transactional
-    public ResponseEntity<ExpenseResponseDTO> updateExpenseById(UUID id, UpdateExpenseRequestDTO dto, UUID authenticatedUserId) {
-        try {
-            Optional<Expense> optionalExpense = expenseRepository.findById(id);
+    TransactionBatch<ExpenseResponseDTO> insertExpenses(List<CreateExpenseRequestDTO> dtoList, UUID authenticatedUserId) {
+        List<ExpenseResponseDTO> responses = new ArrayList<>(dtoList.size());
+        List<Expense> expenses = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
 
-            if (optionalExpense.isEmpty()) {
-                logger.warn("Expense not found with ID: {}", id);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(ExpenseResponseDTO.expenseNotFound("Expense not found"));
+        for (CreateExpenseRequestDTO dto : dtoList) {
+            if (!authenticatedUserId.equals(dto.userId())) {
+                responses.add(ExpenseResponseDTO.error("Cannot create expense for another user"));
+                continue;
             }
 
-            Expense existingExpense = optionalExpense.get();
+            Set<ConstraintViolation<CreateExpenseRequestDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                responses.add(ExpenseResponseDTO.error(violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+                continue;
+            }
 
-            if (!existingExpense.getUserId().equals(authenticatedUserId)) {
-                logger.warn("User {} attempted to update expense {} owned by user {}",
-                        authenticatedUserId, id, existingExpense.getUserId());
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(ExpenseResponseDTO.error("You don't have permission to update this expense."));
+            Expense expense = new Expense();
+            expense.setUserId(authenticatedUserId);
+            expense.setTitle(TextUtils.capitalizeFirstLetters(dto.title()));
+            expense.setDescription(dto.description());
+            expense.setCategory(dto.category());
+            expense.setAmount(dto.amount());
+            expense.setTransactionDate(dto.transactionDate());
+
+            positions.add(responses.size());
+            responses.add(null);
+            expenses.add(expense);
+        }
+
+        Set<Integer> failedIndexes = expenses.isEmpty() ? Set.of() : expenseRepository.insertUnordered(expenses);
+        BigDecimal createdAmount = BigDecimal.ZERO;
+
+        for (int index = 0; index < expenses.size(); index++) {
+            Expense expense = expenses.get(index);
+
+            if (failedIndexes.contains(index)) {
+                logger.warn("Expense with ID {} could not be inserted", expense.getId());
+                responses.set(positions.get(index), ExpenseResponseDTO.error("Expense could not be saved."));
+                continue;
             }
 
+            createdAmount = createdAmount.add(expense.getAmount());
+            DataExpenseResponseDTO dataExpenseResponseDTO = ExpenseMapper.toDataDTO(expense);
+            responses.set(positions.get(index), ExpenseResponseDTO.success("Expense created successfully!", dataExpenseResponseDTO));
+        }
+
+        logger.info("{} of {} expenses created in batch for user {}",
+                expenses.size() - failedIndexes.size(), dtoList.size(), authenticatedUserId);
+
+        return new TransactionBatch<>(responses, createdAmount);
+    }
+
+    @Transactional
+    public ResponseEntity<ExpenseResponseDTO> updateExpenseById(UUID id, UpdateExpenseRequestDTO dto, UUID authenticatedUserId) {
+        ReentrantLock lock = balanceService.writeLockFor(authenticatedUserId);
+        lock.lock();
+        try {
+            Update update = new Update();
+            List<Consumer<Expense>> changes = new ArrayList<>();
+
             if (dto.title() != null && !dto.title().trim().isEmpty()) {
-                existingExpense.setTitle(TextUtils.capitalizeFirstLetters(dto.title()));
+                String title = TextUtils.capitalizeFirstLetters(dto.title());
+                update.set("title", title);
+                changes.add(expense -> expense.setTitle(title));
             }
 
             if (dto.description() != null && !dto.description().trim().isEmpty()) {
-                existingExpense.setDescription(TextUtils.capitalizeFirstLetters(dto.description()));
+                String description = TextUtils.capitalizeFirstLetters(dto.description());
+                update.set("description", description);
+                changes.add(expense -> expense.setDescription(description));
             }
 
             if (dto.category() != null) {
-                existingExpense.setCategory(dto.category());
+                update.set("category", dto.category());
+                changes.add(expense -> expense.setCategory(dto.category()));
             }
 
             if (dto.amount() != null) {
-                existingExpense.setAmount(dto.amount());
+                update.set("amount", dto.amount());
+                changes.add(expense -> expense.setAmount(dto.amount()));
             }
 
             if (dto.transactionDate() != null) {
-                existingExpense.setTransactionDate(dto.transactionDate());
+                update.set("transactionDate", dto.transactionDate());
+                changes.add(expense -> expense.setTransactionDate(dto.transactionDate()));
             }
 
-            Expense updatedExpense = expenseRepository.save(existingExpense);
-            DataExpenseResponseDTO dataExpenseResponseDTO = ExpenseMapper.toDataDTO(updatedExpense);
-            balanceService.recalculateBalanceAfterTransaction(authenticatedUserId);
+            Expense existingExpense = changes.isEmpty()
+                    ? expenseRepository.findByIdAndUserId(id, authenticatedUserId).orElse(null)
+                    : expenseRepository.findAndUpdateByIdAndUserId(id, authenticatedUserId, update);
+
+            if (existingExpense == null) {
+                if (!expenseRepository.existsById(id)) {
+                    logger.warn("Expense not found with ID: {}", id);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(ExpenseResponseDTO.expenseNotFound("Expense not found"));
+                }
+
+                logger.warn("User {} attempted to update expense {} owned by another user", authenticatedUserId, id);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(ExpenseResponseDTO.error("You don't have permission to update this expense."));
+            }
+
+            BigDecimal previousAmount = existingExpense.getAmount();
+            changes.forEach(change -> change.accept(existingExpense));
+
+            DataExpenseResponseDTO dataExpenseResponseDTO = ExpenseMapper.toDataDTO(existingExpense);
+            balanceService.applyTransactionDelta(authenticatedUserId,
+                    BigDecimal.ZERO, existingExpense.getAmount().subtract(previousAmount));
 
             logger.info("Expense updated successfully with ID {}", id);
             return ResponseEntity.ok(ExpenseResponseDTO.success("Expense updated successfully", dataExpenseResponseDTO));
@@ -219,31 +308,31 @@ public class ExpenseService {
             logger.error("Unexpected error during expense update: ", exception);
             return ResponseEntity.internalServerError()
                     .body(ExpenseResponseDTO.error("An unexpected error occurred during update"));
+        } finally {
+            lock.unlock();
         }
     }
 
     @Transactional
     public ResponseEntity<DeleteExpenseResponseDTO> deleteExpenseById(UUID id, UUID authenticatedUserId) {
+        ReentrantLock lock = balanceService.writeLockFor(authenticatedUserId);
+        lock.lock();
         try {
-            Optional<Expense> optionalExpense = expenseRepository.findById(id);
-
-            if (optionalExpense.isEmpty()) {
-                logger.warn("Delete attempt for non-existent expense with ID: {}", id);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(DeleteExpenseResponseDTO.expenseNotFound("Expense not found"));
-            }
+            Expense expense = expenseRepository.findAndRemoveByIdAndUserId(id, authenticatedUserId);
 
-            Expense expense = optionalExpense.get();
+            if (expense == null) {
+                if (!expenseRepository.existsById(id)) {
+                    logger.warn("Delete attempt for non-existent expense with ID: {}", id);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(DeleteExpenseResponseDTO.expenseNotFound("Expense not found"));
+                }
 
-            if (!expense.getUserId().equals(authenticatedUserId)) {
-                logger.warn("User {} attempted to delete expense {} owned by user {}",
-                        authenticatedUserId, id, expense.getUserId());
+                logger.warn("User {} attempted to delete expense {} owned by another user", authenticatedUserId, id);
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(DeleteExpenseResponseDTO.error("You don't have permission to delete this expense."));
             }
 
-            expenseRepository.deleteById(id);
-            balanceService.recalculateBalanceAfterTransaction(authenticatedUserId);
+            balanceService.applyTransactionDelta(authenticatedUserId, BigDecimal.ZERO, expense.getAmount().negate());
 
             logger.info("Expense deleted successfully with ID {}.", id);
             return ResponseEntity.ok(DeleteExpenseResponseDTO.success("Expense deleted successfully."));
@@ -251,11 +340,15 @@ public class ExpenseService {
             logger.error("Unexpected error during expense deletion: ", exception);
             return ResponseEntity.internalServerError()
                     .body(DeleteExpenseResponseDTO.error("An unexpected error occurred during deletion"));
+        } finally {
+            lock.unlock();
         }
     }
 
     @Transactional
     public ResponseEntity<DeleteExpenseResponseDTO> clearAllExpensesByUserId(UUID userId) {
+        ReentrantLock lock = balanceService.writeLockFor(userId);
+        lock.lock();
         try {
             if (!userRepository.existsById(userId)) {
                 logger.warn("User not found with ID: {}", userId);
@@ -273,6 +366,8 @@ public class ExpenseService {
             logger.error("Unexpected error during expense deletion: ", exception);
             return ResponseEntity.internalServerError()
                     .body(DeleteExpenseResponseDTO.error("An unexpected error occurred during deletion"));
+        } finally {
+            lock.unlock();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,271 @@
+package com.api.flux.service;
+
+import com.api.flux.utils.CircuitBreaker;
+import com.api.flux.utils.Deadline;
+import com.api.flux.utils.FairLimiter;
+import com.api.flux.utils.MetricsSource;
+import com.google.genai.Client;
+import com.google.genai.ResponseStream;
+import com.google.genai.errors.ApiException;
+import com.google.genai.types.CachedContent;
+import com.google.genai.types.Content;
+import com.google.genai.types.CreateCachedContentConfig;
+import com.google.genai.types.GenerateContentConfig;
+import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.HttpOptions;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+@Component
+public class GeminiGateway implements MetricsSource {
+    private static final Logger logger = LoggerFactory.getLogger(GeminiGateway.class);
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final String BUSY_MESSAGE = "LucAI is busy right now, please try again in a moment.";
+    private static final String UNAVAILABLE_MESSAGE = "Gemini is temporarily unavailable.";
+
+    private final Client client;
+    private final FairLimiter<Object> limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxConcurrency;
+    private final long acquireTimeoutNanos;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder upstreamThrottled = new LongAdder();
+    private final LongAdder deadlineExceeded = new LongAdder();
+    private final LongAdder callerTimeouts = new LongAdder();
+    private final LongAdder queueTimeNanos = new LongAdder();
+    private final LongAccumulator maxQueueTimeNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder callTimeNanos = new LongAdder();
+    private final LongAdder streams = new LongAdder();
+    private final LongAdder firstChunkTimeNanos = new LongAdder();
+    private final LongAccumulator maxFirstChunkTimeNanos = new LongAccumulator(Math::max, 0);
+
+    public GeminiGateway(@Value("${gemini.api.key}") String apiKey,
+                         @Value("${gemini.client.base-url:}") String baseUrl,
+                         @Value("${gemini.client.timeout:PT60S}") Duration timeout,
+                         @Value("${gemini.client.max-concurrency:2}") int maxConcurrency,
+                         @Value("${gemini.client.acquire-timeout:PT10S}") Duration acquireTimeout,
+                         @Value("${gemini.client.max-queued:50}") int maxQueued,
+                         @Value("${gemini.client.max-queued-per-caller:2}") int maxQueuedPerCaller,
+                         @Value("${gemini.circuit-breaker.window-size:20}") int breakerWindowSize,
+                         @Value("${gemini.circuit-breaker.minimum-calls:10}") int breakerMinimumCalls,
+                         @Value("${gemini.circuit-breaker.failure-rate-threshold:0.5}") double breakerFailureRate,
+                         @Value("${gemini.circuit-breaker.open-duration:PT30S}") Duration breakerOpenDuration,
+                         @Value("${gemini.circuit-breaker.half-open-calls:2}") int breakerHalfOpenCalls) {
+        HttpOptions.Builder httpOptions = HttpOptions.builder()
+                .timeout(Math.toIntExact(timeout.toMillis()));
+        if (!baseUrl.isBlank()) {
+            httpOptions.baseUrl(baseUrl);
+        }
+
+        this.client = Client.builder()
+                .apiKey(apiKey)
+                .httpOptions(httpOptions.build())
+                .build();
+        this.maxConcurrency = maxConcurrency;
+        this.limiter = new FairLimiter<>(maxConcurrency, maxQueued, maxQueuedPerCaller);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.circuitBreaker = new CircuitBreaker(breakerWindowSize, breakerMinimumCalls, breakerFailureRate,
+                breakerOpenDuration, breakerHalfOpenCalls);
+    }
+
+    public GenerateContentResponse generateContent(Object caller, Deadline deadline, String model,
+                                                   List<Content> contents, GenerateContentConfig config) {
+        return call(caller, deadline,
+                () -> client.models.generateContent(model, contents, withDeadline(config, deadline)));
+    }
+
+    public void streamContent(Object caller, Deadline deadline, String model, List<Content> contents,
+                              GenerateContentConfig config, Consumer<GenerateContentResponse> onChunk) {
+        long requestedAt = System.nanoTime();
+        call(caller, deadline, () -> {
+            boolean firstChunk = true;
+            try (ResponseStream<GenerateContentResponse> stream =
+                         client.models.generateContentStream(model, contents, withDeadline(config, deadline))) {
+                for (GenerateContentResponse chunk : stream) {
+                    if (deadline != null && deadline.isExpired()) {
+                        deadlineExceeded.increment();
+                        throw new DependencyUnavailableException("Gemini did not finish before the request deadline",
+                                circuitBreaker.retryAfter());
+                    }
+                    if (firstChunk) {
+                        long timeToFirstChunk = System.nanoTime() - requestedAt;
+                        firstChunkTimeNanos.add(timeToFirstChunk);
+                        maxFirstChunkTimeNanos.accumulate(timeToFirstChunk);
+                        streams.increment();
+                        firstChunk = false;
+                    }
+                    try {
+                        onChunk.accept(chunk);
+                    } catch (RuntimeException exception) {
+                        throw new ChunkConsumerException(exception);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    public CachedContent createCachedContent(Object caller, String model, CreateCachedContentConfig config) {
+        return call(caller, null, () -> client.caches.create(model, config));
+    }
+
+    private <T> T call(Object caller, Deadline deadline, Supplier<T> request) {
+        if (deadline != null && deadline.isExpired()) {
+            deadlineExceeded.increment();
+            throw new DependencyUnavailableException("The request deadline expired before calling Gemini", Duration.ZERO);
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            throw new DependencyUnavailableException(UNAVAILABLE_MESSAGE, circuitBreaker.retryAfter());
+        }
+
+        long queuedAt = System.nanoTime();
+        long acquireTimeout = deadline == null ? acquireTimeoutNanos : Math.min(acquireTimeoutNanos, deadline.remainingNanos());
+        FairLimiter.Result result;
+
+        try {
+            result = limiter.acquire(caller, acquireTimeout);
+        } catch (InterruptedException exception) {
+            circuitBreaker.release();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a Gemini connection", exception);
+        }
+
+        long startedAt = System.nanoTime();
+        long queued = startedAt - queuedAt;
+        queueTimeNanos.add(queued);
+        maxQueueTimeNanos.accumulate(queued);
+
+        if (result != FairLimiter.Result.ACQUIRED) {
+            circuitBreaker.release();
+            if (result == FairLimiter.Result.QUEUE_FULL) {
+                rejected.increment();
+            } else {
+                timedOut.increment();
+            }
+            logger.warn("Gemini call for {} not admitted ({}) after waiting {} ms",
+                    caller, result, TimeUnit.NANOSECONDS.toMillis(queued));
+            throw new GeminiOverloadedException(BUSY_MESSAGE, estimatedRetryAfter());
+        }
+
+        calls.increment();
+        boolean overloaded = false;
+        try {
+            T response = request.get();
+            circuitBreaker.onSuccess();
+            return response;
+        } catch (ChunkConsumerException exception) {
+            circuitBreaker.onSuccess();
+            throw (RuntimeException) exception.getCause();
+        } catch (ApiException exception) {
+            failures.increment();
+            if (exception.code() == TOO_MANY_REQUESTS) {
+                circuitBreaker.release();
+                overloaded = true;
+                upstreamThrottled.increment();
+                logger.warn("Gemini quota exhausted, lowering concurrency limit: {}", exception.getMessage());
+                throw new GeminiOverloadedException(BUSY_MESSAGE, estimatedRetryAfter());
+            }
+            if (exception.code() >= 500 || exception.code() == 408) {
+                recordFailure(deadline);
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            throw exception;
+        } catch (RuntimeException exception) {
+            failures.increment();
+            recordFailure(deadline);
+            throw exception;
+        } finally {
+            callTimeNanos.add(System.nanoTime() - startedAt);
+            limiter.release(overloaded);
+        }
+    }
+
+    private void recordFailure(Deadline deadline) {
+        if (deadline != null && deadline.expiredByCaller()) {
+            callerTimeouts.increment();
+            circuitBreaker.release();
+        } else {
+            circuitBreaker.onFailure();
+        }
+    }
+
+    private static GenerateContentConfig withDeadline(GenerateContentConfig config, Deadline deadline) {
+        if (deadline == null) {
+            return config;
+        }
+
+        int timeoutMillis = (int) Math.max(1, Math.min(Integer.MAX_VALUE, deadline.remaining().toMillis()));
+        return config.toBuilder()
+                .httpOptions(HttpOptions.builder().timeout(timeoutMillis).build())
+                .build();
+    }
+
+    private Duration estimatedRetryAfter() {
+        long callCount = calls.sum();
+        long avgCallNanos = callCount == 0 ? TimeUnit.SECONDS.toNanos(1) : callTimeNanos.sum() / callCount;
+        long rounds = 1 + limiter.queued() / Math.max(1, limiter.limit());
+        return Duration.ofNanos(Math.max(TimeUnit.SECONDS.toNanos(1), avgCallNanos * rounds));
+    }
+
+    @PreDestroy
+    public void close() {
+        client.close();
+    }
+
+    @Override
+    public String metricsName() {
+        return "gemini";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        long callCount = calls.sum();
+        long queuedCount = callCount + rejected.sum() + timedOut.sum();
+        long streamCount = streams.sum();
+
+        return Map.ofEntries(
+                Map.entry("maxConcurrency", maxConcurrency),
+                Map.entry("concurrencyLimit", limiter.limit()),
+                Map.entry("inFlight", limiter.active()),
+                Map.entry("waiting", limiter.queued()),
+                Map.entry("waitingCallers", limiter.queuedKeys()),
+                Map.entry("calls", callCount),
+                Map.entry("failures", failures.sum()),
+                Map.entry("rejected", rejected.sum()),
+                Map.entry("timedOut", timedOut.sum()),
+                Map.entry("upstreamThrottled", upstreamThrottled.sum()),
+                Map.entry("deadlineExceeded", deadlineExceeded.sum()),
+                Map.entry("callerTimeouts", callerTimeouts.sum()),
+                Map.entry("circuitBreaker", circuitBreaker.stats()),
+                Map.entry("avgQueueTimeMs", queuedCount == 0 ? 0.0 : queueTimeNanos.sum() / 1_000_000.0 / queuedCount),
+                Map.entry("maxQueueTimeMs", maxQueueTimeNanos.get() / 1_000_000.0),
+                Map.entry("avgCallTimeMs", callCount == 0 ? 0.0 : callTimeNanos.sum() / 1_000_000.0 / callCount),
+                Map.entry("streams", streamCount),
+                Map.entry("avgTimeToFirstChunkMs", streamCount == 0 ? 0.0 : firstChunkTimeNanos.sum() / 1_000_000.0 / streamCount),
+                Map.entry("maxTimeToFirstChunkMs", maxFirstChunkTimeNanos.get() / 1_000_000.0)
+        );
+    }
+
+    private static final class ChunkConsumerException extends RuntimeException {
+        private ChunkConsumerException(RuntimeException cause) {
+            super(cause);
+        }
+    }
+}
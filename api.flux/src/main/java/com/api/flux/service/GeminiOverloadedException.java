@@ -0,0 +1,16 @@
+package com.api.flux.service;
+
+import java.time.Duration;
+
+public class GeminiOverloadedException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public GeminiOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,80 @@
+package com.api.flux.service;
+
+import com.api.flux.utils.BoundedTtlCache;
+import com.api.flux.utils.MetricsSource;
+import com.api.flux.utils.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class GeminiRateLimiter implements MetricsSource {
+    private final BoundedTtlCache<UUID, TokenBucket> buckets;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean enabled;
+    private final int capacity;
+    private final Duration refillPeriod;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder limited = new LongAdder();
+
+    public GeminiRateLimiter(@Value("${gemini.rate-limit.enabled:true}") boolean enabled,
+                             @Value("${gemini.rate-limit.capacity:10}") int capacity,
+                             @Value("${gemini.rate-limit.refill-period:PT6S}") Duration refillPeriod,
+                             @Value("${gemini.rate-limit.max-users:10000}") int maxUsers) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.refillPeriod = refillPeriod;
+        this.buckets = new BoundedTtlCache<>(maxUsers, refillPeriod.multipliedBy(capacity));
+    }
+
+    public Duration tryAcquire(UUID userId) {
+        if (!enabled) {
+            return Duration.ZERO;
+        }
+
+        TokenBucket bucket;
+        lock.lock();
+        try {
+            bucket = buckets.get(userId);
+            if (bucket == null) {
+                bucket = new TokenBucket(capacity, refillPeriod);
+            }
+            buckets.put(userId, bucket);
+        } finally {
+            lock.unlock();
+        }
+
+        long waitNanos = bucket.tryConsume();
+        if (waitNanos == 0) {
+            allowed.increment();
+            return Duration.ZERO;
+        }
+
+        limited.increment();
+        return Duration.ofNanos(waitNanos);
+    }
+
+    @Override
+    public String metricsName() {
+        return "geminiRateLimit";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("capacity", capacity);
+        metrics.put("refillPeriodMs", refillPeriod.toMillis());
+        metrics.put("trackedUsers", buckets.size());
+        metrics.put("allowed", allowed.sum());
+        metrics.put("limited", limited.sum());
+        return metrics;
+    }
+}
@@ -2,7 +2,6 @@ package com.api.flux.service;
 
 import com.api.flux.dto.request.expense.CreateExpenseRequestDTO;
 import com.api.flux.dto.request.income.CreateIncomeRequestDTO;
-import com.api.flux.dto.response.balance.ExpensesAndIncomesDTO;
 import com.api.flux.dto.response.expense.ExpenseResponseDTO;
 import com.api.flux.dto.response.gemini.PromptResponseDTO;
 import com.api.flux.dto.response.income.IncomeResponseDTO;
@@ -11,138 +10,156 @@ import com.api.flux.enums.ExpenseCategory;
 import com.api.flux.enums.IncomeCategory;
 import com.api.flux.repository.LucaAIRepository;
 import com.api.flux.repository.UserRepository;
-import com.google.genai.Client;
+import com.api.flux.utils.Deadline;
 import com.google.genai.types.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class GeminiService {
     private static final Logger logger = LoggerFactory.getLogger(GeminiService.class);
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm")
-            .withZone(ZoneId.systemDefault());
+    private static final String MODEL = "gemini-2.0-flash-exp";
+    private static final String CONTEXT_CACHE_CALLER = "lucai-context-cache";
+    private static final String DEGRADED_MESSAGE = "LucAI is temporarily unavailable";
+    private static final Set<String> WRITE_TOOLS = Set.of("create_expense", "create_income");
+    private static final String TOOL_LIMIT_MESSAGE =
+            "I couldn't finish this request within the allowed number of steps. Please try rephrasing it more specifically.";
+    private static final List<String> EXPENSE_CATEGORIES = Arrays.stream(ExpenseCategory.values()).map(Enum::name).toList();
+    private static final List<String> INCOME_CATEGORIES = Arrays.stream(IncomeCategory.values()).map(Enum::name).toList();
+    private static final Content SYSTEM_INSTRUCTION = Content.fromParts(Part.fromText(
+            "You are LucAI, a friendly and helpful financial assistant. " +
+                    "Your role is to help users manage their personal finances.\n\n" +
+                    "Conversational Style Rules:\n" +
+                    "- NEVER SAY greetings such as 'Olá', 'Oi', 'Hello', or similar unless it is clearly the first message of a new conversation.\n" +
+                    "- CONTINUE ongoing conversations naturally, without any introductory phrases or greetings.\n" +
+                    "- Maintain a warm, conversational tone without sounding repetitive.\n\n" +
+                    "Available Expense Categories: " + String.join(", ", EXPENSE_CATEGORIES) + "\n" +
+                    "Available Income Categories: " + String.join(", ", INCOME_CATEGORIES) + "\n\n" +
+                    "When users want to register a transaction:\n" +
+                    "1. Identify if it's an expense or income based on context.\n" +
+                    "2. Extract or ask for: title, category, transaction date, and amount.\n" +
+                    "3. ALWAYS ask the transaction date.\n" +
+                    "4. Ask if they want to add a description (it's optional).\n" +
+                    "5. Once you have all required information, use the appropriate function.\n" +
+                    "6. Confirm the action with a friendly, conversational message.\n\n" +
+                    "The prompt only carries a short balance summary. When you need the user's financial data, " +
+                    "call get_balance, get_spending_by_category, get_recent_transactions or search_transactions " +
+                    "instead of guessing.\n\n" +
+                    "Be conversational, friendly, and provide financial insights when appropriate.\n" +
+                    "Always respond in the user's language."
+    ));
+    private static final GenerateContentConfig FOLLOW_UP_CONFIG = GenerateContentConfig.builder()
+            .systemInstruction(Content.fromParts(Part.fromText(
+                    "You are LucAI. Answer the user based on the function results: confirm registered " +
+                            "transactions or explain the requested financial data. " +
+                            "Be concise and natural. Always respond in the user's language."
+            )))
+            .build();
 
-    @Value("${gemini.api.key}")
-    private String geminiApiKey;
-
-    private final BalanceService balanceService;
     private final UserRepository userRepository;
     private final LucaAIRepository lucaAIRepository;
     private final ExpenseService expenseService;
     private final IncomeService incomeService;
+    private final BalanceService balanceService;
+    private final GeminiGateway geminiGateway;
+    private final LucAIDataTools dataTools;
+    private final ExecutorService fanOutExecutor;
+    private final PromptBuilder promptBuilder;
+    private final LucAIResponseCache responseCache;
+
+    private final List<Tool> tools;
+    private final GenerateContentConfig inlineConfig;
+    private final ReentrantLock contextCacheLock = new ReentrantLock();
+    private volatile CachedPrefix cachedPrefix;
+    private volatile Instant contextCacheRetryAt = Instant.EPOCH;
+
+    @Value("${lucai.history.bucket-size:50}")
+    private int historyBucketSize;
+
+    @Value("${lucai.tools.max-rounds:3}")
+    private int maxToolRounds;
+
+    @Value("${gemini.context-cache.enabled:false}")
+    private boolean contextCacheEnabled;
+
+    @Value("${gemini.context-cache.ttl:PT1H}")
+    private Duration contextCacheTtl;
+
+    @Value("${gemini.context-cache.retry-delay:PT5M}")
+    private Duration contextCacheRetryDelay;
 
-    public GeminiService(BalanceService balanceService, UserRepository userRepository,
+    public GeminiService(UserRepository userRepository,
                          LucaAIRepository lucaAIRepository, ExpenseService expenseService,
-                         IncomeService incomeService) {
-        this.balanceService = balanceService;
+                         IncomeService incomeService, BalanceService balanceService,
+                         GeminiGateway geminiGateway,
+                         LucAIDataTools dataTools,
+                         @Qualifier("fanOutExecutor") ExecutorService fanOutExecutor,
+                         PromptBuilder promptBuilder,
+                         LucAIResponseCache responseCache) {
         this.userRepository = userRepository;
         this.lucaAIRepository = lucaAIRepository;
         this.expenseService = expenseService;
         this.incomeService = incomeService;
+        this.balanceService = balanceService;
+        this.geminiGateway = geminiGateway;
+        this.dataTools = dataTools;
+        this.fanOutExecutor = fanOutExecutor;
+        this.promptBuilder = promptBuilder;
+        this.responseCache = responseCache;
+        this.tools = buildTools();
+        this.inlineConfig = GenerateContentConfig.builder()
+                .systemInstruction(SYSTEM_INSTRUCTION)
+                .tools(tools)
+                .build();
     }
 
-    public ResponseEntity<PromptResponseDTO> generatePrompt(String prompt, UUID userId) {
+    public ResponseEntity<PromptResponseDTO> generatePrompt(String prompt, UUID userId, Deadline deadline) {
         try {
-            Client client = Client.builder()
-                    .apiKey(geminiApiKey)
-                    .build();
-
-            LucAI lucAI = lucaAIRepository.findByUserId(userId)
-                    .orElseGet(() -> new LucAI(userId, new ArrayList<>(), new HashMap<>()));
-
-            String conversationContext = buildConversationContext(lucAI);
-            String financialContext = buildFinancialContext(userId);
-            String nameAndLastName = getUserNameAndLastName(userId);
-
-            GenerateContentConfig config = GenerateContentConfig.builder()
-                    .systemInstruction(Content.fromParts(Part.fromText(
-                            "You are LucAI, a friendly and helpful financial assistant. " +
-                                    "Your role is to help users manage their personal finances.\n\n" +
-                                    "Today is: " + Instant.now().toString() + "\n\n" +
-                                    "Conversational Style Rules:\n" +
-                                    "- NEVER SAY greetings such as 'Olá', 'Oi', 'Hello', or similar unless it is clearly the first message of a new conversation.\n" +
-                                    "- CONTINUE ongoing conversations naturally, without any introductory phrases or greetings.\n" +
-                                    "- Maintain a warm, conversational tone without sounding repetitive.\n\n" +
-                                    "Available Expense Categories: HOUSING,\n" +
-                                    "    UTILITIES,\n" +
-                                    "    TRANSPORTATION,\n" +
-                                    "    GROCERIES,\n" +
-                                    "    FOOD_AND_DINING,\n" +
-                                    "    HEALTHCARE,\n" +
-                                    "    WELLNESS,\n" +
-                                    "    PERSONAL_CARE,\n" +
-                                    "    FAMILY,\n" +
-                                    "    EDUCATION,\n" +
-                                    "    ENTERTAINMENT,\n" +
-                                    "    LEISURE,\n" +
-                                    "    FINANCIAL_OBLIGATIONS,\n" +
-                                    "    SAVINGS,\n" +
-                                    "    INVESTMENTS,\n" +
-                                    "    DONATIONS,\n" +
-                                    "    MISCELLANEOUS,\n" +
-                                    "    OTHER\n" +
-                                    "Available Income Categories:     SALARY,\n" +
-                                    "    BONUSES,\n" +
-                                    "    FREELANCE,\n" +
-                                    "    COMMISSIONS,\n" +
-                                    "    SALES,\n" +
-                                    "    SERVICE,\n" +
-                                    "    RENTAL,\n" +
-                                    "    DIVIDENDS,\n" +
-                                    "    INTEREST,\n" +
-                                    "    CAPITAL_GAINS,\n" +
-                                    "    ROYALTIES,\n" +
-                                    "    PENSIONS,\n" +
-                                    "    GOVERNMENT_BENEFITS,\n" +
-                                    "    OTHER\n\n" +
-                                    "When users want to register a transaction:\n" +
-                                    "1. Identify if it's an expense or income based on context.\n" +
-                                    "2. Extract or ask for: title, category, transaction date, and amount.\n" +
-                                    "3. Identify if it's an expense or income based on context" +
-                                    "3. ALWAYS ask the transaction date." +
-                                    "4. Ask if they want to add a description (it's optional).\n" +
-                                    "5. Once you have all required information, use the appropriate function.\n" +
-                                    "6. Confirm the action with a friendly, conversational message.\n\n" +
-                                    "Be conversational, friendly, and provide financial insights when appropriate.\n" +
-                                    "Always respond in the user's language."
-                    )))
-                    .tools(buildTools())
-                    .build();
-
-
-            String fullPrompt = String.format("""
-                    System: Financial assistant for %s.
-                    Financial Context:
-                    %s
-                    
-                    Conversation History:
-                    %s
-                    
-                    New User Input:
-                    %s
-                    """, nameAndLastName, financialContext, conversationContext, prompt);
-
-            List<Content> contents = List.of(Content.fromParts(Part.fromText(fullPrompt)));
-
-            GenerateContentResponse response = client.models.generateContent(
-                    "gemini-2.0-flash-exp",
-                    contents,
-                    config
-            );
+            long startedAt = System.nanoTime();
+            Optional<PreparedPrompt> prepared = prepareContents(prompt, userId);
+            if (prepared.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(PromptResponseDTO.error("User not found"));
+            }
+
+            Optional<LucAIResponseCache.Key> cacheKey = responseCache.keyFor(userId, prompt,
+                    prepared.get().conversationSummary());
+            Optional<String> cachedResponse = cacheKey.flatMap(responseCache::get);
+            if (cachedResponse.isPresent()) {
+                lucaAIRepository.appendTurn(userId, new LucAIPrompt(prompt, cachedResponse.get(), Instant.now()), historyBucketSize);
+                logger.info("Prompt answered from cache for user {}", userId);
+                return ResponseEntity.ok(PromptResponseDTO.success("Generated successfully!", cachedResponse.get()));
+            }
+
+            GenerateContentResponse response = geminiGateway.generateContent(userId, deadline, MODEL, prepared.get().contents(), buildConfig());
 
-            return processResponse(response, userId, prompt, lucAI, client);
+            return processResponse(response, userId, prompt, deadline, cacheKey, startedAt);
 
+        } catch (GeminiOverloadedException e) {
+            logger.warn("Gemini overloaded, rejecting prompt for user {}", userId);
+            return tooManyRequests(e.getMessage(), e.getRetryAfter());
+        } catch (DependencyUnavailableException e) {
+            logger.warn("Gemini unavailable for user {}, answering in degraded mode: {}", userId, e.getMessage());
+            return ResponseEntity.ok(PromptResponseDTO.success(DEGRADED_MESSAGE, degradedAnswer(userId)));
         } catch (Exception e) {
             logger.error("Error generating prompt for user {}: ", userId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -150,145 +167,246 @@ public class GeminiService {
         }
     }
 
-    private String buildConversationContext(LucAI lucAI) {
-        return lucAI.getConversationHistory().stream()
-                .map(entry -> "User: " + entry.getUserMessage() + "\nLucAI: " + entry.getAiResponse())
-                .collect(Collectors.joining("\n\n"));
-    }
-
-    private String buildFinancialContext(UUID userId) {
-        StringBuilder context = new StringBuilder();
-
+    public void streamPrompt(String prompt, UUID userId, Deadline deadline, SseEmitter emitter) {
         try {
-            ResponseEntity<?> balanceResponse = balanceService.getCurrentBalance(userId);
-            if (balanceResponse.getStatusCode() == HttpStatus.OK) {
-                var balanceBody = balanceResponse.getBody();
-                if (balanceBody != null) {
-                    context.append("CURRENT BALANCE:\n");
-                    context.append(formatBalanceInfo(balanceBody));
-                    context.append("\n\n");
-                }
+            long startedAt = System.nanoTime();
+            Optional<PreparedPrompt> prepared = prepareContents(prompt, userId);
+            if (prepared.isEmpty()) {
+                sendEvent(emitter, "error", PromptResponseDTO.error("User not found"));
+                emitter.complete();
+                return;
             }
 
-            ResponseEntity<ExpensesAndIncomesDTO> expensesIncomesResponse =
-                    balanceService.getExpensesAndIncomeHistoryByUserId(userId);
+            Optional<LucAIResponseCache.Key> cacheKey = responseCache.keyFor(userId, prompt,
+                    prepared.get().conversationSummary());
+            Optional<String> cachedResponse = cacheKey.flatMap(responseCache::get);
+            if (cachedResponse.isPresent()) {
+                lucaAIRepository.appendTurn(userId, new LucAIPrompt(prompt, cachedResponse.get(), Instant.now()), historyBucketSize);
+                sendEvent(emitter, "token", cachedResponse.get());
+                sendEvent(emitter, "done", PromptResponseDTO.success("Generated successfully!", cachedResponse.get()));
+                emitter.complete();
+                logger.info("Streamed prompt answered from cache for user {}", userId);
+                return;
+            }
 
-            if (expensesIncomesResponse.getStatusCode() == HttpStatus.OK) {
-                ExpensesAndIncomesDTO data = expensesIncomesResponse.getBody();
-                if (data != null && data.expenses() != null && data.incomes() != null) {
-                    context.append("EXPENSES:\n");
-                    context.append(formatExpenses(data.expenses()));
-                    context.append("\n\n");
+            StringBuilder finalResponse = new StringBuilder();
+            List<Content> conversationHistory = new ArrayList<>();
+            conversationHistory.add(Content.fromParts(Part.fromText(prompt)));
 
-                    context.append("INCOMES:\n");
-                    context.append(formatIncomes(data.incomes()));
+            List<Part> functionCallParts = streamRound(userId, deadline, prepared.get().contents(), buildConfig(), emitter, finalResponse);
+            boolean usedWriteTools = false;
+
+            for (int round = 1; !functionCallParts.isEmpty(); round++) {
+                if (round > maxToolRounds) {
+                    logger.warn("Tool call limit of {} rounds reached for user {}, dropping pending calls", maxToolRounds, userId);
+                    String fallback = (finalResponse.isEmpty() ? "" : "\n\n") + TOOL_LIMIT_MESSAGE;
+                    finalResponse.append(fallback);
+                    sendEvent(emitter, "token", fallback);
+                    break;
                 }
-            }
 
-            return context.toString();
+                functionCallParts.forEach(part -> part.functionCall().flatMap(FunctionCall::name)
+                        .ifPresent(name -> sendEvent(emitter, "tool", name)));
+                usedWriteTools |= callsWriteTool(functionCallParts);
+
+                conversationHistory.add(Content.builder().role("model").parts(functionCallParts).build());
+                conversationHistory.add(Content.builder().parts(executeFunctionCalls(functionCallParts, userId)).build());
+
+                try {
+                    functionCallParts = streamRound(userId, deadline, conversationHistory, followUpConfig(round), emitter, finalResponse);
+                } catch (UncheckedIOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    logger.error("Error in follow-up call: ", e);
+                    String fallback = "\n\nTransaction completed, but there was an error generating the confirmation message.";
+                    finalResponse.append(fallback);
+                    sendEvent(emitter, "token", fallback);
+                    break;
+                }
+            }
 
+            String aiResponse = finalResponse.toString().trim();
+            lucaAIRepository.appendTurn(userId, new LucAIPrompt(prompt, aiResponse, Instant.now()), historyBucketSize);
+            boolean mutatedData = usedWriteTools;
+            cacheKey.ifPresent(key -> responseCache.put(key, aiResponse, System.nanoTime() - startedAt, mutatedData));
+
+            sendEvent(emitter, "done", PromptResponseDTO.success("Generated successfully!", aiResponse));
+            emitter.complete();
+            logger.info("Streamed prompt processed successfully for user {}", userId);
+
+        } catch (UncheckedIOException e) {
+            logger.info("Client disconnected while streaming prompt for user {}", userId);
+        } catch (DependencyUnavailableException e) {
+            logger.warn("Gemini unavailable for user {}, streaming degraded answer: {}", userId, e.getMessage());
+            try {
+                String answer = degradedAnswer(userId);
+                sendEvent(emitter, "token", answer);
+                sendEvent(emitter, "done", PromptResponseDTO.success(DEGRADED_MESSAGE, answer));
+                emitter.complete();
+            } catch (UncheckedIOException ignored) {
+                logger.info("Client disconnected before the degraded answer could be sent to user {}", userId);
+            }
+        } catch (GeminiOverloadedException e) {
+            logger.warn("Gemini overloaded, rejecting streamed prompt for user {}", userId);
+            try {
+                sendEvent(emitter, "error", PromptResponseDTO.error(e.getMessage()));
+                emitter.complete();
+            } catch (UncheckedIOException ignored) {
+                logger.info("Client disconnected before the error could be sent to user {}", userId);
+            }
         } catch (Exception e) {
-            logger.error("Error building financial context for user {}: ", userId, e);
-            return "Unable to retrieve financial data at this time.";
+            logger.error("Error streaming prompt for user {}: ", userId, e);
+            try {
+                sendEvent(emitter, "error", PromptResponseDTO.error("Error processing your request: " + e.getMessage()));
+                emitter.complete();
+            } catch (UncheckedIOException ignored) {
+                logger.info("Client disconnected before the error could be sent to user {}", userId);
+            }
         }
     }
 
-    private String formatBalanceInfo(Object balanceBody) {
-        return balanceBody.toString();
+    public static ResponseEntity<PromptResponseDTO> tooManyRequests(String message, Duration retryAfter) {
+        return withRetryAfter(HttpStatus.TOO_MANY_REQUESTS, message, retryAfter);
     }
 
-    private String formatExpenses(List<Expense> expenses) {
-        if (expenses == null || expenses.isEmpty()) {
-            return "No expenses recorded.\n";
-        }
+    public static ResponseEntity<PromptResponseDTO> serviceUnavailable(String message, Duration retryAfter) {
+        return withRetryAfter(HttpStatus.SERVICE_UNAVAILABLE, message, retryAfter);
+    }
 
-        BigDecimal total = expenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private static ResponseEntity<PromptResponseDTO> withRetryAfter(HttpStatus status, String message, Duration retryAfter) {
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(PromptResponseDTO.error(message));
+    }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format("Total expenses: $ %.2f\n", total));
-        sb.append(String.format("Number of transactions: %d\n", expenses.size()));
+    private String degradedAnswer(UUID userId) {
+        try {
+            return "I can't reach my assistant service right now, so I can only share your current numbers:\n"
+                    + dataTools.execute("get_balance", Map.of(), userId)
+                    + "\n\nPlease try your question again in a few moments.";
+        } catch (Exception e) {
+            logger.error("Error building degraded answer for user {}: ", userId, e);
+            return "I can't reach my assistant service right now. Please try again in a few moments.";
+        }
+    }
 
-        var byCategory = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        Expense::getCategory,
-                        Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
-                ));
+    private Optional<PreparedPrompt> prepareContents(String prompt, UUID userId) {
+        CompletableFuture<Optional<User>> userFuture = CompletableFuture.supplyAsync(
+                () -> userRepository.findById(userId), fanOutExecutor);
+        CompletableFuture<Optional<LucAI>> lucAIFuture = CompletableFuture.supplyAsync(
+                () -> lucaAIRepository.findHeaderByUserId(userId), fanOutExecutor);
+        CompletableFuture<List<LucAIPrompt>> recentTurnsFuture = CompletableFuture.supplyAsync(
+                () -> lucaAIRepository.findRecentTurns(userId, promptBuilder.verbatimTurns()), fanOutExecutor);
+        CompletableFuture<String> financialContextFuture = buildFinancialContext(userId, userFuture);
+
+        Optional<User> optionalUser = userFuture.join();
+        if (optionalUser.isEmpty()) {
+            logger.warn("User not found with ID: {}, please check user ID.", userId);
+            return Optional.empty();
+        }
 
-        sb.append("\nExpenses by category:\n");
-        byCategory.forEach((category, amount) ->
-                sb.append(String.format("- %s: $ %.2f\n", category, amount))
-        );
+        String conversationSummary = lucAIFuture.join()
+                .map(LucAI::getConversationSummary)
+                .orElse(null);
+        String nameAndLastName = optionalUser.get().getName() + " " + optionalUser.get().getLastName();
+
+        List<LucAIPrompt> recentTurns = recentTurnsFuture.join();
+        String fullPrompt = promptBuilder.build(nameAndLastName, financialContextFuture.join(),
+                conversationSummary, recentTurns, prompt);
 
-        sb.append("\nRecent transactions (last 10):\n");
-        expenses.stream()
-                .sorted((e1, e2) -> e2.getTransactionDate().compareTo(e1.getTransactionDate()))
-                .limit(10)
-                .forEach(expense -> sb.append(String.format(
-                        "- %s: $ %.2f [%s] on %s\n",
-                        expense.getDescription(),
-                        expense.getAmount(),
-                        expense.getCategory(),
-                        DATE_FORMATTER.format(expense.getTransactionDate())
-                )));
-
-        return sb.toString();
+        return Optional.of(new PreparedPrompt(List.of(Content.fromParts(Part.fromText(fullPrompt))),
+                conversationSummary));
     }
 
-    private String formatIncomes(List<Income> incomes) {
-        if (incomes == null || incomes.isEmpty()) {
-            return "No incomes recorded.\n";
+    private GenerateContentConfig buildConfig() {
+        if (!contextCacheEnabled) {
+            return inlineConfig;
         }
 
-        BigDecimal total = incomes.stream()
-                .map(Income::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Instant now = Instant.now();
+        CachedPrefix current = cachedPrefix;
+        if (current != null && now.isBefore(current.refreshAt())) {
+            return current.config();
+        }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format("Total income: $ %.2f\n", total));
-        sb.append(String.format("Number of transactions: %d\n", incomes.size()));
+        if (now.isBefore(contextCacheRetryAt) || !contextCacheLock.tryLock()) {
+            return current != null && now.isBefore(current.expiresAt()) ? current.config() : inlineConfig;
+        }
 
-        var byCategory = incomes.stream()
-                .collect(Collectors.groupingBy(
-                        Income::getCategory,
-                        Collectors.reducing(BigDecimal.ZERO, Income::getAmount, BigDecimal::add)
-                ));
+        try {
+            CachedContent cachedContent = geminiGateway.createCachedContent(CONTEXT_CACHE_CALLER, MODEL, CreateCachedContentConfig.builder()
+                    .displayName("lucai-static-prefix")
+                    .systemInstruction(SYSTEM_INSTRUCTION)
+                    .tools(tools)
+                    .ttl(contextCacheTtl)
+                    .build());
+            String name = cachedContent.name()
+                    .orElseThrow(() -> new IllegalStateException("Gemini returned a cached content without a name"));
+
+            cachedPrefix = new CachedPrefix(
+                    GenerateContentConfig.builder().cachedContent(name).build(),
+                    now.plus(contextCacheTtl.multipliedBy(4).dividedBy(5)),
+                    now.plus(contextCacheTtl));
+            logger.info("Created Gemini cached content {} for the static LucAI prefix", name);
+            return cachedPrefix.config();
+        } catch (Exception e) {
+            logger.warn("Gemini context caching unavailable, sending the static prefix inline: {}", e.getMessage());
+            contextCacheRetryAt = now.plus(contextCacheRetryDelay);
+            return current != null && now.isBefore(current.expiresAt()) ? current.config() : inlineConfig;
+        } finally {
+            contextCacheLock.unlock();
+        }
+    }
 
-        sb.append("\nIncome by category:\n");
-        byCategory.forEach((category, amount) ->
-                sb.append(String.format("- %s: $ %.2f\n", category, amount))
-        );
+    private List<Part> streamRound(UUID userId, Deadline deadline, List<Content> contents, GenerateContentConfig config,
+                                   SseEmitter emitter, StringBuilder finalResponse) {
+        List<Part> functionCallParts = new ArrayList<>();
+        AtomicBoolean needsSeparator = new AtomicBoolean(!finalResponse.isEmpty());
+
+        geminiGateway.streamContent(userId, deadline, MODEL, contents, config, chunk -> {
+            for (Part part : partsOf(chunk)) {
+                if (part.text().isPresent() && !part.text().get().isEmpty()) {
+                    String token = needsSeparator.getAndSet(false) ? "\n\n" + part.text().get() : part.text().get();
+                    finalResponse.append(token);
+                    sendEvent(emitter, "token", token);
+                }
+                if (part.functionCall().isPresent()) {
+                    functionCallParts.add(part);
+                }
+            }
+        });
+
+        return functionCallParts;
+    }
 
-        sb.append("\nRecent transactions (last 10):\n");
-        incomes.stream()
-                .sorted((i1, i2) -> i2.getTransactionDate().compareTo(i1.getTransactionDate()))
-                .limit(10)
-                .forEach(income -> sb.append(String.format(
-                        "- %s: $ %.2f [%s] on %s\n",
-                        income.getDescription(),
-                        income.getAmount(),
-                        income.getCategory(),
-                        DATE_FORMATTER.format(income.getTransactionDate())
-                )));
-
-        return sb.toString();
+    private GenerateContentConfig followUpConfig(int round) {
+        return round < maxToolRounds ? buildConfig() : FOLLOW_UP_CONFIG;
     }
 
-    private String getUserNameAndLastName(UUID userId) {
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
         try {
-            Optional<User> optionalUser = userRepository.findById(userId);
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            if (optionalUser.isEmpty()) {
-                return "User not found";
-            }
+    private static List<Part> partsOf(GenerateContentResponse response) {
+        return response.candidates()
+                .filter(candidates -> !candidates.isEmpty())
+                .flatMap(candidates -> candidates.get(0).content())
+                .flatMap(Content::parts)
+                .orElse(List.of());
+    }
 
-            User user = optionalUser.get();
-            return user.getName() + " " + user.getLastName();
-        } catch (Exception exception) {
-            logger.error("Error getting user name for {}: ", userId, exception);
-            return "User";
-        }
+    private CompletableFuture<String> buildFinancialContext(UUID userId, CompletableFuture<Optional<User>> userFuture) {
+        return userFuture.thenApplyAsync(user -> user.isPresent() ? dataTools.balanceSummary(userId) : "", fanOutExecutor)
+                .exceptionally(exception -> {
+                    Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+                    logger.error("Error building financial context for user {}: ", userId, cause);
+                    return "Unable to retrieve financial data at this time.";
+                });
     }
 
     private List<Tool> buildTools() {
@@ -310,25 +428,8 @@ public class GeminiService {
                                                         .build(),
                                                 "category", Schema.builder()
                                                         .type("string")
-                                                        .description("Expense category. Must be one of: FOOD, TRANSPORT, HOUSING, ENTERTAINMENT, HEALTH, EDUCATION, OTHER")
-                                                        .enum_(List.of("HOUSING",
-                                                                "UTILITIES",
-                                                                "TRANSPORTATION",
-                                                                "GROCERIES",
-                                                                "FOOD_AND_DINING",
-                                                                "HEALTHCARE",
-                                                                "WELLNESS",
-                                                                "PERSONAL_CARE",
-                                                                "FAMILY",
-                                                                "EDUCATION",
-                                                                "ENTERTAINMENT",
-                                                                "LEISURE",
-                                                                "FINANCIAL_OBLIGATIONS",
-                                                                "SAVINGS",
-                                                                "INVESTMENTS",
-                                                                "DONATIONS",
-                                                                "MISCELLANEOUS",
-                                                                "OTHER"))
+                                                        .description("Expense category")
+                                                        .enum_(EXPENSE_CATEGORIES)
                                                         .build(),
                                                 "amount", Schema.builder()
                                                         .type("number")
@@ -360,21 +461,8 @@ public class GeminiService {
                                                         .build(),
                                                 "category", Schema.builder()
                                                         .type("string")
-                                                        .description("Income category. Must be one of: SALARY, FREELANCE, INVESTMENT, GIFT, OTHER")
-                                                        .enum_(List.of("SALARY",
-                                                                "BONUSES",
-                                                                "FREELANCE",
-                                                                "COMMISSIONS",
-                                                                "SALES",
-                                                                "SERVICE",
-                                                                "RENTAL",
-                                                                "DIVIDENDS",
-                                                                "INTEREST",
-                                                                "CAPITAL_GAINS",
-                                                                "ROYALTIES",
-                                                                "PENSIONS",
-                                                                "GOVERNMENT_BENEFITS",
-                                                                "OTHER"))
+                                                        .description("Income category")
+                                                        .enum_(INCOME_CATEGORIES)
                                                         .build(),
                                                 "amount", Schema.builder()
                                                         .type("number")
@@ -391,88 +479,67 @@ public class GeminiService {
                 ))
                 .build();
 
-        return List.of(transactionTools);
+        Tool dataReadTools = Tool.builder()
+                .functionDeclarations(dataTools.declarations())
+                .build();
+
+        return List.of(transactionTools, dataReadTools);
     }
 
     private ResponseEntity<PromptResponseDTO> processResponse(
             GenerateContentResponse response,
             UUID userId,
             String userPrompt,
-            LucAI lucAI,
-            Client client) {
+            Deadline deadline,
+            Optional<LucAIResponseCache.Key> cacheKey,
+            long startedAt) {
 
         StringBuilder finalResponse = new StringBuilder();
         List<Content> conversationHistory = new ArrayList<>();
 
         conversationHistory.add(Content.fromParts(Part.fromText(userPrompt)));
 
-        if (response.candidates().isPresent() && !response.candidates().get().isEmpty()) {
-            Candidate candidate = response.candidates().get().get(0);
-
-            if (candidate.content().isPresent() && candidate.content().get().parts().isPresent()) {
-                List<Part> parts = candidate.content().get().parts().get();
-
-                for (Part part : parts) {
-                    if (part.text().isPresent() && !part.text().get().isEmpty()) {
-                        finalResponse.append(part.text().get());
-                    }
+        List<Part> parts = partsOf(response);
+        boolean usedWriteTools = false;
+        for (int round = 1; round <= maxToolRounds + 1; round++) {
+            StringBuilder roundText = new StringBuilder();
+            for (Part part : parts) {
+                if (part.text().isPresent() && !part.text().get().isEmpty()) {
+                    roundText.append(part.text().get());
                 }
+            }
+            if (!roundText.isEmpty()) {
+                if (!finalResponse.isEmpty()) {
+                    finalResponse.append("\n\n");
+                }
+                finalResponse.append(roundText);
+            }
 
-                List<Part> functionResponseParts = new ArrayList<>();
-                boolean hasFunctionCalls = false;
-
-                for (Part part : parts) {
-                    if (part.functionCall().isPresent()) {
-                        hasFunctionCalls = true;
-                        FunctionCall functionCall = part.functionCall().get();
-
-                        if (functionCall.name().isPresent() && functionCall.args().isPresent()) {
-                            String functionName = functionCall.name().get();
-                            Map<String, Object> args = functionCall.args().get();
-
-                            logger.info("Function call detected: {} with args: {}", functionName, args);
-
-                            String functionResult = executeFunctionCall(functionName, args, userId);
-
-                            functionResponseParts.add(
-                                    Part.fromFunctionResponse(functionName, Map.of("result", functionResult))
-                            );
-                        }
-                    }
+            List<Part> functionCallParts = parts.stream()
+                    .filter(part -> part.functionCall().isPresent())
+                    .toList();
+            if (functionCallParts.isEmpty()) {
+                break;
+            }
+            if (round > maxToolRounds) {
+                logger.warn("Tool call limit of {} rounds reached for user {}, dropping pending calls", maxToolRounds, userId);
+                if (!finalResponse.isEmpty()) {
+                    finalResponse.append("\n\n");
                 }
+                finalResponse.append(TOOL_LIMIT_MESSAGE);
+                break;
+            }
 
-                if (hasFunctionCalls) {
-                    if (candidate.content().isPresent()) {
-                        conversationHistory.add(candidate.content().get());
-                    }
+            usedWriteTools |= callsWriteTool(functionCallParts);
+            conversationHistory.add(Content.builder().role("model").parts(parts).build());
+            conversationHistory.add(Content.builder().parts(executeFunctionCalls(functionCallParts, userId)).build());
 
-                    conversationHistory.add(Content.builder().parts(functionResponseParts).build());
-
-                    try {
-                        GenerateContentConfig followUpConfig = GenerateContentConfig.builder()
-                                .systemInstruction(Content.fromParts(Part.fromText(
-                                        "You are LucAI. Generate a friendly confirmation message based on the function result. " +
-                                                "Be concise and natural."
-                                )))
-                                .build();
-
-                        GenerateContentResponse followUpResponse = client.models.generateContent(
-                                "gemini-2.0-flash-exp",
-                                conversationHistory,
-                                followUpConfig
-                        );
-
-                        if (followUpResponse.text() != null && !followUpResponse.text().isEmpty()) {
-                            if (!finalResponse.isEmpty()) {
-                                finalResponse.append("\n\n");
-                            }
-                            finalResponse.append(followUpResponse.text());
-                        }
-                    } catch (Exception e) {
-                        logger.error("Error in follow-up call: ", e);
-                        finalResponse.append("\n\nTransaction completed, but there was an error generating the confirmation message.");
-                    }
-                }
+            try {
+                parts = partsOf(geminiGateway.generateContent(userId, deadline, MODEL, conversationHistory, followUpConfig(round)));
+            } catch (Exception e) {
+                logger.error("Error in follow-up call: ", e);
+                finalResponse.append("\n\nTransaction completed, but there was an error generating the confirmation message.");
+                break;
             }
         }
 
@@ -482,148 +549,229 @@ public class GeminiService {
             aiResponse = response.text();
         }
 
-        lucAI.getConversationHistory().add(new LucAIPrompt(userPrompt, aiResponse, Instant.now()));
-        lucAI.setUpdatedAt(Instant.now());
-        lucaAIRepository.save(lucAI);
+        lucaAIRepository.appendTurn(userId, new LucAIPrompt(userPrompt, aiResponse, Instant.now()), historyBucketSize);
+
+        if (cacheKey.isPresent()) {
+            responseCache.put(cacheKey.get(), aiResponse, System.nanoTime() - startedAt, usedWriteTools);
+        }
 
         logger.info("Prompt processed successfully for user {}", userId);
         return ResponseEntity.ok(PromptResponseDTO.success("Generated successfully!", aiResponse));
     }
 
-    private String executeFunctionCall(String functionName, Map<String, Object> args, UUID userId) {
-        try {
-            return switch (functionName) {
-                case "create_expense" -> createExpenseFromArgs(args, userId);
-                case "create_income" -> createIncomeFromArgs(args, userId);
-                default -> "Unknown function: " + functionName;
-            };
-        } catch (Exception e) {
-            logger.error("Error executing function {}: ", functionName, e);
-            return "Error executing function: " + e.getMessage();
+    private List<Part> executeFunctionCalls(List<Part> parts, UUID userId) {
+        List<FunctionCall> calls = parts.stream()
+                .map(Part::functionCall)
+                .flatMap(Optional::stream)
+                .filter(functionCall -> functionCall.name().isPresent())
+                .toList();
+
+        String[] results = new String[calls.size()];
+        List<Integer> expenseCalls = new ArrayList<>();
+        List<CreateExpenseRequestDTO> expenseRequests = new ArrayList<>();
+        List<Integer> incomeCalls = new ArrayList<>();
+        List<CreateIncomeRequestDTO> incomeRequests = new ArrayList<>();
+        List<Integer> dataCalls = new ArrayList<>();
+
+        for (int index = 0; index < calls.size(); index++) {
+            String functionName = calls.get(index).name().get();
+            Map<String, Object> args = calls.get(index).args().orElse(Map.of());
+
+            logger.info("Function call detected: {} with args: {}", functionName, args);
+
+            try {
+                switch (functionName) {
+                    case "create_expense" -> {
+                        expenseRequests.add(toExpenseRequest(args, userId));
+                        expenseCalls.add(index);
+                    }
+                    case "create_income" -> {
+                        incomeRequests.add(toIncomeRequest(args, userId));
+                        incomeCalls.add(index);
+                    }
+                    default -> dataCalls.add(index);
+                }
+            } catch (IllegalArgumentException e) {
+                results[index] = e.getMessage();
+            } catch (Exception e) {
+                logger.error("Unexpected error reading arguments of {}: ", functionName, e);
+                results[index] = "ERROR: Unexpected error - " + e.getMessage();
+            }
+        }
+
+        if (!expenseRequests.isEmpty() || !incomeRequests.isEmpty()) {
+            createTransactions(userId, expenseCalls, expenseRequests, incomeCalls, incomeRequests, results);
         }
+
+        CompletableFuture.allOf(dataCalls.stream()
+                .map(index -> CompletableFuture.runAsync(() -> results[index] = executeDataCall(
+                        calls.get(index).name().get(), calls.get(index).args().orElse(Map.of()), userId), fanOutExecutor))
+                .toArray(CompletableFuture[]::new)).join();
+
+        List<Part> functionResponseParts = new ArrayList<>(calls.size());
+        for (int index = 0; index < calls.size(); index++) {
+            functionResponseParts.add(
+                    Part.fromFunctionResponse(calls.get(index).name().get(), Map.of("result", results[index]))
+            );
+        }
+
+        return functionResponseParts;
     }
 
-    private String createExpenseFromArgs(Map<String, Object> args, UUID userId) {
+    private void createTransactions(UUID userId,
+                                    List<Integer> expenseCalls, List<CreateExpenseRequestDTO> expenseRequests,
+                                    List<Integer> incomeCalls, List<CreateIncomeRequestDTO> incomeRequests,
+                                    String[] results) {
+        ReentrantLock writeLock = balanceService.writeLockFor(userId);
+        writeLock.lock();
         try {
-            String title = (String) args.get("title");
-            String description = (String) args.getOrDefault("description", "");
-            String categoryStr = (String) args.get("category");
-            Number amountNum = (Number) args.get("amount");
-            Object transactionDateObj = args.get("transactionDate");
-            Instant transactionDate = null;
-
-            if (transactionDateObj != null) {
-                if (transactionDateObj instanceof String) {
-                    try {
-                        transactionDate = Instant.parse((String) transactionDateObj);
-                    } catch (Exception exception) {
-                        logger.warn("Failed to parse transactionDate: {}", transactionDateObj);
-                        transactionDate = Instant.now();
+            CompletableFuture<TransactionBatch<ExpenseResponseDTO>> expenseFuture = expenseRequests.isEmpty()
+                    ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.supplyAsync(() -> expenseService.insertExpenses(expenseRequests, userId), fanOutExecutor);
+            CompletableFuture<TransactionBatch<IncomeResponseDTO>> incomeFuture = incomeRequests.isEmpty()
+                    ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.supplyAsync(() -> incomeService.insertIncomes(incomeRequests, userId), fanOutExecutor);
+
+            BigDecimal expenseDelta = BigDecimal.ZERO;
+            BigDecimal incomeDelta = BigDecimal.ZERO;
+
+            try {
+                TransactionBatch<ExpenseResponseDTO> batch = expenseFuture.join();
+                if (batch != null) {
+                    expenseDelta = batch.createdAmount();
+                    for (int index = 0; index < expenseCalls.size(); index++) {
+                        CreateExpenseRequestDTO dto = expenseRequests.get(index);
+                        ExpenseResponseDTO response = batch.responses().get(index);
+                        results[expenseCalls.get(index)] = response.success()
+                                ? String.format("SUCCESS: Expense '%s' of $%.2f in category %s was created successfully.",
+                                        dto.title(), dto.amount(), dto.category())
+                                : "ERROR: Failed to create expense - " + response.message();
                     }
-                } else if (transactionDateObj instanceof Instant) {
-                    transactionDate = (Instant) transactionDateObj;
+                    logger.info("{} expenses created via LucAI for user {}", expenseCalls.size(), userId);
                 }
+            } catch (CompletionException e) {
+                logger.error("Unexpected error creating expenses via LucAI: ", e.getCause());
+                expenseCalls.forEach(index -> results[index] = "ERROR: Unexpected error - " + e.getCause().getMessage());
             }
 
-            if (transactionDate == null) {
-                transactionDate = Instant.now();
-            }
-
-            if (title == null || categoryStr == null || amountNum == null) {
-                return "Error: Missing required fields (title, category, or amount)";
+            try {
+                TransactionBatch<IncomeResponseDTO> batch = incomeFuture.join();
+                if (batch != null) {
+                    incomeDelta = batch.createdAmount();
+                    for (int index = 0; index < incomeCalls.size(); index++) {
+                        CreateIncomeRequestDTO dto = incomeRequests.get(index);
+                        IncomeResponseDTO response = batch.responses().get(index);
+                        results[incomeCalls.get(index)] = response.success()
+                                ? String.format("SUCCESS: Income '%s' of $%.2f in category %s was created successfully.",
+                                        dto.title(), dto.amount(), dto.category())
+                                : "ERROR: Failed to create income - " + response.message();
+                    }
+                    logger.info("{} incomes created via LucAI for user {}", incomeCalls.size(), userId);
+                }
+            } catch (CompletionException e) {
+                logger.error("Unexpected error creating incomes via LucAI: ", e.getCause());
+                incomeCalls.forEach(index -> results[index] = "ERROR: Unexpected error - " + e.getCause().getMessage());
             }
 
-            CreateExpenseRequestDTO dto = new CreateExpenseRequestDTO(
-                    userId,
-                    title,
-                    description,
-                    ExpenseCategory.valueOf(categoryStr),
-                    BigDecimal.valueOf(amountNum.doubleValue()),
-                    transactionDate
-            );
-
-            List<CreateExpenseRequestDTO> dtoList = new ArrayList<>();
-            dtoList.add(dto);
+            balanceService.applyTransactionDelta(userId, incomeDelta, expenseDelta);
+        } finally {
+            writeLock.unlock();
+        }
+    }
 
-            ResponseEntity<List<ExpenseResponseDTO>> response = expenseService.createExpenses(dtoList, userId);
+    private static boolean callsWriteTool(List<Part> functionCallParts) {
+        return functionCallParts.stream()
+                .map(Part::functionCall)
+                .flatMap(Optional::stream)
+                .map(FunctionCall::name)
+                .flatMap(Optional::stream)
+                .anyMatch(WRITE_TOOLS::contains);
+    }
 
-            if (response.getStatusCode() == HttpStatus.CREATED) {
-                logger.info("Expense created successfully via LucAI: {} - ${}", title, amountNum);
-                return String.format("SUCCESS: Expense '%s' of $%.2f in category %s was created successfully.",
-                        title, amountNum.doubleValue(), categoryStr);
-            } else {
-                String errorMsg = response.getBody() != null ? response.getBody().toString() : "Unknown error";
-                logger.warn("Failed to create expense via LucAI: {}", errorMsg);
-                return "ERROR: Failed to create expense - " + errorMsg;
-            }
-        } catch (IllegalArgumentException e) {
-            logger.warn("Invalid category for expense: {}", e.getMessage());
-            return "ERROR: Invalid category. Please use one of: FOOD, TRANSPORT, HOUSING, ENTERTAINMENT, HEALTH, EDUCATION, OTHER";
+    private String executeDataCall(String functionName, Map<String, Object> args, UUID userId) {
+        try {
+            return responseCache.toolResult(userId, functionName, args, () -> dataTools.execute(functionName, args, userId));
         } catch (Exception e) {
-            logger.error("Unexpected error creating expense: ", e);
-            return "ERROR: Unexpected error - " + e.getMessage();
+            logger.error("Error executing function {}: ", functionName, e);
+            return "Error executing function: " + e.getMessage();
         }
     }
 
-    private String createIncomeFromArgs(Map<String, Object> args, UUID userId) {
+    private CreateExpenseRequestDTO toExpenseRequest(Map<String, Object> args, UUID userId) {
+        String title = (String) args.get("title");
+        String description = (String) args.getOrDefault("description", "");
+        String categoryStr = (String) args.get("category");
+        Number amountNum = (Number) args.get("amount");
+
+        if (title == null || categoryStr == null || amountNum == null) {
+            throw new IllegalArgumentException("Error: Missing required fields (title, category, or amount)");
+        }
+
+        ExpenseCategory category;
         try {
-            String title = (String) args.get("title");
-            String description = (String) args.getOrDefault("description", "");
-            String categoryStr = (String) args.get("category");
-            Number amountNum = (Number) args.get("amount");
-            Object transactionDateObj = args.get("transactionDate");
-            Instant transactionDate = null;
-
-            if (transactionDateObj != null) {
-                if (transactionDateObj instanceof String) {
-                    try {
-                        transactionDate = Instant.parse((String) transactionDateObj);
-                    } catch (Exception exception) {
-                        logger.warn("Failed to parse transactionDate: {}", transactionDateObj);
-                        transactionDate = Instant.now();
-                    }
-                } else if (transactionDateObj instanceof Instant) {
-                    transactionDate = Instant.now();
-                }
-            }
+            category = ExpenseCategory.valueOf(categoryStr);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid category for expense: {}", categoryStr);
+            throw new IllegalArgumentException("ERROR: Invalid category. Please use one of: " + String.join(", ", EXPENSE_CATEGORIES));
+        }
 
-            if (transactionDate == null) {
-                transactionDate = Instant.now();
-            }
+        return new CreateExpenseRequestDTO(
+                userId,
+                title,
+                description,
+                category,
+                BigDecimal.valueOf(amountNum.doubleValue()),
+                parseTransactionDate(args.get("transactionDate"))
+        );
+    }
 
-            if (title == null || categoryStr == null || amountNum == null) {
-                return "Error: Missing required fields (title, category, or amount)";
-            }
+    private CreateIncomeRequestDTO toIncomeRequest(Map<String, Object> args, UUID userId) {
+        String title = (String) args.get("title");
+        String description = (String) args.getOrDefault("description", "");
+        String categoryStr = (String) args.get("category");
+        Number amountNum = (Number) args.get("amount");
 
-            CreateIncomeRequestDTO dto = new CreateIncomeRequestDTO(
-                    userId,
-                    title,
-                    description,
-                    IncomeCategory.valueOf(categoryStr),
-                    BigDecimal.valueOf(amountNum.doubleValue()),
-                    transactionDate
-            );
+        if (title == null || categoryStr == null || amountNum == null) {
+            throw new IllegalArgumentException("Error: Missing required fields (title, category, or amount)");
+        }
+
+        IncomeCategory category;
+        try {
+            category = IncomeCategory.valueOf(categoryStr);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid category for income: {}", categoryStr);
+            throw new IllegalArgumentException("ERROR: Invalid category. Please use one of: " + String.join(", ", INCOME_CATEGORIES));
+        }
 
-            List<CreateIncomeRequestDTO> dtoList = new ArrayList<>();
-            dtoList.add(dto);
+        return new CreateIncomeRequestDTO(
+                userId,
+                title,
+                description,
+                category,
+                BigDecimal.valueOf(amountNum.doubleValue()),
+                parseTransactionDate(args.get("transactionDate"))
+        );
+    }
 
-            ResponseEntity<List<IncomeResponseDTO>> response = incomeService.createIncomes(dtoList, userId);
+    private static Instant parseTransactionDate(Object transactionDateObj) {
+        if (transactionDateObj instanceof Instant instant) {
+            return instant;
+        }
 
-            if (response.getStatusCode() == HttpStatus.CREATED) {
-                logger.info("Income created successfully via LucAI: {} - ${}", title, amountNum);
-                return String.format("SUCCESS: Income '%s' of $%.2f in category %s was created successfully.",
-                        title, amountNum.doubleValue(), categoryStr);
-            } else {
-                String errorMsg = response.getBody() != null ? response.getBody().toString() : "Unknown error";
-                logger.warn("Failed to create income via LucAI: {}", errorMsg);
-                return "ERROR: Failed to create income - " + errorMsg;
+        if (transactionDateObj instanceof String transactionDate) {
+            try {
+                return Instant.parse(transactionDate);
+            } catch (Exception exception) {
+                logger.warn("Failed to parse transactionDate: {}", transactionDate);
             }
-        } catch (IllegalArgumentException e) {
-            logger.warn("Invalid category for income: {}", e.getMessage());
-            return "ERROR: Invalid category. Please use one of: SALARY, FREELANCE, INVESTMENT, GIFT, OTHER";
-        } catch (Exception e) {
-            logger.error("Unexpected error creating income: ", e);
-            return "ERROR: Unexpected error - " + e.getMessage();
         }
+
+        return Instant.now();
+    }
+
+    private record CachedPrefix(GenerateContentConfig config, Instant refreshAt, Instant expiresAt) {
+    }
+
+    private record PreparedPrompt(List<Content> contents, String conversationSummary) {
     }
-}
\ No newline at end of file
+}
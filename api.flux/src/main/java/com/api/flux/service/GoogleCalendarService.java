@@ -1,6 +1,13 @@
 package com.api.flux.service;
 
+import com.api.flux.utils.BoundedTtlCache;
+import com.api.flux.utils.CircuitBreaker;
+import com.api.flux.utils.Deadline;
+import com.api.flux.utils.MetricsSource;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.client.util.DateTime;
@@ -10,53 +17,162 @@ import com.google.api.services.calendar.model.Events;
 import com.google.auth.http.HttpCredentialsAdapter;
 import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 
 @Service
-public class GoogleCalendarService {
+public class GoogleCalendarService implements MetricsSource {
     private static final String APPLICATION_NAME = "flux";
     private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+    private static final ThreadLocal<Deadline> CURRENT_DEADLINE = new ThreadLocal<>();
 
-    public Calendar getCalendarService(String accessToken) throws IOException, GeneralSecurityException {
+    private final HttpTransport httpTransport;
+    private final BoundedTtlCache<String, Calendar> clients;
+    private final CircuitBreaker circuitBreaker;
+    private final String rootUrl;
+
+    public GoogleCalendarService(@Value("${google.calendar.root-url:}") String rootUrl,
+                                 @Value("${google.calendar.circuit-breaker.window-size:20}") int breakerWindowSize,
+                                 @Value("${google.calendar.circuit-breaker.minimum-calls:10}") int breakerMinimumCalls,
+                                 @Value("${google.calendar.circuit-breaker.failure-rate-threshold:0.5}") double breakerFailureRate,
+                                 @Value("${google.calendar.circuit-breaker.open-duration:PT30S}") Duration breakerOpenDuration,
+                                 @Value("${google.calendar.circuit-breaker.half-open-calls:2}") int breakerHalfOpenCalls,
+                                 @Value("${google.calendar.client-cache.max-size:1000}") int clientCacheSize,
+                                 @Value("${google.calendar.client-cache.ttl:PT10M}") Duration clientCacheTtl)
+            throws GeneralSecurityException, IOException {
+        this.httpTransport = GoogleNetHttpTransport.newTrustedTransport();
+        this.clients = new BoundedTtlCache<>(clientCacheSize, clientCacheTtl);
+        this.rootUrl = rootUrl;
+        this.circuitBreaker = new CircuitBreaker(breakerWindowSize, breakerMinimumCalls, breakerFailureRate,
+                breakerOpenDuration, breakerHalfOpenCalls);
+    }
+
+    public Calendar getCalendarService(String accessToken) {
+        return clients.getOrLoad(tokenHash(accessToken), ignored -> buildCalendar(accessToken));
+    }
+
+    private Calendar buildCalendar(String accessToken) {
         GoogleCredentials credentials = GoogleCredentials.create(new AccessToken(accessToken, null));
+        HttpCredentialsAdapter credentialsAdapter = new HttpCredentialsAdapter(credentials);
 
-        return new Calendar.Builder(
-                GoogleNetHttpTransport.newTrustedTransport(),
-                JSON_FACTORY,
-                new HttpCredentialsAdapter(credentials))
-                .setApplicationName(APPLICATION_NAME)
-                .build();
+        HttpRequestInitializer requestInitializer = request -> {
+            credentialsAdapter.initialize(request);
+            Deadline deadline = CURRENT_DEADLINE.get();
+            if (deadline != null) {
+                int timeoutMillis = (int) Math.max(1, Math.min(Integer.MAX_VALUE, deadline.remaining().toMillis()));
+                request.setConnectTimeout(timeoutMillis);
+                request.setReadTimeout(timeoutMillis);
+            }
+        };
+
+        Calendar.Builder builder = new Calendar.Builder(httpTransport, JSON_FACTORY, requestInitializer)
+                .setApplicationName(APPLICATION_NAME);
+        if (!rootUrl.isBlank()) {
+            builder.setRootUrl(rootUrl);
+        }
+
+        return builder.build();
     }
 
-    public List<Event> getEvents(String accessToken, String timeMin, String timeMax) throws Exception {
-        Calendar service = getCalendarService(accessToken);
+    public List<Event> getEvents(String accessToken, String timeMin, String timeMax, Deadline deadline) throws Exception {
+        return execute(accessToken, deadline, service -> {
+            Events events = service.events().list("primary")
+                    .setTimeMin(new DateTime(timeMin))
+                    .setTimeMax(new DateTime(timeMax))
+                    .setOrderBy("startTime")
+                    .setSingleEvents(Boolean.TRUE)
+                    .execute();
 
-        Events events = service.events().list("primary")
-                .setTimeMin(new DateTime(timeMin))
-                .setTimeMax(new DateTime(timeMax))
-                .setOrderBy("startTime")
-                .setSingleEvents(Boolean.TRUE)
-                .execute();
+            return events.getItems();
+        });
+    }
+
+    public Event createEvent(String accessToken, Event event, Deadline deadline) throws Exception {
+        return execute(accessToken, deadline, service -> service.events().insert("primary", event).execute());
+    }
+
+    public Event updateEvent(String accessToken, String eventId, Event updatedEvent, Deadline deadline) throws Exception {
+        return execute(accessToken, deadline, service -> service.events().update("primary", eventId, updatedEvent).execute());
+    }
+
+    public void deleteEvent(String accessToken, String eventId, Deadline deadline) throws Exception {
+        execute(accessToken, deadline, service -> service.events().delete("primary", eventId).execute());
+    }
+
+    private <T> T execute(String accessToken, Deadline deadline, CalendarCall<T> call) throws Exception {
+        if (deadline.isExpired()) {
+            throw new DependencyUnavailableException("The request deadline expired before calling Google Calendar", Duration.ZERO);
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            throw new DependencyUnavailableException("Google Calendar is temporarily unavailable.", circuitBreaker.retryAfter());
+        }
+
+        CURRENT_DEADLINE.set(deadline);
+        try {
+            T result = call.execute(getCalendarService(accessToken));
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (GoogleJsonResponseException exception) {
+            if (exception.getStatusCode() >= 500 || exception.getStatusCode() == 408) {
+                recordFailure(deadline);
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            throw exception;
+        } catch (IOException exception) {
+            recordFailure(deadline);
+            throw exception;
+        } catch (Exception exception) {
+            circuitBreaker.release();
+            throw exception;
+        } finally {
+            CURRENT_DEADLINE.remove();
+        }
+    }
+
+    private void recordFailure(Deadline deadline) {
+        if (deadline.expiredByCaller()) {
+            circuitBreaker.release();
+        } else {
+            circuitBreaker.onFailure();
+        }
+    }
 
-        return events.getItems();
+    private static String tokenHash(String accessToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(accessToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
     }
 
-    public Event createEvent(String accessToken, Event event) throws Exception {
-        Calendar service = getCalendarService(accessToken);
-        return service.events().insert("primary", event).execute();
+    @Override
+    public String metricsName() {
+        return "googleCalendar";
     }
 
-    public Event updateEvent(String accessToken, String eventId, Event updatedEvent) throws Exception {
-        Calendar service = getCalendarService(accessToken);
-        return service.events().update("primary", eventId, updatedEvent).execute();
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("circuitBreaker", circuitBreaker.stats());
+        metrics.put("clientCache", clients.stats());
+        return metrics;
     }
 
-    public void deleteEvent(String accessToken, String eventId) throws Exception {
-        Calendar service = getCalendarService(accessToken);
-        service.events().delete("primary", eventId).execute();
+    @FunctionalInterface
+    private interface CalendarCall<T> {
+        T execute(Calendar service) throws IOException;
     }
-}
\ No newline at end of file
+}
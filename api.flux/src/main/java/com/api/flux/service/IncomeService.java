@@ -11,20 +11,31 @@ import com.api.flux.entity.Income;
 import com.api.flux.mapper.IncomeMapper;
 import com.api.flux.repository.IncomeRepository;
 import com.api.flux.repository.UserRepository;
+import com.api.flux.utils.CursorSlice;
+import com.api.flux.utils.KeysetCursor;
 import com.api.flux.utils.TextUtils;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class IncomeService {
@@ -34,33 +45,33 @@ public class IncomeService {
     private final IncomeRepository incomeRepository;
     private final UserRepository userRepository;
     private final BalanceService balanceService;
+    private final Validator validator;
 
-    public IncomeService(IncomeRepository incomeRepository, UserRepository userRepository, BalanceService balanceService) {
+    public IncomeService(IncomeRepository incomeRepository, UserRepository userRepository,
+                         BalanceService balanceService, Validator validator) {
         this.incomeRepository = incomeRepository;
         this.userRepository = userRepository;
         this.balanceService = balanceService;
+        this.validator = validator;
     }
 
     public ResponseEntity<com.api.flux.dto.response.income.IncomeResponseDTO> findIncomeByIdAndValidateOwnership(UUID incomeId, UUID authenticatedUserId) {
         try {
-            Optional<Income> optionalIncome = incomeRepository.findById(incomeId);
+            Optional<Income> optionalIncome = incomeRepository.findByIdAndUserId(incomeId, authenticatedUserId);
 
             if (optionalIncome.isEmpty()) {
-                logger.warn("Income not found with ID: {}", incomeId);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(com.api.flux.dto.response.income.IncomeResponseDTO.incomeNotFound("Income not found."));
-            }
-
-            Income income = optionalIncome.get();
+                if (!incomeRepository.existsById(incomeId)) {
+                    logger.warn("Income not found with ID: {}", incomeId);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(com.api.flux.dto.response.income.IncomeResponseDTO.incomeNotFound("Income not found."));
+                }
 
-            if (!income.getUserId().equals(authenticatedUserId)) {
-                logger.warn("User {} attempted to access income {} owned by user {}",
-                        authenticatedUserId, incomeId, income.getUserId());
+                logger.warn("User {} attempted to access income {} owned by another user", authenticatedUserId, incomeId);
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(com.api.flux.dto.response.income.IncomeResponseDTO.error("You don't have permission to access this income."));
             }
 
-            DataIncomeResponseDTO dataIncomeResponseDTO = IncomeMapper.toDataDTO(income);
+            DataIncomeResponseDTO dataIncomeResponseDTO = IncomeMapper.toDataDTO(optionalIncome.get());
             logger.info("Income with ID {} retrieved by user {}", incomeId, authenticatedUserId);
 
             return ResponseEntity.ok(com.api.flux.dto.response.income.IncomeResponseDTO.success("Income found successfully", dataIncomeResponseDTO));
@@ -72,7 +83,8 @@ public class IncomeService {
     }
 
     public ResponseEntity<PaginatedIncomeResponseDTO<DataIncomeResponseDTO>> listIncomesByUserPaginated(
-            UUID userId, int page, int size, String sortBy, String sortDirection, boolean lastMonth) {
+            UUID userId, int page, int size, String sortBy, String sortDirection, boolean lastMonth,
+            String cursor, boolean includeTotal) {
         try {
             if (!userRepository.existsById(userId)) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -91,6 +103,27 @@ public class IncomeService {
                 direction = Sort.Direction.ASC;
             }
 
+            if (cursor != null && !cursor.isBlank() || !includeTotal) {
+                KeysetCursor after = null;
+                if (cursor != null && !cursor.isBlank()) {
+                    after = KeysetCursor.decode(cursor);
+                    if (!VALID_SORT_FIELDS.contains(after.sortBy())) {
+                        throw new IllegalArgumentException("Invalid pagination cursor");
+                    }
+                    sortBy = after.sortBy();
+                    direction = after.direction();
+                }
+
+                Instant endDate = lastMonth ? Instant.now() : null;
+                Instant startDate = lastMonth ? endDate.minus(30, ChronoUnit.DAYS) : null;
+
+                CursorSlice<DataIncomeResponseDTO> slice = incomeRepository
+                        .findSliceByUserId(userId, startDate, endDate, sortBy, direction, after, size)
+                        .map(IncomeMapper::toDataDTO);
+
+                return ResponseEntity.ok(PaginatedIncomeResponseDTO.success("Incomes retrieved successfully", slice));
+            }
+
             Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
             Page<Income> incomesPage;
@@ -118,6 +151,10 @@ public class IncomeService {
 
             return ResponseEntity.ok(PaginatedIncomeResponseDTO.success("Incomes retrieved successfully", incomeDTOsPage));
 
+        } catch (IllegalArgumentException exception) {
+            logger.warn("Rejected income listing for user {}: {}", userId, exception.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(PaginatedIncomeResponseDTO.error(exception.getMessage()));
         } catch (Exception exception) {
             logger.error("Error listing incomes for user {}: ", userId, exception);
             return ResponseEntity.internalServerError()
@@ -127,83 +164,136 @@ public class IncomeService {
 
     @Transactional
     public ResponseEntity<List<IncomeResponseDTO>> createIncomes(List<CreateIncomeRequestDTO> dtoList, UUID authenticatedUserId) {
+        ReentrantLock lock = balanceService.writeLockFor(authenticatedUserId);
+        lock.lock();
         try {
-            List<IncomeResponseDTO> responses = new ArrayList<>();
-
-            for (CreateIncomeRequestDTO dto : dtoList) {
-                if (!dto.userId().equals(authenticatedUserId)) {
-                    responses.add(IncomeResponseDTO.error("Cannot created income for another user."));
-                    continue;
-                }
+            TransactionBatch<IncomeResponseDTO> batch = insertIncomes(dtoList, authenticatedUserId);
 
-                Income income = new Income();
-                income.setUserId(authenticatedUserId);
-                income.setTitle(TextUtils.capitalizeFirstLetters(dto.title()));
-                income.setDescription(dto.description());
-                income.setCategory(dto.category());
-                income.setAmount(dto.amount());
-                income.setTransactionDate(dto.transactionDate());
+            balanceService.applyTransactionDelta(authenticatedUserId, batch.createdAmount(), BigDecimal.ZERO);
 
-                Income savedIncome = incomeRepository.save(income);
-                DataIncomeResponseDTO dataIncomeResponseDTO = IncomeMapper.toDataDTO(savedIncome);
-                responses.add(IncomeResponseDTO.success("Income created successfully!", dataIncomeResponseDTO));
-
-                logger.info("Income with ID {} created successfully!", savedIncome.getId());
-            }
-
-            balanceService.recalculateBalanceAfterTransaction(authenticatedUserId);
-
-            return ResponseEntity.status(HttpStatus.CREATED).body(responses);
+            return ResponseEntity.status(HttpStatus.CREATED).body(batch.responses());
         } catch (Exception exception) {
             logger.error("Unexpected error during batch income creation: ", exception);
             return ResponseEntity.internalServerError()
                     .body(List.of(IncomeResponseDTO.error("An unexpected error occurred during income creation.")));
+        } finally {
+            lock.unlock();
         }
     }
 
-    @Transactional
-    public ResponseEntity<IncomeResponseDTO> updateIncomeById(UUID id, UpdateIncomeRequestDTO dto, UUID authenticatedUserId) {
-        try {
-            Optional<Income> optionalIncome = incomeRepository.findById(id);
+    TransactionBatch<IncomeResponseDTO> insertIncomes(List<CreateIncomeRequestDTO> dtoList, UUID authenticatedUserId) {
+        List<IncomeResponseDTO> responses = new ArrayList<>(dtoList.size());
+        List<Income> incomes = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
 
-            if (optionalIncome.isEmpty()) {
-                logger.warn("Income not found with ID: {}", id);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(IncomeResponseDTO.incomeNotFound("Income not found"));
+        for (CreateIncomeRequestDTO dto : dtoList) {
+            if (!authenticatedUserId.equals(dto.userId())) {
+                responses.add(IncomeResponseDTO.error("Cannot created income for another user."));
+                continue;
             }
 
-            Income existingIncome = optionalIncome.get();
+            Set<ConstraintViolation<CreateIncomeRequestDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                responses.add(IncomeResponseDTO.error(violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+                continue;
+            }
 
-            if (!existingIncome.getUserId().equals(authenticatedUserId)) {
-                logger.warn("User {} attempted to update income {} owned by user {}",
-                        authenticatedUserId, id, existingIncome.getUserId());
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(IncomeResponseDTO.error("You don't have permission to update this income."));
+            Income income = new Income();
+            income.setUserId(authenticatedUserId);
+            income.setTitle(TextUtils.capitalizeFirstLetters(dto.title()));
+            income.setDescription(dto.description());
+            income.setCategory(dto.category());
+            income.setAmount(dto.amount());
+            income.setTransactionDate(dto.transactionDate());
+
+            positions.add(responses.size());
+            responses.add(null);
+            incomes.add(income);
+        }
+
+        Set<Integer> failedIndexes = incomes.isEmpty() ? Set.of() : incomeRepository.insertUnordered(incomes);
+        BigDecimal createdAmount = BigDecimal.ZERO;
+
+        for (int index = 0; index < incomes.size(); index++) {
+            Income income = incomes.get(index);
+
+            if (failedIndexes.contains(index)) {
+                logger.warn("Income with ID {} could not be inserted", income.getId());
+                responses.set(positions.get(index), IncomeResponseDTO.error("Income could not be saved."));
+                continue;
             }
 
+            createdAmount = createdAmount.add(income.getAmount());
+            DataIncomeResponseDTO dataIncomeResponseDTO = IncomeMapper.toDataDTO(income);
+            responses.set(positions.get(index), IncomeResponseDTO.success("Income created successfully!", dataIncomeResponseDTO));
+        }
+
+        logger.info("{} of {} incomes created in batch for user {}",
+                incomes.size() - failedIndexes.size(), dtoList.size(), authenticatedUserId);
+
+        return new TransactionBatch<>(responses, createdAmount);
+    }
+
+    @Transactional
+    public ResponseEntity<IncomeResponseDTO> updateIncomeById(UUID id, UpdateIncomeRequestDTO dto, UUID authenticatedUserId) {
+        ReentrantLock lock = balanceService.writeLockFor(authenticatedUserId);
+        lock.lock();
+        try {
+            Update update = new Update();
+            List<Consumer<Income>> changes = new ArrayList<>();
+
             if (dto.title() != null && !dto.title().trim().isEmpty()) {
-                existingIncome.setTitle(TextUtils.capitalizeFirstLetters(dto.title()));
+                String title = TextUtils.capitalizeFirstLetters(dto.title());
+                update.set("title", title);
+                changes.add(income -> income.setTitle(title));
             }
 
             if (dto.description() != null && !dto.description().trim().isEmpty()) {
-                existingIncome.setDescription(TextUtils.capitalizeFirstLetters(dto.description()));
+                String description = TextUtils.capitalizeFirstLetters(dto.description());
+                update.set("description", description);
+                changes.add(income -> income.setDescription(description));
             }
 
             if (dto.category() != null) {
-                existingIncome.setCategory(dto.category());
+                update.set("category", dto.category());
+                changes.add(income -> income.setCategory(dto.category()));
             }
 
             if (dto.amount() != null) {
-                existingIncome.setAmount(dto.amount());
+                update.set("amount", dto.amount());
+                changes.add(income -> income.setAmount(dto.amount()));
             }
 
             if (dto.transactionDate() != null) {
-                existingIncome.setTransactionDate(dto.transactionDate());
+                update.set("transactionDate", dto.transactionDate());
+                changes.add(income -> income.setTransactionDate(dto.transactionDate()));
             }
 
-            Income updatedIncome = incomeRepository.save(existingIncome);
-            DataIncomeResponseDTO dataIncomeResponseDTO = IncomeMapper.toDataDTO(updatedIncome);
-            balanceService.recalculateBalanceAfterTransaction(authenticatedUserId);
+            Income existingIncome = changes.isEmpty()
+                    ? incomeRepository.findByIdAndUserId(id, authenticatedUserId).orElse(null)
+                    : incomeRepository.findAndUpdateByIdAndUserId(id, authenticatedUserId, update);
+
+            if (existingIncome == null) {
+                if (!incomeRepository.existsById(id)) {
+                    logger.warn("Income not found with ID: {}", id);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(IncomeResponseDTO.incomeNotFound("Income not found"));
+                }
+
+                logger.warn("User {} attempted to update income {} owned by another user", authenticatedUserId, id);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(IncomeResponseDTO.error("You don't have permission to update this income."));
+            }
+
+            BigDecimal previousAmount = existingIncome.getAmount();
+            changes.forEach(change -> change.accept(existingIncome));
+
+            DataIncomeResponseDTO dataIncomeResponseDTO = IncomeMapper.toDataDTO(existingIncome);
+            balanceService.applyTransactionDelta(authenticatedUserId,
+                    existingIncome.getAmount().subtract(previousAmount), BigDecimal.ZERO);
 
             logger.info("Income updated successfully with ID {}", id);
             return ResponseEntity.ok(IncomeResponseDTO.success("Income updated successfully", dataIncomeResponseDTO));
@@ -215,31 +305,31 @@ public class IncomeService {
             logger.error("Unexpected error during income update: ", exception);
             return ResponseEntity.internalServerError()
                     .body(IncomeResponseDTO.error("An unexpected error occurred during update"));
+        } finally {
+            lock.unlock();
         }
     }
 
     @Transactional
     public ResponseEntity<DeleteIncomeResponseDTO> deleteIncomeById(UUID id, UUID authenticatedUserId) {
+        ReentrantLock lock = balanceService.writeLockFor(authenticatedUserId);
+        lock.lock();
         try {
-            Optional<Income> optionalIncome = incomeRepository.findById(id);
-
-            if (optionalIncome.isEmpty()) {
-                logger.warn("Delete attempt for non-existent income with ID: {}", id);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(DeleteIncomeResponseDTO.incomeNotFound("Income not found"));
-            }
+            Income income = incomeRepository.findAndRemoveByIdAndUserId(id, authenticatedUserId);
 
-            Income income = optionalIncome.get();
+            if (income == null) {
+                if (!incomeRepository.existsById(id)) {
+                    logger.warn("Delete attempt for non-existent income with ID: {}", id);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(DeleteIncomeResponseDTO.incomeNotFound("Income not found"));
+                }
 
-            if (!income.getUserId().equals(authenticatedUserId)) {
-                logger.warn("User {} attempted to delete income {} owned by user {}",
-                        authenticatedUserId, id, income.getUserId());
+                logger.warn("User {} attempted to delete income {} owned by another user", authenticatedUserId, id);
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(DeleteIncomeResponseDTO.error("You don't have permission to delete this income."));
             }
 
-            incomeRepository.deleteById(id);
-            balanceService.recalculateBalanceAfterTransaction(authenticatedUserId);
+            balanceService.applyTransactionDelta(authenticatedUserId, income.getAmount().negate(), BigDecimal.ZERO);
 
             logger.info("Income deleted successfully with ID {}.", id);
             return ResponseEntity.ok(DeleteIncomeResponseDTO.success("Income deleted successfully."));
@@ -247,11 +337,15 @@ public class IncomeService {
             logger.error("Unexpected error during income deletion: ", exception);
             return ResponseEntity.internalServerError()
                     .body(DeleteIncomeResponseDTO.error("An unexpected error occurred during deletion"));
+        } finally {
+            lock.unlock();
         }
     }
 
     @Transactional
     public ResponseEntity<DeleteIncomeResponseDTO> clearAllIncomesByUserId(UUID userId) {
+        ReentrantLock lock = balanceService.writeLockFor(userId);
+        lock.lock();
         try {
             if (!userRepository.existsById(userId)) {
                 logger.warn("User not found with ID: {}", userId);
@@ -269,6 +363,8 @@ public class IncomeService {
             logger.error("Unexpected error during income deletion: ", exception);
             return ResponseEntity.internalServerError()
                     .body(DeleteIncomeResponseDTO.error("An unexpected error occurred during deletion"));
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -0,0 +1,219 @@
+package com.api.flux.service;
+
+import com.api.flux.entity.BalanceTotals;
+import com.api.flux.entity.Expense;
+import com.api.flux.entity.Income;
+import com.api.flux.enums.ExpenseCategory;
+import com.api.flux.repository.BalanceTotalsRepository;
+import com.api.flux.repository.ExpenseRepository;
+import com.api.flux.repository.IncomeRepository;
+import com.google.genai.types.FunctionDeclaration;
+import com.google.genai.types.Schema;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class LucAIDataTools {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm")
+            .withZone(ZoneId.systemDefault());
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 50;
+    private static final List<String> PERIODS = List.of("this_month", "last_month", "last_30_days", "this_year", "all_time");
+
+    private final BalanceTotalsRepository balanceTotalsRepository;
+    private final BalanceService balanceService;
+    private final ExpenseRepository expenseRepository;
+    private final IncomeRepository incomeRepository;
+
+    public LucAIDataTools(BalanceTotalsRepository balanceTotalsRepository, BalanceService balanceService,
+                          ExpenseRepository expenseRepository, IncomeRepository incomeRepository) {
+        this.balanceTotalsRepository = balanceTotalsRepository;
+        this.balanceService = balanceService;
+        this.expenseRepository = expenseRepository;
+        this.incomeRepository = incomeRepository;
+    }
+
+    public List<FunctionDeclaration> declarations() {
+        return List.of(
+                FunctionDeclaration.builder()
+                        .name("get_balance")
+                        .description("Returns the user's total income, total expenses and current balance.")
+                        .build(),
+                FunctionDeclaration.builder()
+                        .name("get_spending_by_category")
+                        .description("Returns the user's expenses summed by category for a period.")
+                        .parameters(Schema.builder()
+                                .type("object")
+                                .properties(Map.of(
+                                        "period", Schema.builder()
+                                                .type("string")
+                                                .description("Period to summarize. Defaults to this_month.")
+                                                .enum_(PERIODS)
+                                                .build()
+                                ))
+                                .build())
+                        .build(),
+                FunctionDeclaration.builder()
+                        .name("get_recent_transactions")
+                        .description("Returns the user's most recent expenses and incomes, newest first.")
+                        .parameters(Schema.builder()
+                                .type("object")
+                                .properties(Map.of(
+                                        "limit", Schema.builder()
+                                                .type("integer")
+                                                .description("How many transactions to return (1-" + MAX_LIMIT + ", default " + DEFAULT_LIMIT + ")")
+                                                .build()
+                                ))
+                                .build())
+                        .build(),
+                FunctionDeclaration.builder()
+                        .name("search_transactions")
+                        .description("Searches the user's expenses and incomes whose title or description contains the given text.")
+                        .parameters(Schema.builder()
+                                .type("object")
+                                .properties(Map.of(
+                                        "text", Schema.builder()
+                                                .type("string")
+                                                .description("Text to look for in the title or description")
+                                                .build(),
+                                        "limit", Schema.builder()
+                                                .type("integer")
+                                                .description("How many transactions to return (1-" + MAX_LIMIT + ", default " + DEFAULT_LIMIT + ")")
+                                                .build()
+                                ))
+                                .required(List.of("text"))
+                                .build())
+                        .build()
+        );
+    }
+
+    public String execute(String functionName, Map<String, Object> args, UUID userId) {
+        return switch (functionName) {
+            case "get_balance" -> getBalance(userId);
+            case "get_spending_by_category" -> getSpendingByCategory(userId, (String) args.get("period"));
+            case "get_recent_transactions" -> getRecentTransactions(userId, limitOf(args));
+            case "search_transactions" -> searchTransactions(userId, (String) args.get("text"), limitOf(args));
+            default -> "Unknown function: " + functionName;
+        };
+    }
+
+    public String balanceSummary(UUID userId) {
+        BalanceTotals totals = currentTotals(userId);
+        return String.format("Current balance: $ %.2f (total income $ %.2f, total expenses $ %.2f). " +
+                        "Use the data tools for details.",
+                totals.getTotalIncome().subtract(totals.getTotalExpense()), totals.getTotalIncome(), totals.getTotalExpense());
+    }
+
+    private String getBalance(UUID userId) {
+        BalanceTotals totals = currentTotals(userId);
+        return String.format("Total income: $ %.2f\nTotal expenses: $ %.2f\nCurrent balance: $ %.2f",
+                totals.getTotalIncome(), totals.getTotalExpense(),
+                totals.getTotalIncome().subtract(totals.getTotalExpense()));
+    }
+
+    private String getSpendingByCategory(UUID userId, String period) {
+        String selectedPeriod = period == null || !PERIODS.contains(period) ? "this_month" : period;
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.systemDefault());
+        LocalDate today = now.toLocalDate();
+
+        Instant start;
+        Instant end = null;
+        switch (selectedPeriod) {
+            case "last_month" -> {
+                start = today.withDayOfMonth(1).minusMonths(1).atStartOfDay(now.getZone()).toInstant();
+                end = today.withDayOfMonth(1).atStartOfDay(now.getZone()).toInstant();
+            }
+            case "last_30_days" -> start = now.minusDays(30).truncatedTo(ChronoUnit.DAYS).toInstant();
+            case "this_year" -> start = today.withDayOfYear(1).atStartOfDay(now.getZone()).toInstant();
+            case "all_time" -> start = null;
+            default -> start = today.withDayOfMonth(1).atStartOfDay(now.getZone()).toInstant();
+        }
+
+        Map<ExpenseCategory, BigDecimal> totals = expenseRepository.sumAmountByCategory(userId, start, end);
+        if (totals.isEmpty()) {
+            return "No expenses recorded for " + selectedPeriod + ".";
+        }
+
+        StringBuilder sb = new StringBuilder("Expenses by category (" + selectedPeriod + "):\n");
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<ExpenseCategory, BigDecimal> entry : totals.entrySet().stream()
+                .sorted(Map.Entry.<ExpenseCategory, BigDecimal>comparingByValue().reversed())
+                .toList()) {
+            sb.append(String.format("- %s: $ %.2f\n", entry.getKey(), entry.getValue()));
+            total = total.add(entry.getValue());
+        }
+        sb.append(String.format("Total: $ %.2f", total));
+        return sb.toString();
+    }
+
+    private String getRecentTransactions(UUID userId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<String> lines = mergeNewestFirst(
+                expenseRepository.findByUserIdOrderByTransactionDateDesc(userId, page),
+                incomeRepository.findByUserIdOrderByTransactionDateDesc(userId, page),
+                limit);
+
+        return lines.isEmpty() ? "No transactions recorded." : String.join("\n", lines);
+    }
+
+    private String searchTransactions(UUID userId, String text, int limit) {
+        if (text == null || text.isBlank()) {
+            return "Error: Missing required field (text)";
+        }
+
+        List<String> lines = mergeNewestFirst(
+                expenseRepository.searchByText(userId, text.trim(), limit),
+                incomeRepository.searchByText(userId, text.trim(), limit),
+                limit);
+
+        return lines.isEmpty() ? "No transactions found matching '" + text.trim() + "'." : String.join("\n", lines);
+    }
+
+    private BalanceTotals currentTotals(UUID userId) {
+        return balanceTotalsRepository.findById(userId)
+                .orElseGet(() -> balanceService.reconcileTotals(userId));
+    }
+
+    private static List<String> mergeNewestFirst(List<Expense> expenses, List<Income> incomes, int limit) {
+        List<TransactionLine> transactions = new ArrayList<>();
+        expenses.forEach(expense -> transactions.add(new TransactionLine("expense", expense.getTitle(),
+                expense.getAmount(), expense.getCategory().name(), expense.getTransactionDate())));
+        incomes.forEach(income -> transactions.add(new TransactionLine("income", income.getTitle(),
+                income.getAmount(), income.getCategory().name(), income.getTransactionDate())));
+
+        return transactions.stream()
+                .sorted(Comparator.comparing(TransactionLine::transactionDate,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(limit)
+                .map(TransactionLine::format)
+                .toList();
+    }
+
+    private static int limitOf(Map<String, Object> args) {
+        Object limit = args.get("limit");
+        if (limit instanceof Number number) {
+            return Math.max(1, Math.min(MAX_LIMIT, number.intValue()));
+        }
+        return DEFAULT_LIMIT;
+    }
+
+    private record TransactionLine(String type, String title, BigDecimal amount, String category, Instant transactionDate) {
+        String format() {
+            return String.format("- [%s] %s: $ %.2f [%s] on %s", type, title, amount, category,
+                    transactionDate == null ? "unknown date" : DATE_FORMATTER.format(transactionDate));
+        }
+    }
+}
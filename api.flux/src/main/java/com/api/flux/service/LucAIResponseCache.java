@@ -0,0 +1,155 @@
+package com.api.flux.service;
+
+import com.api.flux.entity.BalanceTotals;
+import com.api.flux.repository.BalanceTotalsRepository;
+import com.api.flux.utils.BoundedTtlCache;
+import com.api.flux.utils.MetricsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+@Component
+public class LucAIResponseCache implements MetricsSource {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s?!.]+$");
+
+    private final BalanceTotalsRepository balanceTotalsRepository;
+    private final BoundedTtlCache<Key, CachedAnswer> cache;
+    private final BoundedTtlCache<ToolKey, String> toolResults;
+    private final boolean enabled;
+    private final int maxPromptLength;
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder skippedWriteTurns = new LongAdder();
+    private final LongAdder savedNanos = new LongAdder();
+
+    public LucAIResponseCache(BalanceTotalsRepository balanceTotalsRepository,
+                              @Value("${lucai.response-cache.enabled:true}") boolean enabled,
+                              @Value("${lucai.response-cache.max-size:5000}") int maxSize,
+                              @Value("${lucai.response-cache.ttl:PT10M}") Duration ttl,
+                              @Value("${lucai.response-cache.max-prompt-length:500}") int maxPromptLength) {
+        this.balanceTotalsRepository = balanceTotalsRepository;
+        this.cache = new BoundedTtlCache<>(maxSize, ttl);
+        this.toolResults = new BoundedTtlCache<>(maxSize, ttl);
+        this.enabled = enabled;
+        this.maxPromptLength = maxPromptLength;
+    }
+
+    // Answers are keyed by the data version and the conversation summary, not by the recent turns: every answer
+    // (cached or not) appends a turn, so a key over the turn window would never repeat. A repeated prompt inside
+    // the TTL therefore gets the same answer while the user's data and summary are unchanged.
+    public Optional<Key> keyFor(UUID userId, String prompt, String conversationSummary) {
+        if (!enabled || prompt == null) {
+            return Optional.empty();
+        }
+
+        String normalized = normalize(prompt);
+        if (normalized.isEmpty() || normalized.length() > maxPromptLength) {
+            return Optional.empty();
+        }
+
+        return balanceTotalsRepository.findById(userId)
+                .map(BalanceTotals::getVersion)
+                .map(version -> new Key(userId, normalized, version, summaryHash(conversationSummary)));
+    }
+
+    public Optional<String> get(Key key) {
+        CachedAnswer answer = cache.get(key);
+        if (answer == null) {
+            return Optional.empty();
+        }
+
+        savedNanos.add(answer.latencyNanos());
+        return Optional.of(answer.response());
+    }
+
+    public void put(Key key, String response, long latencyNanos, boolean mutatedData) {
+        if (mutatedData) {
+            skippedWriteTurns.increment();
+            return;
+        }
+        if (response == null || response.isBlank()) {
+            return;
+        }
+
+        cache.put(key, new CachedAnswer(response, latencyNanos));
+        stored.increment();
+    }
+
+    public String toolResult(UUID userId, String tool, Map<String, Object> args, Supplier<String> execute) {
+        if (!enabled) {
+            return execute.get();
+        }
+
+        Optional<Long> version = balanceTotalsRepository.findById(userId).map(BalanceTotals::getVersion);
+        if (version.isEmpty()) {
+            return execute.get();
+        }
+
+        return toolResults.getOrLoad(new ToolKey(userId, version.get(), tool, new HashMap<>(args)), key -> execute.get());
+    }
+
+    static String summaryHash(String conversationSummary) {
+        MessageDigest digest = sha256();
+        update(digest, conversationSummary);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+
+    static String normalize(String prompt) {
+        String collapsed = WHITESPACE.matcher(prompt.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return TRAILING_PUNCTUATION.matcher(collapsed).replaceAll("");
+    }
+
+    @Override
+    public String metricsName() {
+        return "lucaiResponseCache";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new HashMap<>(cache.stats());
+        metrics.put("enabled", enabled);
+        metrics.put("stored", stored.sum());
+        metrics.put("skippedWriteTurns", skippedWriteTurns.sum());
+        metrics.put("toolResults", toolResults.stats());
+        metrics.put("latencySavedMs", savedNanos.sum() / 1_000_000.0);
+        return metrics;
+    }
+
+    public record Key(UUID userId, String prompt, long version, String summary) {
+    }
+
+    private record ToolKey(UUID userId, long version, String tool, Map<String, Object> args) {
+    }
+
+    private record CachedAnswer(String response, long latencyNanos) {
+    }
+}
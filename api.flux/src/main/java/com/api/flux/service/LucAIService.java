@@ -6,11 +6,13 @@ import com.api.flux.entity.LucAI;
 import com.api.flux.mapper.LucAiMapper;
 import com.api.flux.repository.LucaAIRepository;
 import com.api.flux.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.UUID;
 
 @Service
@@ -18,6 +20,9 @@ public class LucAIService {
     private LucaAIRepository lucaAIRepository;
     private UserRepository userRepository;
 
+    @Value("${lucai.history.max-turns:100}")
+    private int maxTurns;
+
     public LucAIService(LucaAIRepository lucaAIRepository, UserRepository userRepository) {
         this.lucaAIRepository = lucaAIRepository;
         this.userRepository = userRepository;
@@ -30,8 +35,9 @@ public class LucAIService {
                         .body(LucAIResponseDTO.userNotFound("User not found"));
             }
 
-            Optional<LucAI> optionalLucAi = lucaAIRepository.findByUserId(authenticatedUserId);
-            LucAI lucAI = optionalLucAi.get();
+            LucAI lucAI = lucaAIRepository.findHeaderByUserId(authenticatedUserId)
+                    .orElseGet(() -> new LucAI(authenticatedUserId, new ArrayList<>(), new HashMap<>()));
+            lucAI.setConversationHistory(lucaAIRepository.findRecentTurns(authenticatedUserId, maxTurns));
 
             DataLucAIResponseDTO dto = LucAiMapper.toDataDTO(lucAI);
 
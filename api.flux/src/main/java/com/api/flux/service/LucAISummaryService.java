@@ -0,0 +1,182 @@
+package com.api.flux.service;
+
+import com.api.flux.entity.LucAI;
+import com.api.flux.entity.LucAIPrompt;
+import com.api.flux.repository.LucaAIRepository;
+import com.google.genai.types.Content;
+import com.google.genai.types.GenerateContentConfig;
+import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.Part;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+public class LucAISummaryService {
+    private static final Logger logger = LoggerFactory.getLogger(LucAISummaryService.class);
+
+    private static final String SUMMARY_CALLER = "lucai-summary";
+
+    private static final GenerateContentConfig SUMMARY_CONFIG = GenerateContentConfig.builder()
+            .systemInstruction(Content.fromParts(Part.fromText(
+                    "You maintain a compact running summary of a conversation between a user and LucAI, " +
+                            "a personal finance assistant. Merge the previous summary with the new turns. " +
+                            "Keep facts that matter for future answers: goals, preferences, recurring expenses or " +
+                            "incomes, registered transactions and open questions. Drop greetings and small talk. " +
+                            "Write plain text in the user's language."
+            )))
+            .build();
+
+    private final LucaAIRepository lucaAIRepository;
+    private final GeminiGateway geminiGateway;
+    private final PromptBuilder promptBuilder;
+
+    @Value("${lucai.summary.model:gemini-2.0-flash-exp}")
+    private String model;
+
+    @Value("${lucai.summary.batch-size:100}")
+    private int batchSize;
+
+    @Value("${lucai.summary.max-turns-per-run:200}")
+    private int maxTurnsPerRun;
+
+    @Value("${lucai.summary.max-chars:4000}")
+    private int maxSummaryChars;
+
+    @Value("${lucai.summary.claim-lease:PT5M}")
+    private Duration claimLease;
+
+    public LucAISummaryService(LucaAIRepository lucaAIRepository, GeminiGateway geminiGateway,
+                               PromptBuilder promptBuilder) {
+        this.lucaAIRepository = lucaAIRepository;
+        this.geminiGateway = geminiGateway;
+        this.promptBuilder = promptBuilder;
+    }
+
+    @Scheduled(initialDelayString = "${lucai.summary.initial-delay:PT5M}",
+            fixedDelayString = "${lucai.summary.interval:PT15M}")
+    public void summarizeConversations() {
+        int summarized = 0;
+        int failed = 0;
+        UUID lastId = null;
+        List<LucAI> candidates;
+
+        do {
+            candidates = lucaAIRepository.findSummaryCandidates(lastId, batchSize);
+
+            for (LucAI lucAI : candidates) {
+                lastId = lucAI.getId();
+                try {
+                    if (summarize(lucAI)) {
+                        summarized++;
+                    }
+                } catch (Exception exception) {
+                    failed++;
+                    logger.error("Error summarizing conversation for user {}: ", lucAI.getUserId(), exception);
+                }
+            }
+        } while (candidates.size() == batchSize);
+
+        if (summarized > 0 || failed > 0) {
+            logger.info("Conversation summarization finished: {} summarized, {} failed", summarized, failed);
+        }
+    }
+
+    private boolean summarize(LucAI lucAI) {
+        UUID userId = lucAI.getUserId();
+        Instant checkedAt = Instant.now();
+        UUID claimId = UUID.randomUUID();
+
+        if (!lucaAIRepository.claimSummary(userId, lucAI.getSummaryUpdatedAt(), claimId, checkedAt, claimLease)) {
+            logger.debug("Conversation for user {} is being summarized by another instance, skipping", userId);
+            return false;
+        }
+
+        List<LucAIPrompt> verbatimTurns = lucaAIRepository.findRecentTurns(userId, promptBuilder.verbatimTurns());
+        Instant verbatimCutoff = verbatimTurns.isEmpty() ? null : verbatimTurns.get(0).getTimestamp();
+        if (verbatimTurns.size() < promptBuilder.verbatimTurns() || verbatimCutoff == null) {
+            markChecked(lucAI, claimId, checkedAt);
+            return false;
+        }
+
+        List<LucAIPrompt> legacyTurns = lucaAIRepository.findLegacyTurns(userId, lucAI.getSummarizedLegacyTurns(), maxTurnsPerRun);
+        List<LucAIPrompt> bucketTurns = legacyTurns.size() < maxTurnsPerRun
+                ? lucaAIRepository.findTurnsAfter(userId, lucAI.getSummarizedThrough(), maxTurnsPerRun - legacyTurns.size())
+                : List.of();
+
+        List<LucAIPrompt> pendingLegacy = olderThan(legacyTurns, verbatimCutoff);
+        List<LucAIPrompt> pendingBuckets = olderThan(bucketTurns, verbatimCutoff);
+        boolean moreTurnsPending = legacyTurns.size() + bucketTurns.size() >= maxTurnsPerRun;
+
+        if (pendingLegacy.isEmpty() && pendingBuckets.isEmpty()) {
+            markChecked(lucAI, claimId, checkedAt);
+            return false;
+        }
+
+        List<LucAIPrompt> pending = new ArrayList<>(pendingLegacy);
+        pending.addAll(pendingBuckets);
+
+        String summary = requestSummary(lucAI.getConversationSummary(), pending);
+        Instant summarizedThrough = pendingBuckets.isEmpty()
+                ? lucAI.getSummarizedThrough()
+                : pendingBuckets.get(pendingBuckets.size() - 1).getTimestamp();
+
+        boolean saved = lucaAIRepository.saveSummary(userId, claimId, summary, summarizedThrough,
+                lucAI.getSummarizedLegacyTurns() + pendingLegacy.size(),
+                moreTurnsPending ? lucAI.getSummaryUpdatedAt() : checkedAt);
+        if (!saved) {
+            logger.warn("Summary claim for user {} expired before the summary was saved, discarding it", userId);
+        }
+        return saved;
+    }
+
+    private String requestSummary(String previousSummary, List<LucAIPrompt> turns) {
+        String formattedTurns = turns.stream()
+                .map(turn -> "User: " + turn.getUserMessage() + "\nLucAI: " + turn.getAiResponse())
+                .collect(Collectors.joining("\n\n"));
+
+        String request = String.format("""
+                Previous summary:
+                %s
+
+                New turns:
+                %s
+
+                Return the updated summary in at most %d characters.
+                """, previousSummary == null ? "(none)" : previousSummary, formattedTurns, maxSummaryChars);
+
+        GenerateContentResponse response = geminiGateway.generateContent(
+                SUMMARY_CALLER, null, model, List.of(Content.fromParts(Part.fromText(request))), SUMMARY_CONFIG);
+
+        String summary = response.text();
+        if (summary == null || summary.isBlank()) {
+            throw new IllegalStateException("Empty summary returned by Gemini");
+        }
+
+        summary = summary.trim();
+        return summary.length() > maxSummaryChars ? summary.substring(0, maxSummaryChars) : summary;
+    }
+
+    private void markChecked(LucAI lucAI, UUID claimId, Instant checkedAt) {
+        lucaAIRepository.saveSummary(lucAI.getUserId(), claimId, lucAI.getConversationSummary(),
+                lucAI.getSummarizedThrough(), lucAI.getSummarizedLegacyTurns(), checkedAt);
+    }
+
+    private static List<LucAIPrompt> olderThan(List<LucAIPrompt> turns, Instant cutoff) {
+        int end = 0;
+        while (end < turns.size()
+                && (turns.get(end).getTimestamp() == null || turns.get(end).getTimestamp().isBefore(cutoff))) {
+            end++;
+        }
+        return turns.subList(0, end);
+    }
+}
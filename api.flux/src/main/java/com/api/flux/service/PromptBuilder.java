@@ -0,0 +1,108 @@
+package com.api.flux.service;
+
+import com.api.flux.entity.LucAIPrompt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Component
+public class PromptBuilder {
+    private static final Logger logger = LoggerFactory.getLogger(PromptBuilder.class);
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final String TRUNCATED_MARKER = "\n(truncated)";
+
+    private static final String TEMPLATE = """
+            System: Financial assistant for %s.
+            Today is: %s
+
+            Financial Context:
+            %s
+
+            Conversation Summary:
+            %s
+
+            Conversation History:
+            %s
+
+            New User Input:
+            %s
+            """;
+
+    @Value("${lucai.prompt.token-budget:4000}")
+    private int tokenBudget;
+
+    @Value("${lucai.prompt.verbatim-turns:6}")
+    private int verbatimTurns;
+
+    @Value("${lucai.prompt.financial-token-floor:1000}")
+    private int financialTokenFloor;
+
+    public int verbatimTurns() {
+        return verbatimTurns;
+    }
+
+    public String build(String userName, String financialContext, String conversationSummary,
+                        List<LucAIPrompt> recentTurns, String userInput) {
+        int remaining = tokenBudget - estimateTokens(TEMPLATE) - estimateTokens(userName) - estimateTokens(userInput);
+        String financialText = financialContext == null ? "" : financialContext;
+        // The balances are what the answers are grounded on, so history and summary cannot eat into this floor.
+        int financialReserve = Math.max(0, Math.min(Math.min(financialTokenFloor, estimateTokens(financialText)), remaining));
+        remaining -= financialReserve;
+
+        List<String> turns = new ArrayList<>();
+        for (int i = recentTurns.size() - 1; i >= 0 && turns.size() < verbatimTurns; i--) {
+            LucAIPrompt turn = recentTurns.get(i);
+            String formatted = "User: " + turn.getUserMessage() + "\nLucAI: " + turn.getAiResponse();
+            int cost = estimateTokens(formatted) + 1;
+
+            if (cost > remaining) {
+                break;
+            }
+            turns.add(formatted);
+            remaining -= cost;
+        }
+        Collections.reverse(turns);
+        String conversationContext = String.join("\n\n", turns);
+
+        String summary = truncate(conversationSummary == null ? "" : conversationSummary, remaining);
+        remaining -= estimateTokens(summary);
+        remaining += financialReserve;
+
+        String financial = truncate(financialText, remaining);
+        remaining -= estimateTokens(financial);
+
+        if (remaining < 0) {
+            logger.warn("Prompt for {} exceeds the token budget of {} by {} tokens", userName, tokenBudget, -remaining);
+        }
+
+        return String.format(TEMPLATE, userName, LocalDate.now(ZoneOffset.UTC), financial, summary, conversationContext, userInput);
+    }
+
+    public static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    private static String truncate(String text, int tokens) {
+        if (estimateTokens(text) <= tokens) {
+            return text;
+        }
+
+        int maxChars = Math.max(0, tokens * CHARS_PER_TOKEN - TRUNCATED_MARKER.length());
+        if (maxChars == 0) {
+            return "";
+        }
+
+        int cut = text.lastIndexOf('\n', maxChars);
+        return text.substring(0, cut > 0 ? cut : maxChars) + TRUNCATED_MARKER;
+    }
+}
@@ -0,0 +1,7 @@
+package com.api.flux.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+record TransactionBatch<T>(List<T> responses, BigDecimal createdAmount) {
+}
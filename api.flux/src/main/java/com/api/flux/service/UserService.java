@@ -5,6 +5,7 @@ import com.api.flux.dto.response.user.*;
 import com.api.flux.entity.User;
 import com.api.flux.mapper.UserMapper;
 import com.api.flux.repository.UserRepository;
+import com.api.flux.security.TokenVersionCache;
 import com.api.flux.security.TokenService;
 import com.api.flux.utils.TextUtils;
 import com.api.flux.utils.ValidationUtils;
@@ -30,11 +31,14 @@ public class UserService {
     private final UserRepository userRepository;
     private final TokenService tokenService;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionCache tokenVersionCache;
 
-    public UserService(UserRepository userRepository, TokenService tokenService, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, TokenService tokenService, PasswordEncoder passwordEncoder,
+                       TokenVersionCache tokenVersionCache) {
         this.userRepository = userRepository;
         this.tokenService = tokenService;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionCache = tokenVersionCache;
     }
 
     public static Integer calculateAge(User user) {
@@ -130,6 +134,7 @@ public class UserService {
                 return ResponseEntity.status(404).body(UpdateUserResponseDTO.notFound("User not found."));
             }
             User existingUser = optionalUser.get();
+            boolean credentialsChanged = false;
             if (dto.name() != null && !dto.name().trim().isEmpty()) existingUser.setName(TextUtils.capitalizeFirstLetters(dto.name()));
             if (dto.lastName() != null && !dto.lastName().trim().isEmpty()) existingUser.setLastName(TextUtils.capitalizeFirstLetters(dto.lastName()));
             if (dto.email() != null && !dto.email().trim().isEmpty()) {
@@ -147,6 +152,7 @@ public class UserService {
                     return ResponseEntity.status(409).body(UpdateUserResponseDTO.error("Email already in use."));
                 }
                 existingUser.setEmail(newEmail);
+                credentialsChanged = true;
             }
             if (dto.password() != null && !dto.password().trim().isEmpty()) {
                 if (passwordEncoder.matches(dto.password(), existingUser.getPassword())) {
@@ -154,9 +160,12 @@ public class UserService {
                 }
                 String newPassword = passwordEncoder.encode(dto.password());
                 existingUser.setPassword(newPassword);
+                credentialsChanged = true;
             }
             if (dto.profileImageUrl() != null && !dto.profileImageUrl().trim().isEmpty()) existingUser.setProfileImageUrl(dto.profileImageUrl());
+            if (credentialsChanged) existingUser.setTokenVersion(existingUser.getTokenVersion() + 1);
             User updatedUser = userRepository.save(existingUser);
+            tokenVersionCache.evict(updatedUser.getId());
             int age = calculateAge(optionalUser.get());
             DataUserDTO dataUserDTO = UserMapper.toUserDTO(updatedUser, age);
             String newToken = tokenService.generateToken(updatedUser);
@@ -178,6 +187,7 @@ public class UserService {
                 return ResponseEntity.status(404).body(DeleteUserResponseDTO.notFound("User not found"));
             }
             userRepository.deleteById(id);
+            tokenVersionCache.evict(id);
             logger.info("User deleted successfully with ID {}.", id);
             return ResponseEntity.ok().body(DeleteUserResponseDTO.success("User deleted successfully."));
         } catch (Exception exception) {
@@ -0,0 +1,9 @@
+package com.api.flux.utils;
+
+public record CursorInfo(
+        int pageSize,
+        int numberOfElements,
+        boolean hasNext,
+        String nextCursor
+) {
+}
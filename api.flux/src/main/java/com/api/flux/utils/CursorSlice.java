@@ -0,0 +1,10 @@
+package com.api.flux.utils;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorSlice<T>(List<T> content, CursorInfo cursor) {
+    public <R> CursorSlice<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorSlice<>(content.stream().<R>map(mapper).toList(), cursor);
+    }
+}
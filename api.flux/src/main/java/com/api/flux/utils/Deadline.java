@@ -0,0 +1,51 @@
+package com.api.flux.utils;
+
+import java.time.Duration;
+
+// callerRequested marks deadlines shortened through X-Request-Timeout; running out of such a budget is the
+// caller's choice and must not be reported to a circuit breaker as an upstream failure.
+public record Deadline(long expiresAtNanos, boolean callerRequested) {
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+    public static final Duration MIN_REQUESTED_TIMEOUT = Duration.ofSeconds(1);
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos(), false);
+    }
+
+    public static Deadline fromHeader(String timeoutMillis, Duration maxTimeout) {
+        if (timeoutMillis == null || timeoutMillis.isBlank()) {
+            return after(maxTimeout);
+        }
+
+        try {
+            long requested = Long.parseLong(timeoutMillis.trim());
+            if (requested <= 0 || requested >= maxTimeout.toMillis()) {
+                return after(maxTimeout);
+            }
+
+            Duration timeout = Duration.ofMillis(Math.max(requested, MIN_REQUESTED_TIMEOUT.toMillis()));
+            if (timeout.compareTo(maxTimeout) >= 0) {
+                return after(maxTimeout);
+            }
+            return new Deadline(System.nanoTime() + timeout.toNanos(), true);
+        } catch (NumberFormatException exception) {
+            return after(maxTimeout);
+        }
+    }
+
+    public long remainingNanos() {
+        return Math.max(0, expiresAtNanos - System.nanoTime());
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(remainingNanos());
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    public boolean expiredByCaller() {
+        return callerRequested && isExpired();
+    }
+}
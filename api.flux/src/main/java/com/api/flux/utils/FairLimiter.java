@@ -0,0 +1,169 @@
+package com.api.flux.utils;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class FairLimiter<K> {
+    public enum Result {
+        ACQUIRED,
+        QUEUE_FULL,
+        TIMED_OUT
+    }
+
+    private final int maxLimit;
+    private final int maxQueued;
+    private final int maxQueuedPerKey;
+    private final LinkedHashMap<K, ArrayDeque<Waiter>> queues = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int limit;
+    private int active;
+    private int queued;
+    private int successesSinceIncrease;
+
+    public FairLimiter(int maxLimit, int maxQueued, int maxQueuedPerKey) {
+        if (maxLimit <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be greater than zero");
+        }
+        this.maxLimit = maxLimit;
+        this.maxQueued = maxQueued;
+        this.maxQueuedPerKey = maxQueuedPerKey;
+        this.limit = maxLimit;
+    }
+
+    public Result acquire(K key, long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (active < limit && queued == 0) {
+                active++;
+                return Result.ACQUIRED;
+            }
+
+            ArrayDeque<Waiter> queue = queues.get(key);
+            if (queued >= maxQueued || (queue != null && queue.size() >= maxQueuedPerKey)) {
+                return Result.QUEUE_FULL;
+            }
+
+            Waiter waiter = new Waiter(lock.newCondition());
+            queues.computeIfAbsent(key, ignored -> new ArrayDeque<>()).addLast(waiter);
+            queued++;
+
+            long remaining = timeoutNanos;
+            try {
+                while (!waiter.granted) {
+                    if (remaining <= 0) {
+                        dequeue(key, waiter);
+                        return Result.TIMED_OUT;
+                    }
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException exception) {
+                if (waiter.granted) {
+                    active--;
+                    grantNext();
+                } else {
+                    dequeue(key, waiter);
+                }
+                throw exception;
+            }
+            return Result.ACQUIRED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(boolean overloaded) {
+        lock.lock();
+        try {
+            active--;
+
+            if (overloaded) {
+                limit = Math.max(1, limit / 2);
+                successesSinceIncrease = 0;
+            } else if (limit < maxLimit && ++successesSinceIncrease >= limit) {
+                limit++;
+                successesSinceIncrease = 0;
+            }
+
+            grantNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int active() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queuedKeys() {
+        lock.lock();
+        try {
+            return queues.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void grantNext() {
+        while (active < limit && queued > 0) {
+            Iterator<Map.Entry<K, ArrayDeque<Waiter>>> iterator = queues.entrySet().iterator();
+            Map.Entry<K, ArrayDeque<Waiter>> next = iterator.next();
+            Waiter waiter = next.getValue().pollFirst();
+            iterator.remove();
+            if (!next.getValue().isEmpty()) {
+                queues.put(next.getKey(), next.getValue());
+            }
+
+            queued--;
+            active++;
+            waiter.granted = true;
+            waiter.condition.signal();
+        }
+    }
+
+    private void dequeue(K key, Waiter waiter) {
+        ArrayDeque<Waiter> queue = queues.get(key);
+        if (queue != null && queue.remove(waiter)) {
+            queued--;
+            if (queue.isEmpty()) {
+                queues.remove(key);
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.api.flux.utils;
+
+import java.util.UUID;
+
+@FunctionalInterface
+public interface IdGenerator {
+    IdGenerator RANDOM = UUID::randomUUID;
+
+    UUID next();
+}
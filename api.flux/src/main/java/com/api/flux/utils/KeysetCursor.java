@@ -0,0 +1,71 @@
+package com.api.flux.utils;
+
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+public record KeysetCursor(String sortBy, Sort.Direction direction, UUID id, String value) {
+    private static final String INVALID_CURSOR = "Invalid pagination cursor";
+    private static final String SEPARATOR = "\n";
+    private static final String VALUE_PREFIX = "v";
+
+    public static KeysetCursor of(String sortBy, Sort.Direction direction, UUID id, Object value) {
+        String encodedValue = null;
+        if (value instanceof Enum<?> enumValue) {
+            encodedValue = enumValue.name();
+        } else if (value != null) {
+            encodedValue = value.toString();
+        }
+        return new KeysetCursor(sortBy, direction, id, encodedValue);
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, direction.name(), id.toString(),
+                value == null ? "" : VALUE_PREFIX + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            if (parts.length != 4 || parts[0].isEmpty()) {
+                throw new IllegalArgumentException(INVALID_CURSOR);
+            }
+
+            String value = parts[3].isEmpty() ? null : parts[3].substring(VALUE_PREFIX.length());
+            return new KeysetCursor(parts[0], Sort.Direction.valueOf(parts[1]), UUID.fromString(parts[2]), value);
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException(INVALID_CURSOR, exception);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Object valueAs(Class<?> type) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            if (type == String.class) {
+                return value;
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, value);
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(value);
+            }
+            if (type == Instant.class) {
+                return Instant.parse(value);
+            }
+        } catch (RuntimeException exception) {
+            throw new IllegalArgumentException(INVALID_CURSOR, exception);
+        }
+        throw new IllegalArgumentException("Unsupported cursor field type: " + type.getSimpleName());
+    }
+}
@@ -0,0 +1,9 @@
+package com.api.flux.utils;
+
+import java.util.Map;
+
+public interface MetricsSource {
+    String metricsName();
+
+    Map<String, Object> metrics();
+}
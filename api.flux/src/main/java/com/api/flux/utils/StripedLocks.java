@@ -0,0 +1,31 @@
+package com.api.flux.utils;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class StripedLocks {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Lock stripes must be greater than zero");
+        }
+
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+
+        this.locks = new ReentrantLock[size];
+        for (int index = 0; index < size; index++) {
+            locks[index] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public ReentrantLock lockFor(Object key) {
+        int hash = key.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    public int stripes() {
+        return locks.length;
+    }
+}
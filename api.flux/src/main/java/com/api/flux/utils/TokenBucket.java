@@ -0,0 +1,40 @@
+package com.api.flux.utils;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class TokenBucket {
+    private final int capacity;
+    private final long nanosPerToken;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(int capacity, Duration refillPeriod) {
+        if (capacity <= 0 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("Token bucket capacity and refill period must be greater than zero");
+        }
+        this.capacity = capacity;
+        this.nanosPerToken = refillPeriod.toNanos();
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    public long tryConsume() {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            tokens = Math.min(capacity, tokens + (double) (now - refilledAt) / nanosPerToken);
+            refilledAt = now;
+
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * nanosPerToken);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.api.flux.utils;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+public final class UuidV7Generator implements IdGenerator {
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong();
+    private final LongSupplier clock;
+
+    public UuidV7Generator() {
+        this(System::currentTimeMillis);
+    }
+
+    UuidV7Generator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID next() {
+        long candidate = clock.getAsLong() << SEQUENCE_BITS;
+        long timestampAndSequence = lastTimestampAndSequence.updateAndGet(last -> candidate > last ? candidate : last + 1);
+
+        long mostSignificantBits = (timestampAndSequence >>> SEQUENCE_BITS) << 16
+                | VERSION
+                | (timestampAndSequence & SEQUENCE_MASK);
+        long leastSignificantBits = ThreadLocalRandom.current().nextLong() & RANDOM_MASK | VARIANT;
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
@@ -0,0 +1,51 @@
+package com.api.flux.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExecutionConfigTest {
+    private final ExecutionConfig executionConfig = new ExecutionConfig();
+
+    @Test
+    void fanOutRunsOnPooledPlatformThreadsWithoutVirtualThreads() throws Exception {
+        ExecutorService executor = executionConfig.fanOutExecutor(2, provider(null));
+
+        try {
+            assertThat(threadName(executor)).startsWith("fan-out-");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void fanOutUsesThePerTaskExecutorWhenVirtualThreadsAreAvailable() throws Exception {
+        VirtualThreadExecutors perTask = name -> Executors.newCachedThreadPool(runnable -> new Thread(runnable, name + "-per-task"));
+        ExecutorService executor = executionConfig.fanOutExecutor(2, provider(perTask));
+
+        try {
+            assertThat(threadName(executor)).isEqualTo("fan-out-per-task");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<VirtualThreadExecutors> provider(VirtualThreadExecutors executors) {
+        ObjectProvider<VirtualThreadExecutors> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(executors);
+        return provider;
+    }
+
+    private static String threadName(ExecutorService executor) throws Exception {
+        return CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), executor).get(5, TimeUnit.SECONDS);
+    }
+}
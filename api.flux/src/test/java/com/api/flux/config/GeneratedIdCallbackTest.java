@@ -0,0 +1,70 @@
+package com.api.flux.config;
+
+import com.api.flux.entity.Expense;
+import com.api.flux.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeneratedIdCallbackTest {
+    private static final UUID GENERATED = UUID.fromString("01900000-0000-7000-8000-000000000001");
+
+    private GeneratedIdCallback callback;
+
+    @BeforeEach
+    void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        callback = new GeneratedIdCallback(() -> GENERATED, mappingContext);
+    }
+
+    @Test
+    void assignsGeneratedIdToNewDocuments() {
+        Expense expense = new Expense();
+
+        callback.onBeforeConvert(expense, "expenses");
+
+        assertThat(expense.getId()).isEqualTo(GENERATED);
+    }
+
+    @Test
+    void assignsGeneratedIdToNewUsers() {
+        User user = new User();
+
+        callback.onBeforeConvert(user, "users");
+
+        assertThat(user.getId()).isEqualTo(GENERATED);
+    }
+
+    @Test
+    void keepsExistingIds() {
+        UUID existing = UUID.randomUUID();
+        Expense expense = new Expense();
+        expense.setId(existing);
+
+        callback.onBeforeConvert(expense, "expenses");
+
+        assertThat(expense.getId()).isEqualTo(existing);
+    }
+
+    @Test
+    void ignoresDocumentsWithoutUuidIds() {
+        StringIdDocument document = new StringIdDocument();
+
+        callback.onBeforeConvert(document, "documents");
+
+        assertThat(document.id).isNull();
+    }
+
+    static class StringIdDocument {
+        @Id
+        String id;
+    }
+}
@@ -0,0 +1,84 @@
+package com.api.flux.config;
+
+import com.api.flux.entity.LucAIHistoryBucket;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MongoIndexInitializerTest {
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final IndexOperations indexOperations = mock(IndexOperations.class);
+    private MongoIndexInitializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mappingContext.setInitialEntitySet(Set.of(LucAIHistoryBucket.class));
+        mappingContext.afterPropertiesSet();
+
+        when(mongoTemplate.indexOps("lucai_history_buckets")).thenReturn(indexOperations);
+        initializer = new MongoIndexInitializer(mongoTemplate, mappingContext, mock(QueryPlanVerifier.class));
+        ReflectionTestUtils.setField(initializer, "ensureOnStartup", true);
+        ReflectionTestUtils.setField(initializer, "failOnError", false);
+    }
+
+    @Test
+    void toleratesFailedSecondaryIndexesWhenNotFailingOnError() {
+        when(indexOperations.createIndex(argThat(named("userId_seq_lastTurnAt")))).thenThrow(new IllegalStateException("boom"));
+
+        assertThatCode(initializer::initializeIndexes).doesNotThrowAnyException();
+    }
+
+    @Test
+    void failsStartupWhenAUniqueIndexCannotBeCreated() {
+        when(indexOperations.createIndex(argThat(named("userId_seq_unique")))).thenThrow(new IllegalStateException("duplicate key"));
+
+        assertThatThrownBy(initializer::initializeIndexes)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("userId_seq_unique");
+    }
+
+    @Test
+    void requiresUniqueIndexesWhenNotEnsuringThem() {
+        ReflectionTestUtils.setField(initializer, "ensureOnStartup", false);
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(index("_id_"), index("userId_seq_lastTurnAt")));
+
+        assertThatThrownBy(initializer::initializeIndexes)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("userId_seq_unique");
+    }
+
+    @Test
+    void acceptsExistingUniqueIndexesWhenNotEnsuringThem() {
+        ReflectionTestUtils.setField(initializer, "ensureOnStartup", false);
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(index("_id_"), index("userId_seq_unique")));
+
+        assertThatCode(initializer::initializeIndexes).doesNotThrowAnyException();
+    }
+
+    private static ArgumentMatcher<IndexDefinition> named(String name) {
+        return definition -> definition != null && name.equals(definition.getIndexOptions().getString("name"));
+    }
+
+    private static IndexInfo index(String name) {
+        return IndexInfo.indexInfoOf(new Document("name", name).append("key", new Document("_id", 1)));
+    }
+}
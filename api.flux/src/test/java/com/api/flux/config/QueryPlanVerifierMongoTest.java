@@ -0,0 +1,70 @@
+package com.api.flux.config;
+
+import com.api.flux.entity.Balance;
+import com.api.flux.entity.Expense;
+import com.api.flux.entity.Income;
+import com.api.flux.entity.LucAI;
+import com.api.flux.entity.LucAIHistoryBucket;
+import com.api.flux.entity.User;
+import com.api.flux.support.MongoIntegrationTest;
+import com.api.flux.support.MongoTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MongoIntegrationTest
+class QueryPlanVerifierMongoTest {
+    private static final List<Class<?>> ENTITIES = List.of(
+            Expense.class, Income.class, User.class, Balance.class, LucAI.class, LucAIHistoryBucket.class);
+
+    private MongoTestDatabase database;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = MongoTestDatabase.create();
+        mongoTemplate = database.template();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void declaredIndexesServeEveryVerifiedQuery() {
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (Class<?> entityType : ENTITIES) {
+            MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(entityType);
+            mongoTemplate.createCollection(entity.getCollection());
+            resolver.resolveIndexFor(entity.getTypeInformation())
+                    .forEach(index -> mongoTemplate.indexOps(entity.getCollection()).createIndex(index));
+        }
+
+        QueryPlanVerifier verifier = new QueryPlanVerifier(mongoTemplate, mappingContext);
+
+        assertThat(verifier.findUnindexedQueries()).isEmpty();
+    }
+
+    @Test
+    void reportsQueriesWithoutIndexes() {
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        for (Class<?> entityType : ENTITIES) {
+            mongoTemplate.createCollection(mappingContext.getRequiredPersistentEntity(entityType).getCollection());
+        }
+
+        QueryPlanVerifier verifier = new QueryPlanVerifier(mongoTemplate, mappingContext);
+
+        assertThat(verifier.findUnindexedQueries()).contains("Expense.findByUserId", "User.findByEmail");
+    }
+}
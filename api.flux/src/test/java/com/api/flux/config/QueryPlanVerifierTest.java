@@ -0,0 +1,74 @@
+package com.api.flux.config;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryPlanVerifierTest {
+
+    @Test
+    void indexScanWithoutBlockingSortPasses() {
+        Document explain = explain(stage("FETCH", stage("IXSCAN", null)));
+
+        assertThat(unindexed(explain)).isFalse();
+    }
+
+    @Test
+    void collectionScanFails() {
+        Document explain = explain(stage("COLLSCAN", null));
+
+        assertThat(unindexed(explain)).isTrue();
+    }
+
+    @Test
+    void inMemorySortAboveIndexScanFails() {
+        Document explain = explain(stage("SORT", stage("FETCH", stage("IXSCAN", null))));
+
+        assertThat(unindexed(explain)).isTrue();
+    }
+
+    @Test
+    void rejectedPlansAreIgnored() {
+        Document explain = explain(stage("IXSCAN", null));
+        explain.get("queryPlanner", Document.class).append("rejectedPlans", List.of(stage("COLLSCAN", null)));
+
+        assertThat(unindexed(explain)).isFalse();
+    }
+
+    @Test
+    void findsWinningPlansInsideShardedAndSbeExplainOutput() {
+        Document sharded = new Document("queryPlanner", new Document("winningPlan", new Document("stage", "SHARD_MERGE")
+                .append("shards", List.of(
+                        new Document("winningPlan", stage("IXSCAN", null)),
+                        new Document("winningPlan", new Document("queryPlan", stage("COLLSCAN", null)))))));
+
+        List<Object> winningPlans = new ArrayList<>();
+        QueryPlanVerifier.collectWinningPlans(sharded, winningPlans);
+
+        assertThat(winningPlans).hasSize(1);
+        assertThat(QueryPlanVerifier.containsUnindexedStage(winningPlans.get(0))).isTrue();
+    }
+
+    private static boolean unindexed(Document explain) {
+        List<Object> winningPlans = new ArrayList<>();
+        QueryPlanVerifier.collectWinningPlans(explain, winningPlans);
+        assertThat(winningPlans).isNotEmpty();
+        return winningPlans.stream().anyMatch(QueryPlanVerifier::containsUnindexedStage);
+    }
+
+    private static Document explain(Document winningPlan) {
+        return new Document("queryPlanner", new Document("winningPlan", winningPlan));
+    }
+
+    private static Document stage(String name, Document inputStage) {
+        Document stage = new Document("stage", name);
+        if (inputStage != null) {
+            stage.append("inputStage", inputStage);
+        }
+        return stage;
+    }
+}
@@ -0,0 +1,50 @@
+package com.api.flux.config;
+
+import org.bson.BsonArray;
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.UuidRepresentation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidRepresentationMigrationTest {
+    private static final UUID ID = UUID.fromString("01900000-0000-7abc-8000-000000000001");
+    private static final UUID USER_ID = UUID.fromString("01900000-0000-7def-8000-000000000002");
+
+    @Test
+    void rewritesLegacyUuidsAsStandardWithoutChangingTheirValue() {
+        BsonBinary legacy = new BsonBinary(ID, UuidRepresentation.JAVA_LEGACY);
+
+        BsonBinary standard = UuidRepresentationMigration.toStandard(legacy).asBinary();
+
+        assertThat(standard).isEqualTo(new BsonBinary(ID, UuidRepresentation.STANDARD));
+        assertThat(standard.asUuid()).isEqualTo(ID);
+    }
+
+    @Test
+    void leavesStandardUuidsAndOtherValuesAlone() {
+        BsonBinary standard = new BsonBinary(ID, UuidRepresentation.STANDARD);
+
+        assertThat(UuidRepresentationMigration.toStandard(standard)).isSameAs(standard);
+        assertThat(UuidRepresentationMigration.toStandard(new BsonString("id"))).isEqualTo(new BsonString("id"));
+    }
+
+    @Test
+    void convertsOnlyTheGivenFieldsIncludingArrays() {
+        BsonDocument document = new BsonDocument("_id", new BsonBinary(ID, UuidRepresentation.JAVA_LEGACY))
+                .append("userId", new BsonArray(List.of(new BsonBinary(USER_ID, UuidRepresentation.JAVA_LEGACY))))
+                .append("other", new BsonBinary(USER_ID, UuidRepresentation.JAVA_LEGACY));
+
+        BsonDocument converted = UuidRepresentationMigration.toStandard(document, List.of("_id", "userId"));
+
+        assertThat(converted.getBinary("_id")).isEqualTo(new BsonBinary(ID, UuidRepresentation.STANDARD));
+        assertThat(converted.getArray("userId").get(0)).isEqualTo(new BsonBinary(USER_ID, UuidRepresentation.STANDARD));
+        assertThat(converted.get("other")).isEqualTo(document.get("other"));
+        assertThat(document.getBinary("_id")).isEqualTo(new BsonBinary(ID, UuidRepresentation.JAVA_LEGACY));
+    }
+}
@@ -0,0 +1,49 @@
+package com.api.flux.controller;
+
+import com.api.flux.security.SecurityConfig;
+import com.api.flux.security.TokenService;
+import com.api.flux.security.TokenVersionCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(MetricsController.class)
+@Import(SecurityConfig.class)
+class MetricsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TokenService tokenService;
+
+    @MockitoBean
+    private TokenVersionCache tokenVersionCache;
+
+    @Test
+    void rejectsAnonymousRequests() throws Exception {
+        mockMvc.perform(get("/v1/metrics")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser
+    void rejectsUsersWithoutAdminRole() throws Exception {
+        mockMvc.perform(get("/v1/metrics")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void allowsAdministrators() throws Exception {
+        when(tokenVersionCache.metricsName()).thenReturn("tokenVersionCache");
+
+        mockMvc.perform(get("/v1/metrics")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,66 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.BalanceTotals;
+import com.api.flux.support.MongoIntegrationTest;
+import com.api.flux.support.MongoTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MongoIntegrationTest
+class BalanceTotalsRepositoryMongoTest {
+    private final UUID userId = UUID.randomUUID();
+
+    private MongoTestDatabase database;
+    private MongoTemplate mongoTemplate;
+    private BalanceTotalsRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        database = MongoTestDatabase.create();
+        mongoTemplate = database.template();
+        repository = new BalanceTotalsRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void deltaWithoutTotalsDoesNotCreateThem() {
+        assertThat(repository.applyDelta(userId, BigDecimal.ONE, BigDecimal.ZERO)).isNull();
+        assertThat(mongoTemplate.findById(userId, BalanceTotals.class)).isNull();
+    }
+
+    @Test
+    void deltasIncrementTotalsAndVersion() {
+        repository.replaceTotals(userId, new BigDecimal("100.00"), new BigDecimal("40.00"), null);
+
+        BalanceTotals updated = repository.applyDelta(userId, new BigDecimal("0.10"), new BigDecimal("-0.20"));
+
+        assertThat(updated.getTotalIncome()).isEqualByComparingTo("100.10");
+        assertThat(updated.getTotalExpense()).isEqualByComparingTo("39.80");
+        assertThat(updated.getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void replaceOnlySucceedsForTheObservedVersion() {
+        BalanceTotals created = repository.replaceTotals(userId, BigDecimal.TEN, BigDecimal.ONE, null);
+        repository.applyDelta(userId, BigDecimal.ONE, BigDecimal.ZERO);
+
+        assertThat(repository.replaceTotals(userId, BigDecimal.TEN, BigDecimal.ONE, created.getVersion())).isNull();
+
+        BalanceTotals current = mongoTemplate.findById(userId, BalanceTotals.class);
+        BalanceTotals replaced = repository.replaceTotals(userId, BigDecimal.TEN, BigDecimal.ONE, current.getVersion());
+        assertThat(replaced.getVersion()).isEqualTo(current.getVersion() + 1);
+        assertThat(replaced.getTotalIncome()).isEqualByComparingTo("10");
+        assertThat(replaced.getReconciledAt()).isNotNull();
+    }
+}
@@ -0,0 +1,108 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.Expense;
+import com.api.flux.enums.ExpenseCategory;
+import com.api.flux.support.MongoIntegrationTest;
+import com.api.flux.support.MongoTestDatabase;
+import com.api.flux.utils.CursorSlice;
+import com.api.flux.utils.KeysetCursor;
+import org.bson.BsonBinary;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MongoIntegrationTest
+class ExpenseRepositoryMongoTest {
+    private final UUID userId = UUID.randomUUID();
+
+    private MongoTestDatabase database;
+    private MongoTemplate mongoTemplate;
+    private ExpenseRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        database = MongoTestDatabase.create();
+        mongoTemplate = database.template();
+
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(Expense.class);
+        new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(entity.getTypeInformation())
+                .forEach(index -> mongoTemplate.indexOps(entity.getCollection()).createIndex(index));
+
+        repository = new ExpenseRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void keysetPagesVisitEveryRowOnceAcrossTiesAndNulls() {
+        List<Expense> expenses = new ArrayList<>();
+        for (String amount : new String[]{"10", "10", "10", "5", "5", "1", null}) {
+            expenses.add(mongoTemplate.insert(expense(amount)));
+        }
+        Expense otherUser = new Expense(UUID.randomUUID(), "other user", null, ExpenseCategory.HOUSING,
+                BigDecimal.TEN, Instant.now());
+        otherUser.setId(UUID.randomUUID());
+        mongoTemplate.insert(otherUser);
+
+        List<Expense> visited = new ArrayList<>();
+        KeysetCursor after = null;
+        do {
+            CursorSlice<Expense> slice = repository.findSliceByUserId(userId, null, null, "amount",
+                    Sort.Direction.DESC, after, 2);
+            visited.addAll(slice.content());
+            after = slice.cursor().nextCursor() == null ? null : KeysetCursor.decode(slice.cursor().nextCursor());
+        } while (after != null);
+
+        assertThat(visited).extracting(Expense::getId)
+                .containsExactlyElementsOf(expenses.stream()
+                        .sorted(Comparator.comparing(Expense::getAmount, Comparator.nullsFirst(Comparator.<BigDecimal>naturalOrder()))
+                                .thenComparing(Expense::getId, this::compareAsStored)
+                                .reversed())
+                        .map(Expense::getId)
+                        .toList());
+    }
+
+    @Test
+    void sumsDecimalAndLegacyStringAmounts() {
+        mongoTemplate.insert(expense("10.10"));
+        mongoTemplate.insert(expense("0.20"));
+        mongoTemplate.getCollection("expenses").insertOne(new Document("_id", UUID.randomUUID())
+                .append("userId", userId)
+                .append("amount", "5.00"));
+
+        assertThat(repository.sumAmountByUserId(userId)).isEqualByComparingTo("15.30");
+    }
+
+    private Expense expense(String amount) {
+        Expense expense = new Expense(userId, "expense", null, ExpenseCategory.HOUSING,
+                amount == null ? null : new BigDecimal(amount), Instant.now());
+        expense.setId(UUID.randomUUID());
+        return expense;
+    }
+
+    // Binary UUIDs sort byte by byte in their stored encoding, unlike UUID.compareTo.
+    private int compareAsStored(UUID left, UUID right) {
+        return Arrays.compareUnsigned(new BsonBinary(left, database.uuidRepresentation()).getData(),
+                new BsonBinary(right, database.uuidRepresentation()).getData());
+    }
+}
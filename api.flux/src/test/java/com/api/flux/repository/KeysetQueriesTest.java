@@ -0,0 +1,166 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.Expense;
+import com.api.flux.enums.ExpenseCategory;
+import com.api.flux.utils.CursorSlice;
+import com.api.flux.utils.KeysetCursor;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KeysetQueriesTest {
+    private final UUID userId = UUID.randomUUID();
+
+    private MongoTemplate mongoTemplate;
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+    }
+
+    @Test
+    void firstPageSortsByFieldThenIdAndFetchesOneExtraRow() {
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenReturn(List.of(expense("10"), expense("5")));
+
+        CursorSlice<Expense> slice = findSlice(null, 2);
+
+        Query query = capturedQuery();
+        assertThat(query.getLimit()).isEqualTo(3);
+        assertThat(query.getSortObject()).isEqualTo(new Document("amount", -1).append("id", -1));
+        assertThat(query.getQueryObject()).isEqualTo(new Document("userId", userId));
+        assertThat(slice.cursor().hasNext()).isFalse();
+        assertThat(slice.cursor().nextCursor()).isNull();
+    }
+
+    @Test
+    void fullPageReturnsCursorForLastReturnedRow() {
+        Expense first = expense("10");
+        Expense second = expense("5");
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenReturn(List.of(first, second, expense("1")));
+
+        CursorSlice<Expense> slice = findSlice(null, 2);
+
+        assertThat(slice.content()).containsExactly(first, second);
+        assertThat(slice.cursor().hasNext()).isTrue();
+        assertThat(KeysetCursor.decode(slice.cursor().nextCursor()))
+                .isEqualTo(new KeysetCursor("amount", Sort.Direction.DESC, second.getId(), "5"));
+    }
+
+    @Test
+    void descendingSeekBreaksTiesOnIdAndIncludesNullValues() {
+        UUID lastId = UUID.randomUUID();
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenReturn(List.of());
+
+        findSlice(new KeysetCursor("amount", Sort.Direction.DESC, lastId, "5"), 2);
+
+        Document seek = seekOf(capturedQuery());
+        assertThat(seek.getList("$or", Document.class)).containsExactly(
+                new Document("amount", new Document("$lt", new BigDecimal("5"))),
+                new Document("amount", new BigDecimal("5")).append("id", new Document("$lt", lastId)),
+                new Document("amount", null));
+    }
+
+    @Test
+    void ascendingSeekFromNullValueMovesPastNulls() {
+        UUID lastId = UUID.randomUUID();
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenReturn(List.of());
+
+        KeysetQueries.findSlice(mongoTemplate, Expense.class, Criteria.where("userId").is(userId), "title",
+                Sort.Direction.ASC, new KeysetCursor("title", Sort.Direction.ASC, lastId, null), 2);
+
+        Document seek = seekOf(capturedQuery());
+        assertThat(seek.getList("$or", Document.class)).containsExactly(
+                new Document("title", null).append("id", new Document("$gt", lastId)),
+                new Document("title", new Document("$ne", null)));
+    }
+
+    @Test
+    void seekValuesAreMappedToDecimal128AndIdToUnderscoreId() {
+        UUID lastId = UUID.randomUUID();
+        when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenReturn(List.of());
+
+        findSlice(new KeysetCursor("amount", Sort.Direction.DESC, lastId, "5"), 2);
+
+        QueryMapper queryMapper = new QueryMapper(converter);
+        Document mapped = queryMapper.getMappedObject(seekOf(capturedQuery()),
+                converter.getMappingContext().getRequiredPersistentEntity(Expense.class));
+        List<Document> alternatives = mapped.getList("$or", Document.class);
+
+        assertThat(alternatives.get(0)).isEqualTo(new Document("amount", new Document("$lt", new Decimal128(new BigDecimal("5")))));
+        assertThat(alternatives.get(1).get("amount")).isEqualTo(new Decimal128(new BigDecimal("5")));
+        assertThat(alternatives.get(1)).containsKey("_id");
+    }
+
+    @Test
+    void amountsAreWrittenAsDecimal128() {
+        Document document = new Document();
+
+        converter.write(expense("12.34"), document);
+
+        assertThat(document.get("amount")).isEqualTo(new Decimal128(new BigDecimal("12.34")));
+    }
+
+    @Test
+    void tamperedCursorValueIsRejected() {
+        KeysetCursor tampered = new KeysetCursor("amount", Sort.Direction.DESC, UUID.randomUUID(), "not-a-number");
+
+        assertThatThrownBy(() -> findSlice(tampered, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private CursorSlice<Expense> findSlice(KeysetCursor after, int size) {
+        return KeysetQueries.findSlice(mongoTemplate, Expense.class, Criteria.where("userId").is(userId),
+                "amount", Sort.Direction.DESC, after, size);
+    }
+
+    private Query capturedQuery() {
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(Expense.class));
+        return captor.getValue();
+    }
+
+    private Document seekOf(Query query) {
+        List<Document> and = query.getQueryObject().getList("$and", Document.class);
+        assertThat(and).hasSize(2);
+        assertThat(and.get(0)).isEqualTo(new Document("userId", userId));
+        return and.get(1);
+    }
+
+    private Expense expense(String amount) {
+        Expense expense = new Expense(userId, "title", null, ExpenseCategory.HOUSING, new BigDecimal(amount), Instant.now());
+        expense.setId(UUID.randomUUID());
+        return expense;
+    }
+}
@@ -0,0 +1,152 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.LucAI;
+import com.api.flux.entity.LucAIHistoryBucket;
+import com.api.flux.entity.LucAIPrompt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LucaAIRepositoryCustomImplTest {
+    private static final int BUCKET_SIZE = 3;
+
+    private final UUID userId = UUID.randomUUID();
+    private final LucAIPrompt turn = new LucAIPrompt("hi", "hello", Instant.now());
+
+    private MongoTemplate mongoTemplate;
+    private LucaAIRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        repository = new LucaAIRepositoryCustomImpl(mongoTemplate, UUID::randomUUID);
+    }
+
+    @Test
+    void firstTurnOpensBucketZero() {
+        repository.appendTurn(userId, turn, BUCKET_SIZE);
+
+        assertThat(bucketSeqs()).containsExactly(0L);
+        verify(mongoTemplate).upsert(any(Query.class), any(UpdateDefinition.class), eq(LucAI.class));
+    }
+
+    @Test
+    void appendsToLatestBucketWhileItHasRoom() {
+        givenLatestBuckets(bucket(4, BUCKET_SIZE - 1));
+
+        repository.appendTurn(userId, turn, BUCKET_SIZE);
+
+        assertThat(bucketSeqs()).containsExactly(4L);
+    }
+
+    @Test
+    void opensNextBucketWhenLatestIsFull() {
+        givenLatestBuckets(bucket(4, BUCKET_SIZE));
+
+        repository.appendTurn(userId, turn, BUCKET_SIZE);
+
+        assertThat(bucketSeqs()).containsExactly(5L);
+    }
+
+    @Test
+    void retriesWithFreshSeqAfterConcurrentAppend() {
+        givenLatestBuckets(bucket(4, BUCKET_SIZE - 1), bucket(4, BUCKET_SIZE));
+        when(mongoTemplate.upsert(any(Query.class), any(UpdateDefinition.class), eq(LucAIHistoryBucket.class)))
+                .thenThrow(new DuplicateKeyException("userId_seq_unique"))
+                .thenReturn(null);
+
+        repository.appendTurn(userId, turn, BUCKET_SIZE);
+
+        assertThat(bucketSeqs()).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void givesUpAfterRepeatedConflicts() {
+        when(mongoTemplate.upsert(any(Query.class), any(UpdateDefinition.class), eq(LucAIHistoryBucket.class)))
+                .thenThrow(new DuplicateKeyException("userId_seq_unique"));
+
+        assertThatThrownBy(() -> repository.appendTurn(userId, turn, BUCKET_SIZE))
+                .isInstanceOf(DuplicateKeyException.class);
+        verify(mongoTemplate, times(5)).upsert(any(Query.class), any(UpdateDefinition.class), eq(LucAIHistoryBucket.class));
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(UpdateDefinition.class), eq(LucAI.class));
+    }
+
+    @Test
+    void headerUpsertRetriesOnceAfterConcurrentInsert() {
+        when(mongoTemplate.upsert(any(Query.class), any(UpdateDefinition.class), eq(LucAI.class)))
+                .thenThrow(new DuplicateKeyException("userId_unique"))
+                .thenReturn(null);
+
+        repository.appendTurn(userId, turn, BUCKET_SIZE);
+
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), any(UpdateDefinition.class), eq(LucAI.class));
+    }
+
+    @Test
+    void recentTurnsComeFromNewestBucketsThenLegacyHistoryInChronologicalOrder() {
+        LucAIPrompt legacy = prompt("legacy");
+        LucAIPrompt first = prompt("first");
+        LucAIPrompt second = prompt("second");
+        LucAIPrompt third = prompt("third");
+
+        LucAIHistoryBucket newest = bucket(1, 1);
+        newest.setTurns(List.of(third));
+        LucAIHistoryBucket older = bucket(0, 2);
+        older.setTurns(List.of(first, second));
+        when(mongoTemplate.stream(any(Query.class), eq(LucAIHistoryBucket.class))).thenReturn(Stream.of(newest, older));
+
+        LucAI header = new LucAI();
+        header.setConversationHistory(List.of(legacy));
+        when(mongoTemplate.findOne(any(Query.class), eq(LucAI.class))).thenReturn(header);
+
+        assertThat(repository.findRecentTurns(userId, 4)).containsExactly(legacy, first, second, third);
+        assertThat(repository.findRecentTurns(userId, 0)).isEmpty();
+    }
+
+    private void givenLatestBuckets(LucAIHistoryBucket first, LucAIHistoryBucket... rest) {
+        when(mongoTemplate.findOne(any(Query.class), eq(LucAIHistoryBucket.class))).thenReturn(first, rest);
+    }
+
+    private List<Long> bucketSeqs() {
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, atLeastOnce())
+                .upsert(captor.capture(), any(UpdateDefinition.class), eq(LucAIHistoryBucket.class));
+
+        List<Long> seqs = new ArrayList<>();
+        captor.getAllValues().forEach(query -> seqs.add(query.getQueryObject().getLong("seq")));
+        return seqs;
+    }
+
+    private LucAIHistoryBucket bucket(long seq, int count) {
+        LucAIHistoryBucket bucket = new LucAIHistoryBucket();
+        bucket.setUserId(userId);
+        bucket.setSeq(seq);
+        bucket.setCount(count);
+        return bucket;
+    }
+
+    private static LucAIPrompt prompt(String message) {
+        return new LucAIPrompt(message, "answer", Instant.now());
+    }
+}
@@ -0,0 +1,136 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.LucAI;
+import com.api.flux.entity.LucAIHistoryBucket;
+import com.api.flux.entity.LucAIPrompt;
+import com.api.flux.support.MongoIntegrationTest;
+import com.api.flux.support.MongoTestDatabase;
+import com.api.flux.utils.UuidV7Generator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MongoIntegrationTest
+class LucaAIRepositoryMongoTest {
+    private static final int BUCKET_SIZE = 5;
+
+    private final UUID userId = UUID.randomUUID();
+
+    private MongoTestDatabase database;
+    private MongoTemplate mongoTemplate;
+    private LucaAIRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        database = MongoTestDatabase.create();
+        mongoTemplate = database.template();
+
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (Class<?> entityType : List.of(LucAI.class, LucAIHistoryBucket.class)) {
+            MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(entityType);
+            resolver.resolveIndexFor(entity.getTypeInformation())
+                    .forEach(index -> mongoTemplate.indexOps(entity.getCollection()).createIndex(index));
+        }
+
+        repository = new LucaAIRepositoryCustomImpl(mongoTemplate, new UuidV7Generator());
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void concurrentAppendsFillOneBucketAtATime() throws Exception {
+        int writers = 4;
+        int turnsPerWriter = 15;
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int writer = 0; writer < writers; writer++) {
+                int writerId = writer;
+                futures.add(executor.submit(() -> {
+                    for (int index = 0; index < turnsPerWriter; index++) {
+                        repository.appendTurn(userId, new LucAIPrompt(writerId + "-" + index, "ok", Instant.now()), BUCKET_SIZE);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<LucAIHistoryBucket> buckets = mongoTemplate.find(
+                Query.query(Criteria.where("userId").is(userId)), LucAIHistoryBucket.class);
+        int totalTurns = writers * turnsPerWriter;
+
+        assertThat(buckets).hasSize(totalTurns / BUCKET_SIZE);
+        assertThat(buckets).extracting(LucAIHistoryBucket::getSeq).doesNotHaveDuplicates();
+        assertThat(buckets).allSatisfy(bucket -> assertThat(bucket.getCount()).isEqualTo(BUCKET_SIZE));
+        assertThat(mongoTemplate.count(Query.query(Criteria.where("userId").is(userId)), LucAI.class)).isEqualTo(1);
+        assertThat(repository.findRecentTurns(userId, totalTurns)).hasSize(totalTurns);
+    }
+
+    @Test
+    void recentTurnsAreReturnedInAppendOrder() {
+        for (int index = 0; index < 7; index++) {
+            repository.appendTurn(userId, new LucAIPrompt("turn-" + index, "ok", Instant.now()), BUCKET_SIZE);
+        }
+
+        assertThat(repository.findRecentTurns(userId, 3)).extracting(LucAIPrompt::getUserMessage)
+                .containsExactly("turn-4", "turn-5", "turn-6");
+    }
+
+    @Test
+    void onlyOneInstanceCanClaimASummary() {
+        repository.appendTurn(userId, new LucAIPrompt("hi", "hello", Instant.now()), BUCKET_SIZE);
+        Instant now = Instant.now();
+        UUID firstClaim = UUID.randomUUID();
+        UUID secondClaim = UUID.randomUUID();
+
+        assertThat(repository.claimSummary(userId, null, firstClaim, now, Duration.ofMinutes(5))).isTrue();
+        assertThat(repository.claimSummary(userId, null, secondClaim, now, Duration.ofMinutes(5))).isFalse();
+
+        assertThat(repository.saveSummary(userId, secondClaim, "lost", null, 0, now)).isFalse();
+        assertThat(repository.saveSummary(userId, firstClaim, "kept", null, 0, now)).isTrue();
+        assertThat(repository.findHeaderByUserId(userId)).get()
+                .satisfies(header -> {
+                    assertThat(header.getConversationSummary()).isEqualTo("kept");
+                    assertThat(header.getSummaryClaimId()).isNull();
+                });
+    }
+
+    @Test
+    void expiredClaimCanBeTakenOver() {
+        repository.appendTurn(userId, new LucAIPrompt("hi", "hello", Instant.now()), BUCKET_SIZE);
+        Instant now = Instant.now();
+        UUID staleClaim = UUID.randomUUID();
+        UUID freshClaim = UUID.randomUUID();
+
+        assertThat(repository.claimSummary(userId, null, staleClaim, now.minus(Duration.ofMinutes(10)), Duration.ofMinutes(5)))
+                .isTrue();
+        assertThat(repository.claimSummary(userId, null, freshClaim, now, Duration.ofMinutes(5))).isTrue();
+        assertThat(repository.saveSummary(userId, staleClaim, "stale", null, 0, now)).isFalse();
+    }
+}
@@ -0,0 +1,55 @@
+package com.api.flux.repository;
+
+import com.api.flux.entity.User;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserRepositoryCustomImplTest {
+    private final UUID userId = UUID.randomUUID();
+
+    private MongoTemplate mongoTemplate;
+    private UserRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        repository = new UserRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @Test
+    void incrementsOnlyTheExpectedTokenVersion() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertThat(repository.incrementTokenVersion(userId, 4)).isTrue();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(User.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("_id", userId).containsEntry("tokenVersion", 4L);
+        assertThat(update.getValue().getUpdateObject()).containsEntry("$inc", new Document("tokenVersion", 1));
+    }
+
+    @Test
+    void reportsStaleVersions() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertThat(repository.incrementTokenVersion(userId, 3)).isFalse();
+    }
+}
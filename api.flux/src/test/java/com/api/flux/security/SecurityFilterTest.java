@@ -0,0 +1,130 @@
+package com.api.flux.security;
+
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SecurityFilterTest {
+    private static final String TOKEN = "token";
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID adminId = UUID.randomUUID();
+    private TokenService tokenService;
+    private TokenVersionCache tokenVersionCache;
+    private SecurityFilter securityFilter;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = mock(TokenService.class);
+        tokenVersionCache = mock(TokenVersionCache.class);
+        securityFilter = new SecurityFilter(tokenService, tokenVersionCache, adminId + ", ");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesTokenWithCurrentVersion() throws Exception {
+        givenToken(userId, 2L);
+        when(tokenVersionCache.currentVersion(userId)).thenReturn(2L);
+
+        Authentication authentication = filter();
+
+        assertThat(authentication).isNotNull();
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(userId);
+        assertThat(principal.getUsername()).isEqualTo("user@example.com");
+        assertThat(authentication.getAuthorities()).isEmpty();
+    }
+
+    @Test
+    void rejectsRevokedTokenVersion() throws Exception {
+        givenToken(userId, 2L);
+        when(tokenVersionCache.currentVersion(userId)).thenReturn(3L);
+
+        assertThat(filter()).isNull();
+        verify(tokenVersionCache, never()).refresh(userId);
+    }
+
+    @Test
+    void refreshesCachedVersionWhenTokenIsNewer() throws Exception {
+        givenToken(userId, 4L);
+        when(tokenVersionCache.currentVersion(userId)).thenReturn(3L);
+        when(tokenVersionCache.refresh(userId)).thenReturn(4L);
+
+        assertThat(filter()).isNotNull();
+    }
+
+    @Test
+    void rejectsTokenForUnknownUser() throws Exception {
+        givenToken(userId, 0L);
+        when(tokenVersionCache.currentVersion(userId)).thenReturn(null);
+
+        assertThat(filter()).isNull();
+    }
+
+    @Test
+    void rejectsTokenWithoutUserIdClaim() throws Exception {
+        DecodedJWT decodedJWT = givenToken(userId, 0L);
+        Claim missing = mock(Claim.class);
+        when(missing.isMissing()).thenReturn(true);
+        when(decodedJWT.getClaim(TokenService.USER_ID_CLAIM)).thenReturn(missing);
+
+        assertThat(filter()).isNull();
+        verify(tokenVersionCache, never()).currentVersion(any());
+    }
+
+    @Test
+    void grantsAdminRoleToConfiguredUsers() throws Exception {
+        givenToken(adminId, 0L);
+        when(tokenVersionCache.currentVersion(adminId)).thenReturn(0L);
+
+        Authentication authentication = filter();
+
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+    }
+
+    private DecodedJWT givenToken(UUID id, Long version) {
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        Claim userIdClaim = mock(Claim.class);
+        Claim versionClaim = mock(Claim.class);
+
+        when(userIdClaim.asString()).thenReturn(id.toString());
+        when(versionClaim.asLong()).thenReturn(version);
+        when(decodedJWT.getSubject()).thenReturn("user@example.com");
+        when(decodedJWT.getClaim(TokenService.USER_ID_CLAIM)).thenReturn(userIdClaim);
+        when(decodedJWT.getClaim(TokenService.TOKEN_VERSION_CLAIM)).thenReturn(versionClaim);
+        when(tokenService.verifyToken(TOKEN)).thenReturn(decodedJWT);
+        return decodedJWT;
+    }
+
+    private Authentication filter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/expenses");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        MockFilterChain chain = new MockFilterChain();
+
+        securityFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,58 @@
+package com.api.flux.security;
+
+import com.api.flux.entity.User;
+import com.auth0.jwt.JWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenServiceTest {
+    private static final Map<String, String> SECRETS = Map.of("a", "secret-a", "b", "secret-b");
+
+    private JwtKeyRing keyRing;
+    private TokenService tokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        keyRing = new JwtKeyRing("", "a:secret-a,b:secret-b", "a", "");
+        tokenService = new TokenService(keyRing);
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("user@flux.test");
+    }
+
+    @Test
+    void signsWithTheActiveKeyAndKeepsOlderTokensVerifiable() {
+        String before = tokenService.generateToken(user);
+        keyRing.rotate(SECRETS, "b");
+        String after = tokenService.generateToken(user);
+
+        assertThat(JWT.decode(before).getKeyId()).isEqualTo("a");
+        assertThat(JWT.decode(after).getKeyId()).isEqualTo("b");
+        assertThat(tokenService.verifyToken(before)).isNotNull();
+        assertThat(tokenService.verifyToken(after)).isNotNull();
+    }
+
+    @Test
+    void tokensSignedDuringRotationCarryTheKeyIdTheyWereSignedWith() {
+        CompletableFuture<Void> rotations = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 500; i++) {
+                keyRing.rotate(SECRETS, i % 2 == 0 ? "b" : "a");
+            }
+        });
+
+        int signed = 0;
+        while (!rotations.isDone() || signed == 0) {
+            assertThat(tokenService.verifyToken(tokenService.generateToken(user))).isNotNull();
+            signed++;
+        }
+        rotations.join();
+    }
+}
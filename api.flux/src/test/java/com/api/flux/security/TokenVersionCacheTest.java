@@ -0,0 +1,76 @@
+package com.api.flux.security;
+
+import com.api.flux.entity.User;
+import com.api.flux.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenVersionCacheTest {
+    private final UUID userId = UUID.randomUUID();
+    private UserRepository userRepository;
+    private TokenVersionCache tokenVersionCache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        tokenVersionCache = new TokenVersionCache(userRepository, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void loadsVersionOnceWhileCached() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(userWithVersion(3)));
+
+        assertThat(tokenVersionCache.currentVersion(userId)).isEqualTo(3L);
+        assertThat(tokenVersionCache.currentVersion(userId)).isEqualTo(3L);
+
+        verify(userRepository, times(1)).findById(userId);
+    }
+
+    @Test
+    void evictReloadsRevokedVersion() {
+        when(userRepository.findById(userId))
+                .thenReturn(Optional.of(userWithVersion(3)))
+                .thenReturn(Optional.of(userWithVersion(4)));
+
+        assertThat(tokenVersionCache.currentVersion(userId)).isEqualTo(3L);
+        tokenVersionCache.evict(userId);
+
+        assertThat(tokenVersionCache.currentVersion(userId)).isEqualTo(4L);
+    }
+
+    @Test
+    void refreshBypassesCachedVersion() {
+        when(userRepository.findById(userId))
+                .thenReturn(Optional.of(userWithVersion(3)))
+                .thenReturn(Optional.of(userWithVersion(5)));
+
+        tokenVersionCache.currentVersion(userId);
+
+        assertThat(tokenVersionCache.refresh(userId)).isEqualTo(5L);
+        assertThat(tokenVersionCache.currentVersion(userId)).isEqualTo(5L);
+    }
+
+    @Test
+    void unknownUserHasNoVersion() {
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        assertThat(tokenVersionCache.currentVersion(userId)).isNull();
+    }
+
+    private User userWithVersion(long version) {
+        User user = new User();
+        user.setId(userId);
+        user.setTokenVersion(version);
+        return user;
+    }
+}
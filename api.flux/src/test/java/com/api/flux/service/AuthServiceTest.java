@@ -0,0 +1,69 @@
+package com.api.flux.service;
+
+import com.api.flux.repository.UserRepository;
+import com.api.flux.security.TokenService;
+import com.api.flux.security.TokenVersionCache;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+    private final UUID userId = UUID.randomUUID();
+
+    private UserRepository userRepository;
+    private TokenService tokenService;
+    private TokenVersionCache tokenVersionCache;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        tokenService = mock(TokenService.class);
+        tokenVersionCache = mock(TokenVersionCache.class);
+        authService = new AuthService(userRepository, tokenService, mock(PasswordEncoder.class), tokenVersionCache);
+    }
+
+    @Test
+    void logoutRevokesTheTokenVersionItWasIssuedWith() {
+        givenToken(5L);
+        when(userRepository.incrementTokenVersion(userId, 5L)).thenReturn(true);
+
+        assertThat(authService.logout("Bearer token").getStatusCode().is2xxSuccessful()).isTrue();
+
+        verify(userRepository).incrementTokenVersion(userId, 5L);
+        verify(tokenVersionCache).evict(userId);
+    }
+
+    @Test
+    void logoutWithAnInvalidTokenRevokesNothing() {
+        when(tokenService.verifyToken("token")).thenReturn(null);
+
+        assertThat(authService.logout("Bearer token").getStatusCode().is2xxSuccessful()).isTrue();
+
+        verify(userRepository, never()).incrementTokenVersion(any(), anyLong());
+        verify(tokenVersionCache, never()).evict(any());
+    }
+
+    private void givenToken(long version) {
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        Claim userIdClaim = mock(Claim.class);
+        Claim versionClaim = mock(Claim.class);
+        when(userIdClaim.asString()).thenReturn(userId.toString());
+        when(versionClaim.asLong()).thenReturn(version);
+        when(decodedJWT.getClaim(TokenService.USER_ID_CLAIM)).thenReturn(userIdClaim);
+        when(decodedJWT.getClaim(TokenService.TOKEN_VERSION_CLAIM)).thenReturn(versionClaim);
+        when(tokenService.verifyToken("token")).thenReturn(decodedJWT);
+    }
+}
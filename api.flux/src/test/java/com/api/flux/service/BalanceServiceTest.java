@@ -0,0 +1,160 @@
+package com.api.flux.service;
+
+import com.api.flux.entity.Balance;
+import com.api.flux.entity.BalanceTotals;
+import com.api.flux.repository.BalanceRepository;
+import com.api.flux.repository.BalanceTotalsRepository;
+import com.api.flux.repository.ExpenseRepository;
+import com.api.flux.repository.IncomeRepository;
+import com.api.flux.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BalanceServiceTest {
+    private final UUID userId = UUID.randomUUID();
+
+    private BalanceRepository balanceRepository;
+    private BalanceTotalsRepository balanceTotalsRepository;
+    private IncomeRepository incomeRepository;
+    private ExpenseRepository expenseRepository;
+    private BalanceService balanceService;
+
+    @BeforeEach
+    void setUp() {
+        balanceRepository = mock(BalanceRepository.class);
+        balanceTotalsRepository = mock(BalanceTotalsRepository.class);
+        incomeRepository = mock(IncomeRepository.class);
+        expenseRepository = mock(ExpenseRepository.class);
+        balanceService = new BalanceService(balanceRepository, balanceTotalsRepository, incomeRepository,
+                expenseRepository, mock(UserRepository.class), new ObjectMapper(), 4, 3);
+    }
+
+    @Test
+    void appliesDeltaAndSnapshotsNewTotals() {
+        BalanceTotals updated = totals("150", "40", 7);
+        when(balanceTotalsRepository.applyDelta(userId, new BigDecimal("50"), BigDecimal.ZERO)).thenReturn(updated);
+
+        balanceService.applyTransactionDelta(userId, new BigDecimal("50"), BigDecimal.ZERO);
+
+        Balance snapshot = savedSnapshot();
+        assertThat(snapshot.getCurrentBalance()).isEqualByComparingTo("110");
+        assertThat(snapshot.getTotalsVersion()).isEqualTo(7L);
+        verify(incomeRepository, never()).sumAmountByUserId(any());
+    }
+
+    @Test
+    void zeroDeltaDoesNotRebuildOrSnapshot() {
+        when(balanceTotalsRepository.applyDelta(userId, BigDecimal.ZERO, BigDecimal.ZERO)).thenReturn(null);
+
+        balanceService.applyTransactionDelta(userId, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        verify(balanceTotalsRepository).applyDelta(userId, BigDecimal.ZERO, BigDecimal.ZERO);
+        verify(incomeRepository, never()).sumAmountByUserId(any());
+        verify(balanceRepository, never()).save(any());
+    }
+
+    @Test
+    void missingTotalsAreRebuiltFromHistory() {
+        when(balanceTotalsRepository.applyDelta(userId, BigDecimal.ZERO, new BigDecimal("10"))).thenReturn(null);
+        when(incomeRepository.sumAmountByUserId(userId)).thenReturn(new BigDecimal("100"));
+        when(expenseRepository.sumAmountByUserId(userId)).thenReturn(new BigDecimal("30"));
+        when(balanceTotalsRepository.replaceTotals(userId, new BigDecimal("100"), new BigDecimal("30"), null))
+                .thenReturn(totals("100", "30", 1));
+
+        balanceService.applyTransactionDelta(userId, BigDecimal.ZERO, new BigDecimal("10"));
+
+        assertThat(savedSnapshot().getCurrentBalance()).isEqualByComparingTo("70");
+    }
+
+    @Test
+    void deltaIsAppliedUnderTheUserWriteLock() {
+        boolean[] heldDuringDelta = {false};
+        when(balanceTotalsRepository.applyDelta(userId, BigDecimal.ONE, BigDecimal.ZERO)).thenAnswer(invocation -> {
+            heldDuringDelta[0] = balanceService.writeLockFor(userId).isHeldByCurrentThread();
+            return totals("1", "0", 1);
+        });
+
+        balanceService.applyTransactionDelta(userId, BigDecimal.ONE, BigDecimal.ZERO);
+
+        assertThat(heldDuringDelta[0]).isTrue();
+        assertThat(balanceService.writeLockFor(userId).isHeldByCurrentThread()).isFalse();
+    }
+
+    @Test
+    void reconcileKeepsTotalsThatMatchHistory() {
+        BalanceTotals current = totals("100", "30", 4);
+        givenHistory("100.00", "30");
+        when(balanceTotalsRepository.findById(userId)).thenReturn(Optional.of(current));
+
+        assertThat(balanceService.reconcileTotals(userId)).isSameAs(current);
+        verify(balanceTotalsRepository, never()).replaceTotals(any(), any(), any(), any());
+    }
+
+    @Test
+    void reconcileRepairsDriftAgainstObservedVersion() {
+        givenHistory("120", "30");
+        when(balanceTotalsRepository.findById(userId)).thenReturn(Optional.of(totals("100", "30", 4)));
+        BalanceTotals repaired = totals("120", "30", 5);
+        when(balanceTotalsRepository.replaceTotals(userId, new BigDecimal("120"), new BigDecimal("30"), 4L))
+                .thenReturn(repaired);
+
+        assertThat(balanceService.reconcileTotals(userId)).isSameAs(repaired);
+    }
+
+    @Test
+    void reconcileRetriesWhenTotalsChangeConcurrently() {
+        givenHistory("120", "30");
+        when(balanceTotalsRepository.findById(userId))
+                .thenReturn(Optional.of(totals("100", "30", 4)))
+                .thenReturn(Optional.of(totals("110", "30", 5)));
+        BalanceTotals repaired = totals("120", "30", 6);
+        when(balanceTotalsRepository.replaceTotals(userId, new BigDecimal("120"), new BigDecimal("30"), 4L))
+                .thenReturn(null);
+        when(balanceTotalsRepository.replaceTotals(userId, new BigDecimal("120"), new BigDecimal("30"), 5L))
+                .thenReturn(repaired);
+
+        assertThat(balanceService.reconcileTotals(userId)).isSameAs(repaired);
+    }
+
+    @Test
+    void reconcileKeepsConcurrentUpdateAfterMaxAttempts() {
+        givenHistory("120", "30");
+        BalanceTotals concurrent = totals("100", "30", 9);
+        when(balanceTotalsRepository.findById(userId)).thenReturn(Optional.of(concurrent));
+        when(balanceTotalsRepository.replaceTotals(any(), any(), any(), any())).thenReturn(null);
+
+        assertThat(balanceService.reconcileTotals(userId)).isSameAs(concurrent);
+        verify(balanceTotalsRepository, times(3)).replaceTotals(userId, new BigDecimal("120"), new BigDecimal("30"), 9L);
+    }
+
+    private void givenHistory(String income, String expense) {
+        when(incomeRepository.sumAmountByUserId(userId)).thenReturn(new BigDecimal(income));
+        when(expenseRepository.sumAmountByUserId(userId)).thenReturn(new BigDecimal(expense));
+    }
+
+    private Balance savedSnapshot() {
+        ArgumentCaptor<Balance> captor = ArgumentCaptor.forClass(Balance.class);
+        verify(balanceRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private BalanceTotals totals(String income, String expense, long version) {
+        BalanceTotals totals = new BalanceTotals(userId, new BigDecimal(income), new BigDecimal(expense));
+        totals.setVersion(version);
+        return totals;
+    }
+}
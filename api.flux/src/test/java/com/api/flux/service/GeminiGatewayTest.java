@@ -0,0 +1,226 @@
+package com.api.flux.service;
+
+import com.api.flux.utils.Deadline;
+import com.google.genai.types.Content;
+import com.google.genai.types.GenerateContentConfig;
+import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.Part;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class GeminiGatewayTest {
+    private static final String MODEL = "gemini-test";
+    private static final List<Content> CONTENTS = List.of(Content.fromParts(Part.fromText("hello")));
+    private static final GenerateContentConfig CONFIG = GenerateContentConfig.builder().build();
+    private static final String TEXT_RESPONSE =
+            "{\"candidates\":[{\"content\":{\"role\":\"model\",\"parts\":[{\"text\":\"%s\"}]}}]}";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> paths = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicReference<StubResponse> response = new AtomicReference<>(StubResponse.text("hi"));
+    private final AtomicLong delayMillis = new AtomicLong();
+    private GeminiGateway gateway;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (gateway != null) {
+            gateway.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void sendsGenerateContentToConfiguredBaseUrl() {
+        gateway = gateway(2, Duration.ofSeconds(5), 10);
+
+        GenerateContentResponse result = gateway.generateContent("user", null, MODEL, CONTENTS, CONFIG);
+
+        assertThat(result.text()).isEqualTo("hi");
+        assertThat(paths).singleElement().asString().contains("models/" + MODEL + ":generateContent");
+        assertThat(gateway.metrics()).containsEntry("calls", 1L).containsEntry("failures", 0L);
+    }
+
+    @Test
+    void streamsChunksInOrder() {
+        gateway = gateway(2, Duration.ofSeconds(5), 10);
+        response.set(new StubResponse(200, "text/event-stream",
+                "data: " + String.format(TEXT_RESPONSE, "one") + "\r\n\r\n"
+                        + "data: " + String.format(TEXT_RESPONSE, "two") + "\r\n\r\n", null));
+        List<String> chunks = new ArrayList<>();
+
+        gateway.streamContent("user", null, MODEL, CONTENTS, CONFIG, chunk -> chunks.add(chunk.text()));
+
+        assertThat(chunks).containsExactly("one", "two");
+        assertThat(paths).singleElement().asString().contains(":streamGenerateContent");
+        assertThat(gateway.metrics()).containsEntry("streams", 1L);
+    }
+
+    @Test
+    void upstreamThrottlingBecomesOverloadAndHalvesConcurrency() {
+        gateway = gateway(4, Duration.ofSeconds(5), 10);
+        response.set(StubResponse.error(429, "RESOURCE_EXHAUSTED"));
+
+        assertThatThrownBy(() -> gateway.generateContent("user", null, MODEL, CONTENTS, CONFIG))
+                .isInstanceOf(GeminiOverloadedException.class);
+
+        assertThat(gateway.metrics())
+                .containsEntry("upstreamThrottled", 1L)
+                .containsEntry("concurrencyLimit", 2);
+    }
+
+    @Test
+    void opensCircuitAfterRepeatedServerErrorsAndStopsCallingUpstream() {
+        gateway = gateway(2, Duration.ofSeconds(5), 2);
+        response.set(StubResponse.error(503, "UNAVAILABLE"));
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            assertThatThrownBy(() -> gateway.generateContent("user", null, MODEL, CONTENTS, CONFIG))
+                    .isNotInstanceOf(DependencyUnavailableException.class);
+        }
+        int upstreamCalls = requests.get();
+
+        assertThatThrownBy(() -> gateway.generateContent("user", null, MODEL, CONTENTS, CONFIG))
+                .isInstanceOf(DependencyUnavailableException.class);
+        assertThat(requests.get()).isEqualTo(upstreamCalls);
+    }
+
+    @Test
+    void expiredDeadlineFailsFastWithoutCallingUpstream() {
+        gateway = gateway(2, Duration.ofSeconds(5), 10);
+
+        assertThatThrownBy(() -> gateway.generateContent("user", Deadline.after(Duration.ZERO), MODEL, CONTENTS, CONFIG))
+                .isInstanceOf(DependencyUnavailableException.class);
+        assertThat(requests.get()).isZero();
+    }
+
+    @Test
+    void callerRequestedTimeoutsDoNotOpenTheCircuit() {
+        gateway = gateway(2, Duration.ofSeconds(5), 2);
+        response.set(StubResponse.error(504, "DEADLINE_EXCEEDED"));
+        delayMillis.set(Deadline.MIN_REQUESTED_TIMEOUT.toMillis() + 100);
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Deadline deadline = Deadline.fromHeader("1", Duration.ofSeconds(30));
+            assertThatThrownBy(() -> gateway.generateContent("user", deadline, MODEL, CONTENTS, CONFIG))
+                    .isNotInstanceOf(DependencyUnavailableException.class);
+        }
+
+        assertThat(requests.get()).isEqualTo(3);
+        assertThat(gateway.metrics()).containsEntry("callerTimeouts", 3L);
+        assertThat(circuitState()).isEqualTo("CLOSED");
+    }
+
+    @Test
+    void serverSideTimeoutsStillOpenTheCircuit() {
+        gateway = gateway(2, Duration.ofSeconds(5), 2);
+        response.set(StubResponse.error(504, "DEADLINE_EXCEEDED"));
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Deadline deadline = Deadline.after(Duration.ofSeconds(30));
+            assertThatThrownBy(() -> gateway.generateContent("user", deadline, MODEL, CONTENTS, CONFIG))
+                    .isNotInstanceOf(DependencyUnavailableException.class);
+        }
+
+        assertThat(circuitState()).isEqualTo("OPEN");
+    }
+
+    @Test
+    void rejectsCallersThatCannotBeAdmittedBeforeTheAcquireTimeout() throws Exception {
+        gateway = gateway(1, Duration.ofMillis(50), 10);
+        CountDownLatch release = new CountDownLatch(1);
+        response.set(new StubResponse(200, "application/json", String.format(TEXT_RESPONSE, "slow"), release));
+
+        CompletableFuture<GenerateContentResponse> slowCall = CompletableFuture.supplyAsync(
+                () -> gateway.generateContent("first", null, MODEL, CONTENTS, CONFIG));
+        await().until(() -> requests.get() == 1);
+
+        assertThatThrownBy(() -> gateway.generateContent("second", null, MODEL, CONTENTS, CONFIG))
+                .isInstanceOf(GeminiOverloadedException.class);
+        assertThat(gateway.metrics()).containsEntry("timedOut", 1L);
+
+        release.countDown();
+        assertThat(slowCall.get(5, TimeUnit.SECONDS).text()).isEqualTo("slow");
+    }
+
+    @SuppressWarnings("unchecked")
+    private String circuitState() {
+        return (String) ((Map<String, Object>) gateway.metrics().get("circuitBreaker")).get("state");
+    }
+
+    private GeminiGateway gateway(int maxConcurrency, Duration acquireTimeout, int breakerMinimumCalls) {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        return new GeminiGateway("test-key", baseUrl, Duration.ofSeconds(10), maxConcurrency, acquireTimeout,
+                10, 2, breakerMinimumCalls, breakerMinimumCalls, 0.5, Duration.ofMinutes(1), 1);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        paths.add(exchange.getRequestURI().toString());
+        exchange.getRequestBody().readAllBytes();
+
+        StubResponse stub = response.get();
+        try {
+            Thread.sleep(delayMillis.get());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        if (stub.release() != null) {
+            try {
+                stub.release().await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        byte[] body = stub.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", stub.contentType());
+        exchange.sendResponseHeaders(stub.status(), body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private record StubResponse(int status, String contentType, String body, CountDownLatch release) {
+        static StubResponse text(String text) {
+            return new StubResponse(200, "application/json", String.format(TEXT_RESPONSE, text), null);
+        }
+
+        static StubResponse error(int status, String reason) {
+            return new StubResponse(status, "application/json", String.format(
+                    "{\"error\":{\"code\":%d,\"message\":\"%s\",\"status\":\"%s\"}}", status, reason, reason), null);
+        }
+    }
+}
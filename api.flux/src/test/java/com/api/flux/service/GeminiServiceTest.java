@@ -0,0 +1,111 @@
+package com.api.flux.service;
+
+import com.api.flux.dto.response.gemini.PromptResponseDTO;
+import com.api.flux.entity.BalanceTotals;
+import com.api.flux.entity.LucAIPrompt;
+import com.api.flux.entity.User;
+import com.api.flux.repository.BalanceTotalsRepository;
+import com.api.flux.repository.LucaAIRepository;
+import com.api.flux.repository.UserRepository;
+import com.api.flux.utils.Deadline;
+import com.google.genai.types.Candidate;
+import com.google.genai.types.Content;
+import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.Part;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GeminiServiceTest {
+    private final UUID userId = UUID.randomUUID();
+    private final List<LucAIPrompt> history = new ArrayList<>();
+
+    private ExecutorService fanOutExecutor;
+    private GeminiGateway geminiGateway;
+    private GeminiService geminiService;
+
+    @BeforeEach
+    void setUp() {
+        fanOutExecutor = Executors.newFixedThreadPool(4);
+        geminiGateway = mock(GeminiGateway.class);
+
+        User user = new User();
+        user.setId(userId);
+        user.setName("Ana");
+        user.setLastName("Silva");
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        LucaAIRepository lucaAIRepository = mock(LucaAIRepository.class);
+        when(lucaAIRepository.findHeaderByUserId(userId)).thenReturn(Optional.empty());
+        when(lucaAIRepository.findRecentTurns(eq(userId), anyInt())).thenAnswer(invocation -> List.copyOf(history));
+        doAnswer(invocation -> history.add(invocation.getArgument(1)))
+                .when(lucaAIRepository).appendTurn(eq(userId), any(), anyInt());
+
+        BalanceTotals totals = new BalanceTotals(userId, BigDecimal.TEN, BigDecimal.ONE);
+        totals.setVersion(3);
+        BalanceTotalsRepository balanceTotalsRepository = mock(BalanceTotalsRepository.class);
+        when(balanceTotalsRepository.findById(userId)).thenReturn(Optional.of(totals));
+
+        LucAIDataTools dataTools = mock(LucAIDataTools.class);
+        when(dataTools.balanceSummary(userId)).thenReturn("Balance: 9");
+        PromptBuilder promptBuilder = mock(PromptBuilder.class);
+        when(promptBuilder.verbatimTurns()).thenReturn(6);
+        when(promptBuilder.build(any(), any(), any(), any(), any())).thenReturn("prompt");
+
+        geminiService = new GeminiService(userRepository, lucaAIRepository, mock(ExpenseService.class),
+                mock(IncomeService.class), mock(BalanceService.class), geminiGateway, dataTools, fanOutExecutor,
+                promptBuilder, new LucAIResponseCache(balanceTotalsRepository, true, 100, Duration.ofMinutes(10), 500));
+        ReflectionTestUtils.setField(geminiService, "historyBucketSize", 50);
+        ReflectionTestUtils.setField(geminiService, "maxToolRounds", 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    @Test
+    void repeatedReadOnlyPromptIsAnsweredFromCacheAfterItsTurnWasAppended() {
+        when(geminiGateway.generateContent(any(), any(), any(), any(), any())).thenReturn(textResponse("Your balance is 9."));
+
+        ResponseEntity<PromptResponseDTO> first = geminiService.generatePrompt("What is my balance?", userId, deadline());
+        ResponseEntity<PromptResponseDTO> second = geminiService.generatePrompt("what is my balance", userId, deadline());
+
+        assertThat(first.getBody().text()).isEqualTo("Your balance is 9.");
+        assertThat(second.getBody().text()).isEqualTo("Your balance is 9.");
+        verify(geminiGateway, times(1)).generateContent(any(), any(), any(), any(), any());
+        assertThat(history).hasSize(2);
+    }
+
+    private static Deadline deadline() {
+        return Deadline.after(Duration.ofSeconds(30));
+    }
+
+    private static GenerateContentResponse textResponse(String text) {
+        return GenerateContentResponse.builder()
+                .candidates(List.of(Candidate.builder().content(Content.fromParts(Part.fromText(text))).build()))
+                .build();
+    }
+}
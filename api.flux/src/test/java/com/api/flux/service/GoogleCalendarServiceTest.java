@@ -0,0 +1,160 @@
+package com.api.flux.service;
+
+import com.api.flux.utils.Deadline;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.services.calendar.model.Event;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoogleCalendarServiceTest {
+    private static final String TIME_MIN = "2026-01-01T00:00:00Z";
+    private static final String TIME_MAX = "2026-01-31T00:00:00Z";
+
+    private HttpServer server;
+    private GoogleCalendarService calendarService;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicLong delayMillis = new AtomicLong();
+    private final List<String> authorizations = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+
+        calendarService = new GoogleCalendarService("http://127.0.0.1:" + server.getAddress().getPort() + "/",
+                10, 2, 0.5, Duration.ofMinutes(1), 1, 10, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void listsEventsFromConfiguredRootUrlWithBearerToken() throws Exception {
+        List<Event> events = calendarService.getEvents("token-1", TIME_MIN, TIME_MAX, Deadline.after(Duration.ofSeconds(5)));
+
+        assertThat(events).extracting(Event::getSummary).containsExactly("Rent");
+        assertThat(authorizations).containsExactly("Bearer token-1");
+    }
+
+    @Test
+    void reusesCalendarClientPerAccessToken() {
+        assertThat(calendarService.getCalendarService("token-1")).isSameAs(calendarService.getCalendarService("token-1"));
+        assertThat(calendarService.getCalendarService("token-1")).isNotSameAs(calendarService.getCalendarService("token-2"));
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        status.set(404);
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            assertThatThrownBy(() -> calendarService.getEvents("token", TIME_MIN, TIME_MAX, Deadline.after(Duration.ofSeconds(5))))
+                    .isInstanceOf(GoogleJsonResponseException.class);
+        }
+        assertThat(requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    void serverErrorsOpenTheCircuitAndStopUpstreamCalls() {
+        status.set(503);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            assertThatThrownBy(() -> calendarService.getEvents("token", TIME_MIN, TIME_MAX, Deadline.after(Duration.ofSeconds(5))))
+                    .isInstanceOf(GoogleJsonResponseException.class);
+        }
+        int upstreamCalls = requests.get();
+
+        assertThatThrownBy(() -> calendarService.getEvents("token", TIME_MIN, TIME_MAX, Deadline.after(Duration.ofSeconds(5))))
+                .isInstanceOf(DependencyUnavailableException.class);
+        assertThat(requests.get()).isEqualTo(upstreamCalls);
+    }
+
+    @Test
+    void requestTimeoutFollowsTheDeadline() {
+        delayMillis.set(2_000);
+
+        long startedAt = System.nanoTime();
+        assertThatThrownBy(() -> calendarService.getEvents("token", TIME_MIN, TIME_MAX, Deadline.after(Duration.ofMillis(200))))
+                .isInstanceOf(IOException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofMillis(1_500));
+    }
+
+    @Test
+    void callerRequestedTimeoutsDoNotOpenTheCircuit() {
+        delayMillis.set(3_000);
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Deadline deadline = Deadline.fromHeader("1", Duration.ofSeconds(10));
+            assertThatThrownBy(() -> calendarService.getEvents("token", TIME_MIN, TIME_MAX, deadline))
+                    .isInstanceOf(IOException.class);
+        }
+
+        assertThat(requests.get()).isEqualTo(3);
+        assertThat(circuitState()).isEqualTo("CLOSED");
+    }
+
+    @Test
+    void expiredDeadlineFailsFastWithoutCallingUpstream() {
+        assertThatThrownBy(() -> calendarService.getEvents("token", TIME_MIN, TIME_MAX, Deadline.after(Duration.ZERO)))
+                .isInstanceOf(DependencyUnavailableException.class);
+        assertThat(requests.get()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private String circuitState() {
+        return (String) ((Map<String, Object>) calendarService.metrics().get("circuitBreaker")).get("state");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+
+        if (delayMillis.get() > 0) {
+            try {
+                Thread.sleep(delayMillis.get());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int code = status.get();
+        String body = code == 200
+                ? "{\"kind\":\"calendar#events\",\"items\":[{\"id\":\"e1\",\"summary\":\"Rent\"}]}"
+                : "{\"error\":{\"code\":" + code + ",\"message\":\"stub error\"}}";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        try {
+            exchange.sendResponseHeaders(code, bytes.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        } catch (IOException ignored) {
+            // The client gave up on a delayed response.
+        }
+    }
+}
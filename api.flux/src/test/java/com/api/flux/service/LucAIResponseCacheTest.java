@@ -0,0 +1,114 @@
+package com.api.flux.service;
+
+import com.api.flux.entity.BalanceTotals;
+import com.api.flux.repository.BalanceTotalsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LucAIResponseCacheTest {
+    private final UUID userId = UUID.randomUUID();
+
+    private BalanceTotalsRepository balanceTotalsRepository;
+    private LucAIResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        balanceTotalsRepository = mock(BalanceTotalsRepository.class);
+        responseCache = new LucAIResponseCache(balanceTotalsRepository, true, 100, Duration.ofMinutes(10), 500);
+        givenVersion(1);
+    }
+
+    @Test
+    void normalizesPromptsBeforeKeying() {
+        assertThat(LucAIResponseCache.normalize("  What is my   BALANCE?! ")).isEqualTo("what is my balance");
+        assertThat(key("What is my balance?")).isEqualTo(key("what is my   balance"));
+    }
+
+    @Test
+    void cachedAnswerRequiresSameDataVersionAndSummary() {
+        LucAIResponseCache.Key key = key("what is my balance");
+        responseCache.put(key, "R$ 100", 1_000_000, false);
+
+        assertThat(responseCache.get(key("what is my balance"))).contains("R$ 100");
+        assertThat(responseCache.get(responseCache.keyFor(userId, "what is my balance", "summary").orElseThrow()))
+                .isEmpty();
+
+        givenVersion(2);
+        assertThat(responseCache.get(key("what is my balance"))).isEmpty();
+    }
+
+    @Test
+    void summaryHashIsStablePerSummary() {
+        assertThat(LucAIResponseCache.summaryHash("summary")).isEqualTo(LucAIResponseCache.summaryHash("summary"));
+        assertThat(LucAIResponseCache.summaryHash("summary")).isNotEqualTo(LucAIResponseCache.summaryHash("other"));
+        assertThat(LucAIResponseCache.summaryHash(null)).isNotEqualTo(LucAIResponseCache.summaryHash("summary"));
+    }
+
+    @Test
+    void answersFromWriteTurnsAreNotCached() {
+        LucAIResponseCache.Key key = key("add a 50 expense for lunch");
+
+        responseCache.put(key, "Registered", 1_000_000, true);
+
+        assertThat(responseCache.get(key)).isEmpty();
+        assertThat(responseCache.metrics()).containsEntry("skippedWriteTurns", 1L).containsEntry("stored", 0L);
+    }
+
+    @Test
+    void noKeyWithoutRunningTotalsOrForOversizedPrompts() {
+        assertThat(responseCache.keyFor(userId, "x".repeat(501), null)).isEmpty();
+
+        when(balanceTotalsRepository.findById(userId)).thenReturn(Optional.empty());
+        assertThat(responseCache.keyFor(userId, "what is my balance", null)).isEmpty();
+    }
+
+    @Test
+    void toolResultsAreReusedUntilTheDataVersionChanges() {
+        AtomicInteger executions = new AtomicInteger();
+        Map<String, Object> args = Map.of("month", "2026-01");
+
+        assertThat(responseCache.toolResult(userId, "get_expenses", args, () -> "result-" + executions.incrementAndGet()))
+                .isEqualTo("result-1");
+        assertThat(responseCache.toolResult(userId, "get_expenses", args, () -> "result-" + executions.incrementAndGet()))
+                .isEqualTo("result-1");
+        assertThat(responseCache.toolResult(userId, "get_expenses", Map.of("month", "2026-02"),
+                () -> "result-" + executions.incrementAndGet())).isEqualTo("result-2");
+
+        givenVersion(2);
+        assertThat(responseCache.toolResult(userId, "get_expenses", args, () -> "result-" + executions.incrementAndGet()))
+                .isEqualTo("result-3");
+    }
+
+    @Test
+    void disabledCacheAlwaysExecutesTools() {
+        LucAIResponseCache disabled = new LucAIResponseCache(balanceTotalsRepository, false, 100, Duration.ofMinutes(10), 500);
+        AtomicInteger executions = new AtomicInteger();
+
+        disabled.toolResult(userId, "get_balance", Map.of(), () -> String.valueOf(executions.incrementAndGet()));
+        disabled.toolResult(userId, "get_balance", Map.of(), () -> String.valueOf(executions.incrementAndGet()));
+
+        assertThat(executions).hasValue(2);
+        assertThat(disabled.keyFor(userId, "what is my balance", null)).isEmpty();
+    }
+
+    private LucAIResponseCache.Key key(String prompt) {
+        return responseCache.keyFor(userId, prompt, null).orElseThrow();
+    }
+
+    private void givenVersion(long version) {
+        BalanceTotals totals = new BalanceTotals(userId, BigDecimal.ZERO, BigDecimal.ZERO);
+        totals.setVersion(version);
+        when(balanceTotalsRepository.findById(userId)).thenReturn(Optional.of(totals));
+    }
+}
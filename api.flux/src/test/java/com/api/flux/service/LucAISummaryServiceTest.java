@@ -0,0 +1,133 @@
+package com.api.flux.service;
+
+import com.api.flux.entity.LucAI;
+import com.api.flux.entity.LucAIPrompt;
+import com.api.flux.repository.LucaAIRepository;
+import com.google.genai.types.GenerateContentResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LucAISummaryServiceTest {
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant PREVIOUS_SUMMARY_AT = Instant.parse("2025-12-31T00:00:00Z");
+
+    private final UUID userId = UUID.randomUUID();
+
+    private LucaAIRepository lucaAIRepository;
+    private GeminiGateway geminiGateway;
+    private LucAISummaryService summaryService;
+    private LucAI lucAI;
+
+    @BeforeEach
+    void setUp() {
+        lucaAIRepository = mock(LucaAIRepository.class);
+        geminiGateway = mock(GeminiGateway.class);
+        PromptBuilder promptBuilder = mock(PromptBuilder.class);
+        when(promptBuilder.verbatimTurns()).thenReturn(2);
+
+        summaryService = new LucAISummaryService(lucaAIRepository, geminiGateway, promptBuilder);
+        ReflectionTestUtils.setField(summaryService, "model", "gemini-test");
+        ReflectionTestUtils.setField(summaryService, "batchSize", 100);
+        ReflectionTestUtils.setField(summaryService, "maxTurnsPerRun", 200);
+        ReflectionTestUtils.setField(summaryService, "maxSummaryChars", 4000);
+        ReflectionTestUtils.setField(summaryService, "claimLease", Duration.ofMinutes(5));
+
+        lucAI = new LucAI();
+        lucAI.setId(UUID.randomUUID());
+        lucAI.setUserId(userId);
+        lucAI.setSummaryUpdatedAt(PREVIOUS_SUMMARY_AT);
+        when(lucaAIRepository.findSummaryCandidates(null, 100)).thenReturn(List.of(lucAI));
+    }
+
+    @Test
+    void skipsConversationClaimedByAnotherInstance() {
+        when(lucaAIRepository.claimSummary(eq(userId), eq(PREVIOUS_SUMMARY_AT), any(), any(), eq(Duration.ofMinutes(5))))
+                .thenReturn(false);
+
+        summaryService.summarizeConversations();
+
+        verify(lucaAIRepository, never()).findRecentTurns(any(), anyInt());
+        verify(lucaAIRepository, never()).saveSummary(any(), any(), any(), any(), anyInt(), any());
+        verifyNoInteractions(geminiGateway);
+    }
+
+    @Test
+    void summarizesOlderTurnsUnderTheClaim() {
+        givenClaim();
+        givenTurns();
+        GenerateContentResponse response = mock(GenerateContentResponse.class);
+        when(response.text()).thenReturn(" Pays rent monthly. ");
+        when(geminiGateway.generateContent(any(), any(), eq("gemini-test"), any(), any())).thenReturn(response);
+        when(lucaAIRepository.saveSummary(any(), any(), any(), any(), anyInt(), any())).thenReturn(true);
+
+        summaryService.summarizeConversations();
+
+        UUID claimId = claimedId();
+        verify(lucaAIRepository).saveSummary(eq(userId), eq(claimId), eq("Pays rent monthly."),
+                eq(START.plusSeconds(1)), eq(0), any());
+    }
+
+    @Test
+    void releasesClaimWithoutCallingModelWhenNothingIsPending() {
+        givenClaim();
+        when(lucaAIRepository.findRecentTurns(userId, 2)).thenReturn(List.of(turn(0)));
+
+        summaryService.summarizeConversations();
+
+        UUID claimId = claimedId();
+        verify(lucaAIRepository).saveSummary(eq(userId), eq(claimId), any(), any(), eq(0), any());
+        verifyNoInteractions(geminiGateway);
+    }
+
+    @Test
+    void discardsSummaryWhenClaimWasLost() {
+        givenClaim();
+        givenTurns();
+        GenerateContentResponse response = mock(GenerateContentResponse.class);
+        when(response.text()).thenReturn("summary");
+        when(geminiGateway.generateContent(any(), any(), any(), any(), any())).thenReturn(response);
+        when(lucaAIRepository.saveSummary(any(), any(), any(), any(), anyInt(), any())).thenReturn(false);
+
+        summaryService.summarizeConversations();
+
+        UUID claimId = claimedId();
+        verify(lucaAIRepository).saveSummary(eq(userId), eq(claimId), eq("summary"), any(), anyInt(), any());
+    }
+
+    private void givenClaim() {
+        when(lucaAIRepository.claimSummary(eq(userId), eq(PREVIOUS_SUMMARY_AT), any(), any(), eq(Duration.ofMinutes(5))))
+                .thenReturn(true);
+    }
+
+    private UUID claimedId() {
+        ArgumentCaptor<UUID> claimId = ArgumentCaptor.forClass(UUID.class);
+        verify(lucaAIRepository).claimSummary(eq(userId), eq(PREVIOUS_SUMMARY_AT), claimId.capture(), any(), any());
+        return claimId.getValue();
+    }
+
+    private void givenTurns() {
+        when(lucaAIRepository.findRecentTurns(userId, 2)).thenReturn(List.of(turn(2), turn(3)));
+        when(lucaAIRepository.findLegacyTurns(userId, 0, 200)).thenReturn(List.of());
+        when(lucaAIRepository.findTurnsAfter(userId, null, 200)).thenReturn(List.of(turn(0), turn(1), turn(2), turn(3)));
+    }
+
+    private static LucAIPrompt turn(int second) {
+        return new LucAIPrompt("question " + second, "answer " + second, START.plusSeconds(second));
+    }
+}
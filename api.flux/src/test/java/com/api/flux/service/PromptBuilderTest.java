@@ -0,0 +1,58 @@
+package com.api.flux.service;
+
+import com.api.flux.entity.LucAIPrompt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptBuilderTest {
+    private PromptBuilder promptBuilder;
+
+    @BeforeEach
+    void setUp() {
+        promptBuilder = new PromptBuilder();
+        ReflectionTestUtils.setField(promptBuilder, "tokenBudget", 600);
+        ReflectionTestUtils.setField(promptBuilder, "verbatimTurns", 6);
+        ReflectionTestUtils.setField(promptBuilder, "financialTokenFloor", 200);
+    }
+
+    @Test
+    void longHistoryAndSummaryCannotCrowdOutTheFinancialFloor() {
+        String financial = "Balance: 1200.00\n".repeat(40);
+        List<LucAIPrompt> turns = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            turns.add(new LucAIPrompt("question " + "q".repeat(200), "answer " + "a".repeat(200), Instant.now()));
+        }
+
+        String prompt = promptBuilder.build("Ana", financial, "summary ".repeat(200), turns, "How am I doing?");
+
+        String financialSection = prompt.substring(prompt.indexOf("Financial Context:"), prompt.indexOf("Conversation Summary:"));
+        assertThat(PromptBuilder.estimateTokens(financialSection)).isGreaterThanOrEqualTo(150);
+        assertThat(financialSection).contains("Balance: 1200.00");
+    }
+
+    @Test
+    void unusedFloorIsLeftForHistory() {
+        LucAIPrompt turn = new LucAIPrompt("hi", "hello", Instant.now());
+
+        String prompt = promptBuilder.build("Ana", "Balance: 10.00", null, List.of(turn), "thanks");
+
+        assertThat(prompt).contains("Balance: 10.00").contains("User: hi\nLucAI: hello");
+    }
+
+    @Test
+    void promptIsStableWithinADay() {
+        String first = promptBuilder.build("Ana", "Balance: 10.00", "", List.of(), "hi");
+        String second = promptBuilder.build("Ana", "Balance: 10.00", "", List.of(), "hi");
+
+        assertThat(first).isEqualTo(second).contains("Today is: " + LocalDate.now(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,23 @@
+package com.api.flux.support;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+class MongoAvailableCondition implements ExecutionCondition {
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (isSet(System.getenv(MongoTestDatabase.URI_VARIABLE))) {
+            return ConditionEvaluationResult.enabled(MongoTestDatabase.URI_VARIABLE + " is set");
+        }
+        if (isSet(System.getenv("CI"))) {
+            throw new IllegalStateException(MongoTestDatabase.URI_VARIABLE
+                    + " must point at a MongoDB server in CI; Mongo-backed tests cannot be skipped there");
+        }
+        return ConditionEvaluationResult.disabled(MongoTestDatabase.URI_VARIABLE + " is not set");
+    }
+
+    private static boolean isSet(String value) {
+        return value != null && !value.isBlank();
+    }
+}
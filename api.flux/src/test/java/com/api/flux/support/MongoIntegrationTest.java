@@ -0,0 +1,16 @@
+package com.api.flux.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Runs against a real server: FLUX_MONGO_TEST_URI=mongodb://localhost:27017 mvn test
+// Skipped locally without FLUX_MONGO_TEST_URI, but fails the build when CI is set and no server is configured.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(MongoAvailableCondition.class)
+public @interface MongoIntegrationTest {
+}
@@ -0,0 +1,69 @@
+package com.api.flux.support;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.UuidRepresentation;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.UUID;
+
+// A throwaway database on FLUX_MONGO_TEST_URI, encoded with the UUID representation the application is configured with.
+public final class MongoTestDatabase implements AutoCloseable {
+    public static final String URI_VARIABLE = "FLUX_MONGO_TEST_URI";
+    private static final String UUID_REPRESENTATION_PROPERTY = "spring.data.mongodb.uuid-representation";
+
+    private final MongoClient mongoClient;
+    private final MongoTemplate mongoTemplate;
+    private final UuidRepresentation uuidRepresentation;
+
+    private MongoTestDatabase(MongoClient mongoClient, MongoTemplate mongoTemplate, UuidRepresentation uuidRepresentation) {
+        this.mongoClient = mongoClient;
+        this.mongoTemplate = mongoTemplate;
+        this.uuidRepresentation = uuidRepresentation;
+    }
+
+    public static MongoTestDatabase create() {
+        UuidRepresentation uuidRepresentation = configuredUuidRepresentation();
+        MongoClient mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(System.getenv(URI_VARIABLE)))
+                .uuidRepresentation(uuidRepresentation)
+                .build());
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, "flux_test_" + UUID.randomUUID().toString().replace("-", ""));
+        return new MongoTestDatabase(mongoClient, mongoTemplate, uuidRepresentation);
+    }
+
+    public static UuidRepresentation configuredUuidRepresentation() {
+        StandardEnvironment environment = new StandardEnvironment();
+        try {
+            environment.getPropertySources().addLast(new ResourcePropertySource("classpath:application.properties"));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        String value = environment.getRequiredProperty(UUID_REPRESENTATION_PROPERTY);
+        return UuidRepresentation.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    public MongoTemplate template() {
+        return mongoTemplate;
+    }
+
+    public UuidRepresentation uuidRepresentation() {
+        return uuidRepresentation;
+    }
+
+    @Override
+    public void close() {
+        try {
+            mongoTemplate.getDb().drop();
+        } finally {
+            mongoClient.close();
+        }
+    }
+}
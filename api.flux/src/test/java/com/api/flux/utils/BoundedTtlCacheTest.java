@@ -0,0 +1,96 @@
+package com.api.flux.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void rejectsNonPositiveSize() {
+        assertThatThrownBy(() -> new BoundedTtlCache<String, String>(0, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() throws InterruptedException {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMillis(20));
+        cache.put("a", "1");
+
+        assertThat(cache.get("a")).isEqualTo("1");
+        Thread.sleep(40);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.stats()).containsEntry("expirations", 1L);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertThat(cache.get("a")).isEqualTo("1");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo("3");
+        assertThat(cache.stats()).containsEntry("evictions", 1L).containsEntry("size", 2);
+    }
+
+    @Test
+    void getOrLoadCachesLoadedValuesAndCountsHits() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+        int[] loads = {0};
+
+        assertThat(cache.getOrLoad("a", key -> key + ++loads[0])).isEqualTo("a1");
+        assertThat(cache.getOrLoad("a", key -> key + ++loads[0])).isEqualTo("a1");
+
+        assertThat(loads[0]).isEqualTo(1);
+        assertThat(cache.stats())
+                .containsEntry("hits", 1L)
+                .containsEntry("misses", 1L)
+                .containsEntry("hitRate", 0.5);
+    }
+
+    @Test
+    void getOrLoadDoesNotCacheNullValues() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+
+        assertThat(cache.getOrLoad("a", key -> null)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void getOrLoadDoesNotWriteBackAfterConcurrentInvalidate() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+
+        String loaded = cache.getOrLoad("a", key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        assertThat(loaded).isEqualTo("stale");
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getOrLoad("a", key -> "fresh")).isEqualTo("fresh");
+        assertThat(cache.get("a")).isEqualTo("fresh");
+    }
+
+    @Test
+    void invalidateRemovesEntries() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        cache.invalidate("a");
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo("2");
+
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,86 @@
+package com.api.flux.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 3, 0.5, Duration.ofHours(1), 1);
+
+        breaker.tryAcquire();
+        breaker.onFailure();
+        breaker.tryAcquire();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThresholdAndRejectsCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, Duration.ofHours(1), 1);
+
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.retryAfter()).isPositive().isLessThanOrEqualTo(Duration.ofHours(1));
+        assertThat(breaker.stats()).containsEntry("opened", 1L).containsEntry("notPermitted", 1L);
+    }
+
+    @Test
+    void slidingWindowForgetsOldFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 2, 0.75, Duration.ofHours(1), 1);
+
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenAdmitsLimitedProbesAndClosesOnSuccess() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 1, 0.5, Duration.ZERO, 1);
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenFailureReopens() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 1, 0.5, Duration.ZERO, 1);
+        breaker.onFailure();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.stats()).containsEntry("opened", 2L);
+    }
+
+    @Test
+    void releaseFreesHalfOpenProbeWithoutClosing() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 1, 0.5, Duration.ZERO, 1);
+        breaker.onFailure();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.release();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+}
@@ -0,0 +1,54 @@
+package com.api.flux.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineTest {
+    private static final Duration MAX = Duration.ofSeconds(30);
+
+    @Test
+    void usesMaximumWhenHeaderIsMissingOrInvalid() {
+        assertThat(Deadline.fromHeader(null, MAX).remaining()).isGreaterThan(Duration.ofSeconds(29));
+        assertThat(Deadline.fromHeader(" ", MAX).remaining()).isGreaterThan(Duration.ofSeconds(29));
+        assertThat(Deadline.fromHeader("soon", MAX).remaining()).isGreaterThan(Duration.ofSeconds(29));
+        assertThat(Deadline.fromHeader("-5", MAX).remaining()).isGreaterThan(Duration.ofSeconds(29));
+    }
+
+    @Test
+    void honoursShorterRequestedTimeoutButCapsLongerOnes() {
+        Deadline requested = Deadline.fromHeader("5000", MAX);
+        assertThat(requested.remaining()).isLessThanOrEqualTo(Duration.ofSeconds(5)).isGreaterThan(Duration.ofSeconds(4));
+        assertThat(requested.callerRequested()).isTrue();
+
+        Deadline capped = Deadline.fromHeader("600000", MAX);
+        assertThat(capped.remaining()).isLessThanOrEqualTo(MAX);
+        assertThat(capped.callerRequested()).isFalse();
+    }
+
+    @Test
+    void clampsTinyRequestedTimeoutsToTheMinimum() {
+        Deadline deadline = Deadline.fromHeader("1", MAX);
+
+        assertThat(deadline.remaining()).isGreaterThan(Deadline.MIN_REQUESTED_TIMEOUT.minusMillis(100));
+        assertThat(deadline.callerRequested()).isTrue();
+        assertThat(Deadline.fromHeader("1", Duration.ofMillis(500)).callerRequested()).isFalse();
+    }
+
+    @Test
+    void onlyCallerRequestedDeadlinesExpireByCaller() {
+        assertThat(Deadline.after(Duration.ZERO).expiredByCaller()).isFalse();
+        assertThat(new Deadline(System.nanoTime() - 1, true).expiredByCaller()).isTrue();
+    }
+
+    @Test
+    void reportsExpiryAndNeverNegativeRemaining() {
+        Deadline expired = Deadline.after(Duration.ZERO);
+
+        assertThat(expired.isExpired()).isTrue();
+        assertThat(expired.remainingNanos()).isZero();
+        assertThat(Deadline.after(Duration.ofMinutes(1)).isExpired()).isFalse();
+    }
+}
@@ -0,0 +1,117 @@
+package com.api.flux.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class FairLimiterTest {
+    private static final long LONG_WAIT = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    void acquiresImmediatelyWhileBelowLimit() throws InterruptedException {
+        FairLimiter<String> limiter = new FairLimiter<>(2, 10, 10);
+
+        assertThat(limiter.acquire("a", 0)).isEqualTo(FairLimiter.Result.ACQUIRED);
+        assertThat(limiter.acquire("b", 0)).isEqualTo(FairLimiter.Result.ACQUIRED);
+        assertThat(limiter.active()).isEqualTo(2);
+    }
+
+    @Test
+    void timesOutAndLeavesNoQueuedWaiterBehind() throws InterruptedException {
+        FairLimiter<String> limiter = new FairLimiter<>(1, 10, 10);
+        limiter.acquire("a", 0);
+
+        assertThat(limiter.acquire("b", TimeUnit.MILLISECONDS.toNanos(20))).isEqualTo(FairLimiter.Result.TIMED_OUT);
+        assertThat(limiter.queued()).isZero();
+        assertThat(limiter.queuedKeys()).isZero();
+    }
+
+    @Test
+    void rejectsWhenPerKeyOrGlobalQueueIsFull() throws InterruptedException {
+        FairLimiter<String> limiter = new FairLimiter<>(1, 2, 1);
+        limiter.acquire("holder", 0);
+
+        Thread first = startWaiter(limiter, "a", new ArrayList<>());
+        await().until(() -> limiter.queued() == 1);
+
+        assertThat(limiter.acquire("a", LONG_WAIT)).isEqualTo(FairLimiter.Result.QUEUE_FULL);
+
+        Thread second = startWaiter(limiter, "b", new ArrayList<>());
+        await().until(() -> limiter.queued() == 2);
+
+        assertThat(limiter.acquire("c", LONG_WAIT)).isEqualTo(FairLimiter.Result.QUEUE_FULL);
+
+        first.interrupt();
+        second.interrupt();
+        await().until(() -> limiter.queued() == 0);
+    }
+
+    @Test
+    void grantsQueuedWaitersRoundRobinAcrossKeys() throws InterruptedException {
+        FairLimiter<String> limiter = new FairLimiter<>(1, 10, 10);
+        List<String> granted = Collections.synchronizedList(new ArrayList<>());
+        limiter.acquire("holder", 0);
+
+        startWaiter(limiter, "a", granted, "a1");
+        await().until(() -> limiter.queued() == 1);
+        startWaiter(limiter, "a", granted, "a2");
+        await().until(() -> limiter.queued() == 2);
+        startWaiter(limiter, "b", granted, "b1");
+        await().until(() -> limiter.queued() == 3);
+
+        for (int expected = 1; expected <= 3; expected++) {
+            limiter.release(false);
+            int size = expected;
+            await().until(() -> granted.size() == size);
+        }
+
+        assertThat(granted).containsExactly("a1", "b1", "a2");
+        assertThat(limiter.queued()).isZero();
+    }
+
+    @Test
+    void halvesLimitOnOverloadAndRecoversAdditively() throws InterruptedException {
+        FairLimiter<String> limiter = new FairLimiter<>(4, 10, 10);
+
+        limiter.acquire("a", 0);
+        limiter.release(true);
+        assertThat(limiter.limit()).isEqualTo(2);
+
+        for (int index = 0; index < 2; index++) {
+            limiter.acquire("a", 0);
+            limiter.release(false);
+        }
+        assertThat(limiter.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsNonPositiveLimit() {
+        assertThatThrownBy(() -> new FairLimiter<String>(0, 1, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Thread startWaiter(FairLimiter<String> limiter, String key, List<String> granted) {
+        return startWaiter(limiter, key, granted, key);
+    }
+
+    private static Thread startWaiter(FairLimiter<String> limiter, String key, List<String> granted, String name) {
+        Thread thread = new Thread(() -> {
+            try {
+                if (limiter.acquire(key, LONG_WAIT) == FairLimiter.Result.ACQUIRED) {
+                    granted.add(name);
+                }
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,79 @@
+package com.api.flux.utils;
+
+import com.api.flux.enums.ExpenseCategory;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+    private final UUID id = UUID.randomUUID();
+
+    @Test
+    void roundTripsSortFieldDirectionIdAndValue() {
+        KeysetCursor cursor = KeysetCursor.of("amount", Sort.Direction.DESC, id, new BigDecimal("12.50"));
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.valueAs(BigDecimal.class)).isEqualTo(new BigDecimal("12.50"));
+    }
+
+    @Test
+    void distinguishesNullFromEmptyValues() {
+        KeysetCursor nullValue = KeysetCursor.decode(KeysetCursor.of("title", Sort.Direction.ASC, id, null).encode());
+        KeysetCursor emptyValue = KeysetCursor.decode(KeysetCursor.of("title", Sort.Direction.ASC, id, "").encode());
+
+        assertThat(nullValue.value()).isNull();
+        assertThat(nullValue.valueAs(String.class)).isNull();
+        assertThat(emptyValue.value()).isEmpty();
+    }
+
+    @Test
+    void keepsSeparatorsInsideValues() {
+        KeysetCursor cursor = KeysetCursor.of("title", Sort.Direction.ASC, id, "rent\nmarch");
+
+        assertThat(KeysetCursor.decode(cursor.encode()).value()).isEqualTo("rent\nmarch");
+    }
+
+    @Test
+    void convertsEnumAndInstantValues() {
+        Instant now = Instant.parse("2026-01-02T03:04:05Z");
+
+        assertThat(KeysetCursor.of("category", Sort.Direction.ASC, id, ExpenseCategory.HOUSING).valueAs(ExpenseCategory.class))
+                .isEqualTo(ExpenseCategory.HOUSING);
+        assertThat(KeysetCursor.of("transactionDate", Sort.Direction.ASC, id, now).valueAs(Instant.class)).isEqualTo(now);
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("amount\nDESC"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("amount\nSIDEWAYS\n" + id + "\nv1")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("amount\nDESC\nnot-a-uuid\nv1")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("\nDESC\n" + id + "\nv1")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsValuesThatDoNotMatchTheSortFieldType() {
+        KeysetCursor cursor = KeysetCursor.decode(encode("amount\nDESC\n" + id + "\nvtwelve"));
+
+        assertThatThrownBy(() -> cursor.valueAs(BigDecimal.class)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cursor.valueAs(ExpenseCategory.class)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cursor.valueAs(Long.class)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
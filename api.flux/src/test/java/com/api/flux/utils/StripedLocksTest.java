@@ -0,0 +1,46 @@
+package com.api.flux.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StripedLocksTest {
+
+    @Test
+    void roundsStripesUpToPowerOfTwo() {
+        assertThat(new StripedLocks(1).stripes()).isEqualTo(1);
+        assertThat(new StripedLocks(2).stripes()).isEqualTo(2);
+        assertThat(new StripedLocks(3).stripes()).isEqualTo(4);
+        assertThat(new StripedLocks(64).stripes()).isEqualTo(64);
+        assertThat(new StripedLocks(65).stripes()).isEqualTo(128);
+    }
+
+    @Test
+    void rejectsNonPositiveStripes() {
+        assertThatThrownBy(() -> new StripedLocks(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sameKeyAlwaysMapsToSameLock() {
+        StripedLocks locks = new StripedLocks(16);
+        UUID userId = UUID.randomUUID();
+
+        assertThat(locks.lockFor(userId)).isSameAs(locks.lockFor(UUID.fromString(userId.toString())));
+    }
+
+    @Test
+    void spreadsKeysAcrossStripes() {
+        StripedLocks locks = new StripedLocks(8);
+
+        long distinctLocks = IntStream.range(0, 256)
+                .mapToObj(index -> locks.lockFor(UUID.randomUUID()))
+                .distinct()
+                .count();
+
+        assertThat(distinctLocks).isGreaterThan(1);
+    }
+}
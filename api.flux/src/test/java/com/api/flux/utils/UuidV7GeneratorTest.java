@@ -0,0 +1,88 @@
+package com.api.flux.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Test
+    void setsVersionVariantAndTimestamp() {
+        UUID id = new UuidV7Generator(() -> NOW).next();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(timestampOf(id)).isEqualTo(NOW);
+    }
+
+    @Test
+    void idsIncreaseWithinTheSameMillisecond() {
+        UuidV7Generator generator = new UuidV7Generator(() -> NOW);
+
+        assertStrictlyIncreasing(generate(generator, 100));
+    }
+
+    @Test
+    void sequenceOverflowBorrowsTheNextMillisecond() {
+        UuidV7Generator generator = new UuidV7Generator(() -> NOW);
+
+        List<UUID> ids = generate(generator, 4096 + 10);
+
+        assertStrictlyIncreasing(ids);
+        assertThat(timestampOf(ids.get(4095))).isEqualTo(NOW);
+        assertThat(timestampOf(ids.get(4096))).isEqualTo(NOW + 1);
+        assertThat(ids).allSatisfy(id -> assertThat(id.version()).isEqualTo(7));
+    }
+
+    @Test
+    void staysMonotonicWhenTheClockMovesBackwards() {
+        AtomicLong clock = new AtomicLong(NOW);
+        UuidV7Generator generator = new UuidV7Generator(clock::get);
+
+        UUID before = generator.next();
+        clock.set(NOW - 5_000);
+        UUID after = generator.next();
+
+        assertThat(Long.compareUnsigned(after.getMostSignificantBits(), before.getMostSignificantBits())).isPositive();
+    }
+
+    @Test
+    void concurrentCallersGetUniqueIds() {
+        UuidV7Generator generator = new UuidV7Generator();
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 20_000).parallel().forEach(index -> ids.add(generator.next()));
+
+        assertThat(ids).hasSize(20_000);
+    }
+
+    private static List<UUID> generate(UuidV7Generator generator, int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            ids.add(generator.next());
+        }
+        assertThat(new HashSet<>(ids)).hasSize(count);
+        return ids;
+    }
+
+    private static void assertStrictlyIncreasing(List<UUID> ids) {
+        for (int index = 1; index < ids.size(); index++) {
+            assertThat(Long.compareUnsigned(ids.get(index).getMostSignificantBits(),
+                    ids.get(index - 1).getMostSignificantBits())).isPositive();
+        }
+    }
+
+    private static long timestampOf(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+}